@@ -0,0 +1,84 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.reactivo.onclass.app.on_class_reactivo.application.dto.BootcampDetailDTO;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampMetricsUseCase;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampUseCase;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.CapabilityUseCase;
+
+// Lecturas del catálogo: páginas con sus relaciones y el detalle del bootcamp más popular
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+
+    @Param({ "100", "10000" })
+    int datasetSize;
+
+    // Latencia simulada por ida a la base, en microsegundos
+    @Param({ "0", "500" })
+    long latencyMicros;
+
+    @Param({ "20" })
+    int pageSize;
+
+    private BootcampUseCase bootcampUseCase;
+    private CapabilityUseCase capabilityUseCase;
+    private BootcampMetricsUseCase metricsUseCase;
+    private int pages;
+    private int page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryRepositories repositories = new InMemoryRepositories(datasetSize, latencyMicros);
+        bootcampUseCase = repositories.bootcampUseCase();
+        capabilityUseCase = repositories.capabilityUseCase();
+        metricsUseCase = repositories.bootcampMetricsUseCase();
+        pages = Math.max(1, datasetSize / pageSize);
+    }
+
+    @Benchmark
+    public List<Bootcamp> getAllBootcamp() {
+        return bootcampUseCase.getAllBootcamp("nombre", "asc", nextPage(), pageSize)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public List<Capability> getAllCapabilities() {
+        return capabilityUseCase.getAllCapabilities("nombre", "asc", nextPage(), pageSize)
+                .collectList()
+                .block();
+    }
+
+    @Benchmark
+    public BootcampDetailDTO getMostPopularBootcamp() {
+        return metricsUseCase.getMostPopularBootcamp().block();
+    }
+
+    // Recorre todas las páginas para no medir siempre la misma
+    private int nextPage() {
+        page = (page + 1) % pages;
+        return page;
+    }
+}
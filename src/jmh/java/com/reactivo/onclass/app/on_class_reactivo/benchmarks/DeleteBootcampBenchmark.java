@@ -0,0 +1,53 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampUseCase;
+
+// Borrado en cascada. Lo borrado se restaura dentro de la misma invocación (unas
+// pocas inserciones en mapas) para que cada llamada vea el catálogo completo.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeleteBootcampBenchmark {
+
+    @Param({ "100", "10000" })
+    int datasetSize;
+
+    @Param({ "0", "500" })
+    long latencyMicros;
+
+    private InMemoryDatabase database;
+    private BootcampUseCase useCase;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryRepositories repositories = new InMemoryRepositories(datasetSize, latencyMicros);
+        database = repositories.database;
+        useCase = repositories.bootcampUseCase();
+    }
+
+    @Benchmark
+    public void deleteBootcamp() {
+        next = (next + 1) % datasetSize;
+        useCase.deleteBootcamp("b" + next).block();
+        database.restore();
+    }
+}
@@ -0,0 +1,14 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TransactionRunner;
+
+import reactor.core.publisher.Mono;
+
+// Sin transacciones en memoria: la operación se ejecuta tal cual
+class DirectTransactionRunner implements TransactionRunner {
+
+    @Override
+    public <T> Mono<T> inTransaction(Mono<T> operation) {
+        return operation;
+    }
+}
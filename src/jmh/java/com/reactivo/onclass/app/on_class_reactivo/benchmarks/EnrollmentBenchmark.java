@@ -0,0 +1,59 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.EnrollmentUseCase;
+
+import reactor.core.publisher.Mono;
+
+// Inscripción individual. Cada invocación usa una persona nueva para medir el camino
+// de admisión; una de cada cuatro repite persona y recorre el de rechazo.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrollmentBenchmark {
+
+    @Param({ "100", "10000" })
+    int datasetSize;
+
+    @Param({ "0", "500" })
+    long latencyMicros;
+
+    private EnrollmentUseCase useCase;
+    private long next;
+
+    // Datos nuevos por iteración: las inscripciones se acumulan
+    @Setup(Level.Iteration)
+    public void setUp() {
+        useCase = new InMemoryRepositories(datasetSize, latencyMicros).enrollmentUseCase();
+        next = 0;
+    }
+
+    @Benchmark
+    public Enrollment enrollPerson() {
+        long invocation = next++;
+        String personId = "bench-" + (invocation % 4 == 3 ? invocation - 1 : invocation);
+        String bootcampId = "b" + (invocation % datasetSize);
+
+        return useCase.enrollPerson(personId, bootcampId)
+                .onErrorResume(IllegalArgumentException.class, e -> Mono.empty())
+                .block();
+    }
+}
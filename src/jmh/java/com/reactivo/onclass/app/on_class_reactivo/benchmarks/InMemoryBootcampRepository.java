@@ -0,0 +1,164 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampCascade;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class InMemoryBootcampRepository implements BootcampRepository {
+
+    private static final Comparator<Bootcamp> BY_NOMBRE = Comparator
+            .comparing(Bootcamp::getNombre, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Bootcamp::getId);
+
+    private static final Comparator<Bootcamp> BY_CANTIDAD = Comparator
+            .comparing(Bootcamp::getCantidadCapacidades)
+            .thenComparing(Bootcamp::getId);
+
+    private static final Comparator<Bootcamp> BY_INSCRITOS_DESC = Comparator
+            .comparing(Bootcamp::getCantidadPersonasInscritas, Comparator.reverseOrder())
+            .thenComparing(Bootcamp::getId);
+
+    private final InMemoryDatabase database;
+
+    InMemoryBootcampRepository(InMemoryDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Mono<Bootcamp> save(Bootcamp bootcamp) {
+        return database.one(() -> {
+            database.put(database.bootcamps, bootcamp.getId(), InMemoryDatabase.copy(bootcamp));
+            return bootcamp;
+        });
+    }
+
+    @Override
+    public Flux<Bootcamp> findAll() {
+        return database.many(() -> database.bootcamps.values().stream().map(InMemoryDatabase::copy).toList());
+    }
+
+    @Override
+    public Flux<Bootcamp> findAllPaginated(String sortBy, String order, int page, int size) {
+        boolean byCantidad = PageCursor.SORT_CANTIDAD.equals(PageCursor.normalizeSortBy(sortBy));
+        return database.many(() -> InMemoryDatabase.page(
+                database.sorted(byCantidad ? "bootcamps:cantidad" : "bootcamps:nombre",
+                        database.bootcamps, byCantidad ? BY_CANTIDAD : BY_NOMBRE),
+                order, page, size))
+                .map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Flux<Bootcamp> findAllAfter(String sortBy, String order, PageCursor cursor, int size) {
+        return InMemoryDatabase.<Bootcamp>unsupported().flux();
+    }
+
+    @Override
+    public Flux<Bootcamp> findRunningBetween(LocalDate from, LocalDate to) {
+        return database.many(() -> database.bootcamps.values().stream()
+                .filter(bootcamp -> !bootcamp.getFechaLanzamiento().isAfter(to)
+                        && !bootcamp.getFechaFin().isBefore(from))
+                .map(InMemoryDatabase::copy)
+                .toList());
+    }
+
+    @Override
+    public Flux<Bootcamp> findEndingFrom(LocalDate date) {
+        return database.many(() -> database.bootcamps.values().stream()
+                .filter(bootcamp -> !bootcamp.getFechaFin().isBefore(date))
+                .map(InMemoryDatabase::copy)
+                .toList());
+    }
+
+    @Override
+    public Mono<Boolean> existsByNombre(String nombre) {
+        return database.one(() -> database.bootcamps.values().stream()
+                .anyMatch(bootcamp -> bootcamp.getNombre().equals(nombre)));
+    }
+
+    @Override
+    public Mono<Bootcamp> findById(String id) {
+        return database.one(() -> database.bootcamps.get(id)).map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Flux<Bootcamp> findAllById(Iterable<String> ids) {
+        return database.many(() -> InMemoryDatabase.resolve(ids, database.bootcamps)).map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return database.one(() -> {
+            database.remove(database.bootcamps, id);
+            return id;
+        }).then();
+    }
+
+    // Mismo resultado que la agregación de Mongo: capacidades que ningún otro bootcamp
+    // usa y tecnologías que solo usaban esas capacidades
+    @Override
+    public Mono<BootcampCascade> findDeleteCascade(String bootcampId) {
+        return database.one(() -> {
+            Bootcamp target = database.bootcamps.get(bootcampId);
+            if (target == null) {
+                return null;
+            }
+
+            Set<String> sharedCapabilities = new HashSet<>();
+            database.bootcamps.values().stream()
+                    .filter(bootcamp -> !bootcamp.getId().equals(bootcampId))
+                    .forEach(bootcamp -> sharedCapabilities.addAll(bootcamp.getCapabilityIds()));
+            List<String> orphanCapabilities = target.getCapabilityIds().stream()
+                    .filter(id -> !sharedCapabilities.contains(id))
+                    .toList();
+
+            Set<String> sharedTechnologies = new HashSet<>();
+            database.capabilities.values().stream()
+                    .filter(capability -> !orphanCapabilities.contains(capability.getId()))
+                    .forEach(capability -> sharedTechnologies.addAll(capability.getTechnologyIds()));
+            List<String> orphanTechnologies = InMemoryDatabase.resolve(orphanCapabilities, database.capabilities)
+                    .stream()
+                    .flatMap(capability -> capability.getTechnologyIds().stream())
+                    .filter(id -> !sharedTechnologies.contains(id))
+                    .distinct()
+                    .toList();
+
+            return new BootcampCascade(bootcampId, orphanCapabilities, orphanTechnologies);
+        });
+    }
+
+    @Override
+    public Mono<Void> incrementCantidadPersonasInscritas(String bootcampId, int delta) {
+        return database.one(() -> {
+            Bootcamp bootcamp = database.bootcamps.get(bootcampId);
+            if (bootcamp != null) {
+                bootcamp.setCantidadPersonasInscritas(bootcamp.getCantidadPersonasInscritas() + delta);
+                database.put(database.bootcamps, bootcampId, bootcamp);
+            }
+            return bootcampId;
+        }).then();
+    }
+
+    @Override
+    public Flux<Bootcamp> findTopByCantidadPersonasInscritas(int limit) {
+        return database.many(() -> {
+            List<Bootcamp> ranking = database.sorted("bootcamps:inscritos", database.bootcamps, BY_INSCRITOS_DESC);
+            return ranking.subList(0, Math.min(limit, ranking.size()));
+        }).map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Mono<Long> reconcileCantidadPersonasInscritas(List<BootcampEnrollmentCount> counts) {
+        return InMemoryDatabase.unsupported();
+    }
+}
@@ -0,0 +1,116 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class InMemoryCapabilityRepository implements CapabilityRepository {
+
+    private static final Comparator<Capability> BY_NOMBRE = Comparator
+            .comparing(Capability::getNombre, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(Capability::getId);
+
+    private static final Comparator<Capability> BY_CANTIDAD = Comparator
+            .comparing(Capability::getCantidadTecnologias)
+            .thenComparing(Capability::getId);
+
+    private final InMemoryDatabase database;
+
+    InMemoryCapabilityRepository(InMemoryDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Mono<Capability> save(Capability capability) {
+        return database.one(() -> {
+            database.put(database.capabilities, capability.getId(), InMemoryDatabase.copy(capability));
+            return capability;
+        });
+    }
+
+    @Override
+    public Flux<Capability> findAll() {
+        return database.many(() -> database.capabilities.values().stream().map(InMemoryDatabase::copy).toList());
+    }
+
+    @Override
+    public Flux<Capability> findAllPaginated(String sortBy, String order, int page, int size) {
+        boolean byCantidad = PageCursor.SORT_CANTIDAD.equals(PageCursor.normalizeSortBy(sortBy));
+        return database.many(() -> InMemoryDatabase.page(
+                database.sorted(byCantidad ? "capabilities:cantidad" : "capabilities:nombre",
+                        database.capabilities, byCantidad ? BY_CANTIDAD : BY_NOMBRE),
+                order, page, size))
+                .map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Flux<Capability> findAllAfter(String sortBy, String order, PageCursor cursor, int size) {
+        return InMemoryDatabase.<Capability>unsupported().flux();
+    }
+
+    @Override
+    public Mono<Boolean> existsByNombre(String nombre) {
+        return database.one(() -> database.capabilities.values().stream()
+                .anyMatch(capability -> capability.getNombre().equals(nombre)));
+    }
+
+    @Override
+    public Mono<Capability> findById(String id) {
+        return database.one(() -> database.capabilities.get(id)).map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return database.one(() -> {
+            database.remove(database.capabilities, id);
+            return id;
+        }).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return database.one(() -> {
+            ids.forEach(id -> database.remove(database.capabilities, id));
+            return ids;
+        }).then();
+    }
+
+    @Override
+    public Flux<Capability> findAllById(Iterable<String> ids) {
+        return database.many(() -> InMemoryDatabase.resolve(ids, database.capabilities)).map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Mono<Map<String, Integer>> countDistinctTechnologiesPerGroup(
+            Map<String, List<String>> capabilityIdsByGroup) {
+        return database.one(() -> {
+            Map<String, Integer> counts = new HashMap<>();
+            capabilityIdsByGroup.forEach((group, capabilityIds) -> {
+                Set<String> technologyIds = new HashSet<>();
+                InMemoryDatabase.resolve(capabilityIds, database.capabilities)
+                        .forEach(capability -> technologyIds.addAll(capability.getTechnologyIds()));
+                counts.put(group, technologyIds.size());
+            });
+            return counts;
+        });
+    }
+
+    @Override
+    public Flux<Integer> insertAll(List<Capability> capabilities) {
+        return InMemoryDatabase.<Integer>unsupported().flux();
+    }
+}
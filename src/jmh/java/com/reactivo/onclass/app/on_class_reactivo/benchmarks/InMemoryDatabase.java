@@ -0,0 +1,275 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.EnrolledBootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Person;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PersonEnrollments;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Colecciones en memoria compartidas por los repositorios de los benchmarks. Cada
+// operación de un repositorio cuenta como una ida a la base: paga la latencia
+// simulada y devuelve copias, como haría la decodificación del driver.
+final class InMemoryDatabase {
+
+    private static final LocalDate INICIO = LocalDate.of(2026, 1, 5);
+
+    final Map<String, Technology> technologies = new ConcurrentHashMap<>();
+    final Map<String, Capability> capabilities = new ConcurrentHashMap<>();
+    final Map<String, Bootcamp> bootcamps = new ConcurrentHashMap<>();
+    final Map<String, Person> persons = new ConcurrentHashMap<>();
+    final Map<String, PersonEnrollments> summaries = new ConcurrentHashMap<>();
+    final Map<String, List<Enrollment>> enrollmentsByBootcamp = new ConcurrentHashMap<>();
+
+    // Listas ordenadas por colección y criterio; hacen las veces de índice
+    private final Map<String, List<?>> sorted = new ConcurrentHashMap<>();
+
+    // Documentos borrados, para restaurarlos entre invocaciones destructivas. Las
+    // colecciones se identifican por referencia: su equals/hashCode recorre el
+    // contenido y además cambia con cada borrado
+    private final Map<Map<String, ?>, Map<String, Object>> removed = new IdentityHashMap<>();
+
+    private final Duration latency;
+
+    private InMemoryDatabase(Duration latency) {
+        this.latency = latency;
+    }
+
+    // Datos deterministas: size tecnologías, capacidades y bootcamps, y 2 * size personas
+    static InMemoryDatabase generate(int size, Duration latency) {
+        InMemoryDatabase database = new InMemoryDatabase(latency);
+
+        for (int i = 0; i < size; i++) {
+            database.technologies.put("t" + i, Technology.builder()
+                    .id("t" + i)
+                    .nombre("Tecnología " + i)
+                    .descripcion("Descripción de la tecnología " + i)
+                    .build());
+        }
+
+        for (int i = 0; i < size; i++) {
+            List<String> technologyIds = distinct("t", size, i, i * 7 + 1, i * 13 + 2);
+            database.capabilities.put("c" + i, Capability.builder()
+                    .id("c" + i)
+                    .nombre("Capacidad " + i)
+                    .descripcion("Descripción de la capacidad " + i)
+                    .technologyIds(technologyIds)
+                    .cantidadTecnologias(technologyIds.size())
+                    .build());
+        }
+
+        for (int i = 0; i < size; i++) {
+            // Capacidades compartidas con el bootcamp vecino: los borrados dejan huérfanos parciales
+            List<String> capabilityIds = distinct("c", size, i, i + 1, i * 5 + 3);
+            LocalDate lanzamiento = INICIO.plusWeeks(i % 52);
+            database.bootcamps.put("b" + i, Bootcamp.builder()
+                    .id("b" + i)
+                    .nombre("Bootcamp " + i)
+                    .descripcion("Descripción del bootcamp " + i)
+                    .fechaLanzamiento(lanzamiento)
+                    .duracion("8 semanas")
+                    .duracionSemanas(8)
+                    .fechaFin(lanzamiento.plusWeeks(8))
+                    .capabilityIds(capabilityIds)
+                    .cantidadCapacidades(capabilityIds.size())
+                    .cantidadPersonasInscritas(0)
+                    .build());
+        }
+
+        for (int i = 0; i < 2 * size; i++) {
+            String personId = "p" + i;
+            database.persons.put(personId, Person.builder()
+                    .id(personId)
+                    .nombre("Persona " + i)
+                    .correo("persona" + i + "@onclass.co")
+                    .build());
+            // Popularidad sesgada hacia los primeros bootcamps
+            Bootcamp bootcamp = database.bootcamps.get("b" + (int) ((long) i * i % size));
+            database.enroll(personId, bootcamp);
+            bootcamp.setCantidadPersonasInscritas(bootcamp.getCantidadPersonasInscritas() + 1);
+        }
+
+        return database;
+    }
+
+    Duration latency() {
+        return latency;
+    }
+
+    <T> Mono<T> one(Supplier<T> query) {
+        Mono<T> result = Mono.fromSupplier(query);
+        return latency.isZero() ? result : result.delaySubscription(latency);
+    }
+
+    <T> Flux<T> many(Supplier<? extends Collection<T>> query) {
+        Flux<T> result = Flux.defer(() -> Flux.fromIterable(query.get()));
+        return latency.isZero() ? result : result.delaySubscription(latency);
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> List<T> sorted(String key, Map<String, T> collection, Comparator<T> comparator) {
+        return (List<T>) sorted.computeIfAbsent(key, ignored -> {
+            List<T> list = new ArrayList<>(collection.values());
+            list.sort(comparator);
+            return list;
+        });
+    }
+
+    static <T> List<T> page(List<T> ascending, String order, int page, int size) {
+        int from = Math.min(ascending.size(), page * size);
+        int to = Math.min(ascending.size(), from + size);
+        if (!PageCursor.isDescending(order)) {
+            return ascending.subList(from, to);
+        }
+        List<T> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(ascending.get(ascending.size() - 1 - i));
+        }
+        return result;
+    }
+
+    <T> void put(Map<String, T> collection, String id, T document) {
+        collection.put(id, document);
+        sorted.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> void remove(Map<String, T> collection, String id) {
+        T document = collection.remove(id);
+        if (document != null) {
+            ((Map<String, T>) (Map<String, ?>) removed.computeIfAbsent(collection, ignored -> new HashMap<>()))
+                    .put(id, document);
+            sorted.clear();
+        }
+    }
+
+    // Como put, pero restore() vuelve a dejar el documento que había antes
+    @SuppressWarnings("unchecked")
+    <T> void replace(Map<String, T> collection, String id, T document) {
+        T previous = collection.put(id, document);
+        if (previous != null) {
+            ((Map<String, T>) (Map<String, ?>) removed.computeIfAbsent(collection, ignored -> new HashMap<>()))
+                    .putIfAbsent(id, previous);
+        }
+        sorted.clear();
+    }
+
+    // Devuelve a su colección todo lo borrado desde la última restauración
+    @SuppressWarnings("unchecked")
+    void restore() {
+        if (removed.isEmpty()) {
+            return;
+        }
+        removed.forEach((collection, documents) -> ((Map<String, Object>) collection).putAll(documents));
+        removed.clear();
+        sorted.clear();
+    }
+
+    // Registra la inscripción y el resumen; el contador del bootcamp va aparte
+    void enroll(String personId, Bootcamp bootcamp) {
+        PersonEnrollments summary = summaries.computeIfAbsent(personId,
+                id -> new PersonEnrollments(id, new ArrayList<>(), 0L));
+        summary.getBootcamps().add(EnrolledBootcamp.builder()
+                .bootcampId(bootcamp.getId())
+                .nombre(bootcamp.getNombre())
+                .fechaInicio(bootcamp.getFechaLanzamiento())
+                .fechaFin(bootcamp.getFechaFin())
+                .build());
+        summary.setVersion(summary.getVersion() + 1);
+
+        enrollmentsByBootcamp.computeIfAbsent(bootcamp.getId(), id -> new ArrayList<>())
+                .add(Enrollment.builder()
+                        .id(personId + ":" + bootcamp.getId())
+                        .personId(personId)
+                        .bootcampId(bootcamp.getId())
+                        .fechaInscripcion(INICIO)
+                        .build());
+    }
+
+    static Technology copy(Technology technology) {
+        return Technology.builder()
+                .id(technology.getId())
+                .nombre(technology.getNombre())
+                .descripcion(technology.getDescripcion())
+                .build();
+    }
+
+    static Capability copy(Capability capability) {
+        return Capability.builder()
+                .id(capability.getId())
+                .nombre(capability.getNombre())
+                .descripcion(capability.getDescripcion())
+                .technologyIds(new ArrayList<>(capability.getTechnologyIds()))
+                .cantidadTecnologias(capability.getCantidadTecnologias())
+                .build();
+    }
+
+    static Bootcamp copy(Bootcamp bootcamp) {
+        return Bootcamp.builder()
+                .id(bootcamp.getId())
+                .nombre(bootcamp.getNombre())
+                .descripcion(bootcamp.getDescripcion())
+                .fechaLanzamiento(bootcamp.getFechaLanzamiento())
+                .duracion(bootcamp.getDuracion())
+                .duracionSemanas(bootcamp.getDuracionSemanas())
+                .fechaFin(bootcamp.getFechaFin())
+                .capabilityIds(new ArrayList<>(bootcamp.getCapabilityIds()))
+                .cantidadCapacidades(bootcamp.getCantidadCapacidades())
+                .cantidadPersonasInscritas(bootcamp.getCantidadPersonasInscritas())
+                .build();
+    }
+
+    static PersonEnrollments copy(PersonEnrollments summary) {
+        return new PersonEnrollments(summary.getId(), summary.getBootcamps().stream()
+                .map(entry -> EnrolledBootcamp.builder()
+                        .bootcampId(entry.getBootcampId())
+                        .nombre(entry.getNombre())
+                        .fechaInicio(entry.getFechaInicio())
+                        .fechaFin(entry.getFechaFin())
+                        .build())
+                .collect(Collectors.toCollection(ArrayList::new)), summary.getVersion());
+    }
+
+    static <T> List<T> resolve(Iterable<String> ids, Map<String, T> collection) {
+        List<T> found = new ArrayList<>();
+        for (String id : ids) {
+            T document = collection.get(id);
+            if (document != null) {
+                found.add(document);
+            }
+        }
+        return found;
+    }
+
+    static <T> Mono<T> unsupported() {
+        return Mono.error(new UnsupportedOperationException("No se usa en los benchmarks"));
+    }
+
+    private static List<String> distinct(String prefix, int size, int... positions) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (int position : positions) {
+            ids.add(prefix + Math.floorMod(position, size));
+        }
+        return new ArrayList<>(ids);
+    }
+}
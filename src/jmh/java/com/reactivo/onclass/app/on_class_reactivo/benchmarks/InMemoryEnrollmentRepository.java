@@ -0,0 +1,128 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.EnrolledBootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PersonEnrollments;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.EnrollmentRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class InMemoryEnrollmentRepository implements EnrollmentRepository {
+
+    private final InMemoryDatabase database;
+
+    InMemoryEnrollmentRepository(InMemoryDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Mono<Boolean> existsByPersonIdAndBootcampId(String personId, String bootcampId) {
+        return database.one(() -> database.enrollmentsByBootcamp.getOrDefault(bootcampId, List.of()).stream()
+                .anyMatch(enrollment -> enrollment.getPersonId().equals(personId)));
+    }
+
+    @Override
+    public Mono<Long> countByPersonId(String personId) {
+        return database.one(() -> {
+            PersonEnrollments summary = database.summaries.get(personId);
+            return summary == null ? 0L : summary.getBootcamps().size();
+        });
+    }
+
+    @Override
+    public Flux<Enrollment> findByPersonId(String personId) {
+        return database.many(() -> database.enrollmentsByBootcamp.values().stream()
+                .flatMap(List::stream)
+                .filter(enrollment -> enrollment.getPersonId().equals(personId))
+                .toList());
+    }
+
+    @Override
+    public Mono<Enrollment> save(Enrollment enrollment) {
+        return InMemoryDatabase.unsupported();
+    }
+
+    @Override
+    public Mono<Long> countByBootcampId(String bootcampId) {
+        return database.one(() -> (long) database.enrollmentsByBootcamp.getOrDefault(bootcampId, List.of()).size());
+    }
+
+    @Override
+    public Flux<Enrollment> findByBootcampId(String bootcampId) {
+        return database.many(() -> List.copyOf(database.enrollmentsByBootcamp.getOrDefault(bootcampId, List.of())));
+    }
+
+    @Override
+    public Mono<Bootcamp> findBootcampWithMostEnrollments() {
+        return InMemoryDatabase.unsupported();
+    }
+
+    @Override
+    public Flux<BootcampEnrollmentCount> countGroupedByBootcamp() {
+        return database.many(() -> database.enrollmentsByBootcamp.entrySet().stream()
+                .map(entry -> new BootcampEnrollmentCount(entry.getKey(), entry.getValue().size()))
+                .toList());
+    }
+
+    // Las mismas tres reglas que el filtro de la actualización condicional en Mongo
+    @Override
+    public Mono<Enrollment> admit(Enrollment enrollment, EnrolledBootcamp bootcamp, int maxBootcamps) {
+        return database.one(() -> {
+            PersonEnrollments summary = database.summaries.get(enrollment.getPersonId());
+            List<EnrolledBootcamp> inscritos = summary == null ? List.of() : summary.getBootcamps();
+
+            boolean admitted = inscritos.size() < maxBootcamps
+                    && inscritos.stream().noneMatch(b -> b.getBootcampId().equals(bootcamp.getBootcampId())
+                            || !b.getFechaInicio().isAfter(bootcamp.getFechaFin())
+                                    && !bootcamp.getFechaInicio().isAfter(b.getFechaFin()));
+            if (!admitted) {
+                return null;
+            }
+
+            database.enroll(enrollment.getPersonId(), database.bootcamps.get(bootcamp.getBootcampId()));
+            return enrollment;
+        });
+    }
+
+    @Override
+    public Mono<PersonEnrollments> findSummaryByPersonId(String personId) {
+        return database.one(() -> database.summaries.get(personId)).map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Flux<PersonEnrollments> findSummariesByPersonIds(Collection<String> personIds) {
+        return database.many(() -> InMemoryDatabase.resolve(personIds, database.summaries))
+                .map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Flux<Enrollment> admitAll(List<PersonEnrollments> summaries, List<Enrollment> enrollments) {
+        return InMemoryDatabase.<Enrollment>unsupported().flux();
+    }
+
+    @Override
+    public Mono<Void> removeBootcamp(String bootcampId) {
+        return database.one(() -> {
+            for (Enrollment enrollment : database.enrollmentsByBootcamp.getOrDefault(bootcampId, List.of())) {
+                PersonEnrollments summary = database.summaries.get(enrollment.getPersonId());
+                if (summary != null) {
+                    database.replace(database.summaries, summary.getId(), new PersonEnrollments(summary.getId(),
+                            summary.getBootcamps().stream()
+                                    .filter(inscrito -> !inscrito.getBootcampId().equals(bootcampId))
+                                    .collect(Collectors.toCollection(ArrayList::new)),
+                            summary.getVersion() + 1));
+                }
+            }
+            database.remove(database.enrollmentsByBootcamp, bootcampId);
+            return null;
+        }).then();
+    }
+}
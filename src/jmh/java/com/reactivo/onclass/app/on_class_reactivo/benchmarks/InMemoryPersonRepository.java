@@ -0,0 +1,26 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Person;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.PersonRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class InMemoryPersonRepository implements PersonRepository {
+
+    private final InMemoryDatabase database;
+
+    InMemoryPersonRepository(InMemoryDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Mono<Person> findById(String id) {
+        return database.one(() -> database.persons.get(id));
+    }
+
+    @Override
+    public Flux<Person> findAllById(Iterable<String> ids) {
+        return database.many(() -> InMemoryDatabase.resolve(ids, database.persons));
+    }
+}
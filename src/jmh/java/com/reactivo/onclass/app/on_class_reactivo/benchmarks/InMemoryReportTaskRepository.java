@@ -0,0 +1,64 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.ReportTask;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.ReportTaskRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Solo recibe las tareas que encola createBootcamp; ningún benchmark las procesa
+class InMemoryReportTaskRepository implements ReportTaskRepository {
+
+    private final InMemoryDatabase database;
+    private final Map<String, ReportTask> tasks = new ConcurrentHashMap<>();
+
+    InMemoryReportTaskRepository(InMemoryDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Mono<ReportTask> save(ReportTask task) {
+        return database.one(() -> {
+            if (task.getId() == null) {
+                task.setId(UUID.randomUUID().toString());
+            }
+            tasks.put(task.getId(), task);
+            return task;
+        });
+    }
+
+    @Override
+    public Flux<ReportTask> claimDue(Instant now, Duration lease, int limit) {
+        return InMemoryDatabase.<ReportTask>unsupported().flux();
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Collection<String> ids) {
+        return database.one(() -> {
+            ids.forEach(tasks::remove);
+            return ids;
+        }).then();
+    }
+
+    @Override
+    public Mono<Void> reschedule(String id, Instant nextAttemptAt, String error) {
+        return InMemoryDatabase.unsupported();
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return database.one(() -> (long) tasks.size());
+    }
+
+    @Override
+    public Mono<ReportTask> findOldest() {
+        return InMemoryDatabase.unsupported();
+    }
+}
@@ -0,0 +1,47 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import java.time.Duration;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampMetricsUseCase;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampUseCase;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.CapabilityUseCase;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.EnrollmentUseCase;
+
+// Casos de uso cableados igual que en UseCaseConfig, pero sobre repositorios en memoria
+final class InMemoryRepositories {
+
+    final InMemoryDatabase database;
+    final InMemoryTechnologyRepository technologies;
+    final InMemoryCapabilityRepository capabilities;
+    final InMemoryBootcampRepository bootcamps;
+    final InMemoryEnrollmentRepository enrollments;
+    final InMemoryPersonRepository persons;
+    final InMemoryReportTaskRepository reportTasks;
+
+    InMemoryRepositories(int datasetSize, long latencyMicros) {
+        this.database = InMemoryDatabase.generate(datasetSize, Duration.ofNanos(latencyMicros * 1000));
+        this.technologies = new InMemoryTechnologyRepository(database);
+        this.capabilities = new InMemoryCapabilityRepository(database);
+        this.bootcamps = new InMemoryBootcampRepository(database);
+        this.enrollments = new InMemoryEnrollmentRepository(database);
+        this.persons = new InMemoryPersonRepository(database);
+        this.reportTasks = new InMemoryReportTaskRepository(database);
+    }
+
+    BootcampUseCase bootcampUseCase() {
+        return new BootcampUseCase(bootcamps, capabilities, technologies, enrollments, reportTasks,
+                new DirectTransactionRunner());
+    }
+
+    CapabilityUseCase capabilityUseCase() {
+        return new CapabilityUseCase(capabilities, technologies);
+    }
+
+    EnrollmentUseCase enrollmentUseCase() {
+        return new EnrollmentUseCase(enrollments, bootcamps, new DirectTransactionRunner());
+    }
+
+    BootcampMetricsUseCase bootcampMetricsUseCase() {
+        return new BootcampMetricsUseCase(bootcamps, enrollments, capabilities, technologies, persons);
+    }
+}
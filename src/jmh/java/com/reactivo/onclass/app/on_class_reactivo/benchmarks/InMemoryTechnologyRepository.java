@@ -0,0 +1,72 @@
+package com.reactivo.onclass.app.on_class_reactivo.benchmarks;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class InMemoryTechnologyRepository implements TechnologyRepository {
+
+    private final InMemoryDatabase database;
+
+    InMemoryTechnologyRepository(InMemoryDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public Mono<Technology> save(Technology technology) {
+        return database.one(() -> {
+            database.put(database.technologies, technology.getId(), InMemoryDatabase.copy(technology));
+            return technology;
+        });
+    }
+
+    @Override
+    public Flux<Technology> findAll() {
+        return database.many(() -> database.technologies.values().stream().map(InMemoryDatabase::copy).toList());
+    }
+
+    @Override
+    public Mono<Boolean> existsByNombre(String nombre) {
+        return database.one(() -> database.technologies.values().stream()
+                .anyMatch(technology -> technology.getNombre().equals(nombre)));
+    }
+
+    @Override
+    public Mono<Technology> findById(String id) {
+        return database.one(() -> database.technologies.get(id)).map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return database.one(() -> {
+            database.remove(database.technologies, id);
+            return id;
+        }).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return database.one(() -> {
+            ids.forEach(id -> database.remove(database.technologies, id));
+            return ids;
+        }).then();
+    }
+
+    @Override
+    public Flux<Technology> findAllById(Iterable<String> ids) {
+        return database.many(() -> InMemoryDatabase.resolve(ids, database.technologies)).map(InMemoryDatabase::copy);
+    }
+
+    @Override
+    public Flux<Integer> insertAll(List<Technology> technologies) {
+        return InMemoryDatabase.<Integer>unsupported().flux();
+    }
+}
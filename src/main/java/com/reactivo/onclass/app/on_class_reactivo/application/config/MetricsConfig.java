@@ -0,0 +1,21 @@
+package com.reactivo.onclass.app.on_class_reactivo.application.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.metrics.DomainMetricsPostProcessor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class MetricsConfig {
+
+    // static: un BeanPostProcessor no debe forzar la creación temprana de esta configuración
+    @Bean
+    @ConditionalOnProperty(name = "onclass.metrics.enabled", havingValue = "true", matchIfMissing = true)
+    public static DomainMetricsPostProcessor domainMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DomainMetricsPostProcessor(meterRegistry);
+    }
+}
@@ -1,10 +1,13 @@
 package com.reactivo.onclass.app.on_class_reactivo.application.config;
 
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
 import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
 
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.RoundTripCommandListener;
+
 @Configuration
 public class ReactiveMongoConfig {
 
@@ -12,5 +15,12 @@ public class ReactiveMongoConfig {
     public ReactiveMongoTransactionManager transactionManager(ReactiveMongoDatabaseFactory factory) {
         return new ReactiveMongoTransactionManager(factory);
     }
-}
 
+    // Cuenta los comandos de cada petición (cabecera X-Db-Roundtrips)
+    @Bean
+    public MongoClientSettingsBuilderCustomizer roundTripCounting() {
+        return settings -> settings
+                .contextProvider(RoundTripCommandListener.contextProvider())
+                .addCommandListener(new RoundTripCommandListener());
+    }
+}
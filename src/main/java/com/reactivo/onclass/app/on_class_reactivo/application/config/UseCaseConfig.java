@@ -1,20 +1,116 @@
 package com.reactivo.onclass.app.on_class_reactivo.application.config;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampReportRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.EnrollmentRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.PersonRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.ReportTaskRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TransactionRunner;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampLeaderboard;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampMetricsUseCase;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampReportUseCase;
 import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampUseCase;
 import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.CapabilityUseCase;
 import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.EnrollmentUseCase;
 import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.TechnologyUseCase;
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache.CachingCapabilityRepository;
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache.CachingTechnologyRepository;
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache.CatalogSnapshotStore;
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache.SnapshotBootcampRepository;
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache.SnapshotCapabilityRepository;
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache.SnapshotTechnologyRepository;
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoBootcampRepositoryAdapter;
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoCapabilityRepositoryAdapter;
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoTechnologyRepositoryAdapter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 @Configuration
 public class UseCaseConfig {
+
+    // Decoradores con caché sobre los adaptadores de Mongo; se desactivan con onclass.cache.enabled=false
+    @Bean
+    @ConditionalOnProperty(name = "onclass.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CachingTechnologyRepository cachingTechnologyRepository(MongoTechnologyRepositoryAdapter adapter,
+            @Value("${onclass.cache.max-size:1000}") long maxSize,
+            @Value("${onclass.cache.ttl:PT10M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        return new CachingTechnologyRepository(adapter, newCache("technologies", maxSize, ttl, meterRegistry));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "onclass.cache.enabled", havingValue = "true", matchIfMissing = true)
+    public CachingCapabilityRepository cachingCapabilityRepository(MongoCapabilityRepositoryAdapter adapter,
+            @Value("${onclass.cache.max-size:1000}") long maxSize,
+            @Value("${onclass.cache.ttl:PT10M}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        return new CachingCapabilityRepository(adapter, newCache("capabilities", maxSize, ttl, meterRegistry));
+    }
+
+    // Foto completa del catálogo en memoria; se activa con onclass.snapshot.enabled=true
+    @Bean
+    @ConditionalOnProperty(name = "onclass.snapshot.enabled", havingValue = "true")
+    public CatalogSnapshotStore catalogSnapshotStore(MongoTechnologyRepositoryAdapter technologyAdapter,
+            MongoCapabilityRepositoryAdapter capabilityAdapter, MongoBootcampRepositoryAdapter bootcampAdapter) {
+        return new CatalogSnapshotStore(technologyAdapter, capabilityAdapter, bootcampAdapter);
+    }
+
+    // Repositorios que ven los casos de uso: foto > caché > Mongo, según lo que esté activo
+
+    @Bean
+    @Primary
+    public TechnologyRepository technologyRepository(MongoTechnologyRepositoryAdapter adapter,
+            ObjectProvider<CachingTechnologyRepository> cache, ObjectProvider<CatalogSnapshotStore> snapshot) {
+        TechnologyRepository cached = cache.getIfAvailable();
+        TechnologyRepository repository = cached == null ? adapter : cached;
+        CatalogSnapshotStore store = snapshot.getIfAvailable();
+        return store == null ? repository : new SnapshotTechnologyRepository(repository, store);
+    }
+
+    @Bean
+    @Primary
+    public CapabilityRepository capabilityRepository(MongoCapabilityRepositoryAdapter adapter,
+            ObjectProvider<CachingCapabilityRepository> cache, ObjectProvider<CatalogSnapshotStore> snapshot) {
+        CapabilityRepository cached = cache.getIfAvailable();
+        CapabilityRepository repository = cached == null ? adapter : cached;
+        CatalogSnapshotStore store = snapshot.getIfAvailable();
+        return store == null ? repository : new SnapshotCapabilityRepository(repository, store);
+    }
+
+    @Bean
+    @Primary
+    public BootcampRepository bootcampRepository(MongoBootcampRepositoryAdapter adapter,
+            ObjectProvider<CatalogSnapshotStore> snapshot) {
+        CatalogSnapshotStore store = snapshot.getIfAvailable();
+        return store == null ? adapter : new SnapshotBootcampRepository(adapter, store);
+    }
+
+    // Los aciertos y fallos se publican como cache.gets{cache=<nombre>,result=hit|miss}
+    private static <T> Cache<String, T> newCache(String name, long maxSize, Duration ttl,
+            MeterRegistry meterRegistry) {
+        Cache<String, T> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
     @Bean
     public TechnologyUseCase technologyUseCase(TechnologyRepository repository) {
         return new TechnologyUseCase(repository);
@@ -28,13 +124,36 @@ public class UseCaseConfig {
 
     @Bean
     public BootcampUseCase bootcampUseCase(BootcampRepository repository, CapabilityRepository capabilityRepository,
-            TechnologyRepository technologyRepository, BootcampReportRepository reportRepository) {
-        return new BootcampUseCase(repository, capabilityRepository, technologyRepository, reportRepository);
+            TechnologyRepository technologyRepository, EnrollmentRepository enrollmentRepository,
+            ReportTaskRepository reportTaskRepository, TransactionRunner transactionRunner) {
+        return new BootcampUseCase(repository, capabilityRepository, technologyRepository, enrollmentRepository,
+                reportTaskRepository, transactionRunner);
+    }
+
+    @Bean
+    public BootcampReportUseCase bootcampReportUseCase(ReportTaskRepository taskRepository,
+            BootcampRepository bootcampRepository, CapabilityRepository capabilityRepository,
+            BootcampReportRepository reportRepository) {
+        return new BootcampReportUseCase(taskRepository, bootcampRepository, capabilityRepository,
+                reportRepository);
+    }
+
+    @Bean
+    public BootcampMetricsUseCase bootcampMetricsUseCase(BootcampRepository bootcampRepository,
+            EnrollmentRepository enrollmentRepository, CapabilityRepository capabilityRepository,
+            TechnologyRepository technologyRepository, PersonRepository personRepository) {
+        return new BootcampMetricsUseCase(bootcampRepository, enrollmentRepository, capabilityRepository,
+                technologyRepository, personRepository);
+    }
+
+    @Bean
+    public BootcampLeaderboard bootcampLeaderboard(@Value("${onclass.leaderboard.capacity:100}") int capacity) {
+        return new BootcampLeaderboard(capacity);
     }
 
     @Bean
     public EnrollmentUseCase enrollmentUseCase(EnrollmentRepository enrollmentRepository,
-            BootcampRepository bootcampRepository) {
-        return new EnrollmentUseCase(enrollmentRepository, bootcampRepository);
+            BootcampRepository bootcampRepository, TransactionRunner transactionRunner) {
+        return new EnrollmentUseCase(enrollmentRepository, bootcampRepository, transactionRunner);
     }
 }
@@ -0,0 +1,55 @@
+package com.reactivo.onclass.app.on_class_reactivo.application.filter;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.DbRoundTrips;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+// Publica cuántas idas y vueltas a Mongo hizo cada petición: en la cabecera
+// X-Db-Roundtrips y en el histograma onclass.db.roundtrips por ruta. En las
+// respuestas en streaming la cabecera solo refleja lo ocurrido antes del primer envío.
+@Component
+public class DbRoundTripsWebFilter implements WebFilter {
+
+    public static final String HEADER = "X-Db-Roundtrips";
+
+    private final MeterRegistry meterRegistry;
+
+    public DbRoundTripsWebFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        DbRoundTrips roundTrips = new DbRoundTrips();
+
+        exchange.getResponse().beforeCommit(() -> {
+            exchange.getResponse().getHeaders().set(HEADER, String.valueOf(roundTrips.count()));
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange)
+                .contextWrite(roundTrips.attach())
+                .doFinally(signal -> DistributionSummary.builder("onclass.db.roundtrips")
+                        .description("Comandos enviados a Mongo por petición")
+                        .tag("method", exchange.getRequest().getMethod().name())
+                        .tag("uri", uriOf(exchange))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(roundTrips.count()));
+    }
+
+    // El patrón de la ruta y no la URL concreta, para no abrir una serie por id
+    private static String uriOf(ServerWebExchange exchange) {
+        Object pattern = exchange.getAttribute(RouterFunctions.MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof PathPattern path ? path.getPatternString() : "UNKNOWN";
+    }
+}
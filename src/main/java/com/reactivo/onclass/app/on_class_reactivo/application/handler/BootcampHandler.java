@@ -5,24 +5,32 @@ import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampLeaderboard;
 import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampUseCase;
 
 import jakarta.validation.Validator;
 import reactor.core.publisher.Mono;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 @Component
 public class BootcampHandler {
 
+    private static final String INVALID_PAGE = "page debe ser un número mayor o igual a 0 y size mayor que 0";
+
     private final BootcampUseCase useCase;
     private final Validator validator;
+    private final BootcampLeaderboard leaderboard;
 
-    private BootcampHandler(BootcampUseCase useCase, Validator validator) {
+    public BootcampHandler(BootcampUseCase useCase, Validator validator, BootcampLeaderboard leaderboard) {
         this.useCase = useCase;
         this.validator = validator;
+        this.leaderboard = leaderboard;
     }
 
     public Mono<ServerResponse> create(ServerRequest request) {
@@ -49,11 +57,57 @@ public class BootcampHandler {
     public Mono<ServerResponse> findAllPaginated(ServerRequest request) {
         String sortBy = request.queryParam("sortBy").orElse("nombre");
         String order = request.queryParam("order").orElse("asc");
-        int page = Integer.parseInt(request.queryParam("page").orElse("0"));
-        int size = Integer.parseInt(request.queryParam("size").orElse("5"));
+        int page;
+        int size;
+        try {
+            page = Integer.parseInt(request.queryParam("page").orElse("0"));
+            size = Integer.parseInt(request.queryParam("size").orElse("5"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue(INVALID_PAGE);
+        }
+
+        // Con size 0 el límite de Mongo desaparece y la consulta trae la colección completa
+        if (page < 0 || size < 1) {
+            return ServerResponse.badRequest().bodyValue(INVALID_PAGE);
+        }
+
+        // Con ?cursor= (vacío para la primera página) se pagina por clave en vez de offset
+        if (request.queryParams().containsKey("cursor")) {
+            String cursor = request.queryParam("cursor").orElse("");
+            return useCase.getAllBootcampAfter(sortBy, order, cursor, size)
+                    .flatMap(result -> ServerResponse.ok().contentType(APPLICATION_JSON).bodyValue(result))
+                    .onErrorResume(e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+        }
+
+        return StreamingResponses.ok(request, useCase.getAllBootcamp(sortBy, order, page, size), Bootcamp.class);
+    }
+
+    public Mono<ServerResponse> findCalendar(ServerRequest request) {
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = LocalDate.parse(request.queryParam("from").orElseThrow());
+            to = LocalDate.parse(request.queryParam("to").orElseThrow());
+        } catch (NoSuchElementException | DateTimeParseException e) {
+            return ServerResponse.badRequest().bodyValue("Los parámetros from y to son obligatorios (yyyy-MM-dd)");
+        }
+
+        if (from.isAfter(to)) {
+            return ServerResponse.badRequest().bodyValue("La fecha from no puede ser posterior a to");
+        }
+
+        return StreamingResponses.ok(request, useCase.getCalendar(from, to), Bootcamp.class);
+    }
+
+    public Mono<ServerResponse> findTop(ServerRequest request) {
+        String invalid = "k debe estar entre 1 y " + leaderboard.getCapacity();
 
-        return ServerResponse.ok()
-                .contentType(APPLICATION_JSON)
-                .body(useCase.getAllBootcamp(sortBy, order, page, size), Bootcamp.class);
+        return Mono.fromCallable(() -> Integer.parseInt(request.queryParam("k").orElse("10")))
+                .filter(k -> k >= 1 && k <= leaderboard.getCapacity())
+                .flatMap(k -> ServerResponse.ok()
+                        .contentType(APPLICATION_JSON)
+                        .bodyValue(leaderboard.top(k)))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().bodyValue(invalid)))
+                .onErrorResume(NumberFormatException.class, e -> ServerResponse.badRequest().bodyValue(invalid));
     }
 }
@@ -1,9 +1,11 @@
 package com.reactivo.onclass.app.on_class_reactivo.application.handler;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BulkItemResult;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
 import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.CapabilityUseCase;
 
@@ -13,15 +15,21 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class CapabilityHandler {
+    private static final String INVALID_PAGE = "page debe ser un número mayor o igual a 0 y size mayor que 0";
+
     private final CapabilityUseCase useCase;
     private final Validator validator;
+    private final int bulkChunkSize;
 
-    public CapabilityHandler(CapabilityUseCase useCase, Validator validator) {
+    public CapabilityHandler(CapabilityUseCase useCase, Validator validator,
+            @Value("${onclass.bulk.chunk-size:1000}") int bulkChunkSize) {
         this.useCase = useCase;
         this.validator = validator;
+        this.bulkChunkSize = bulkChunkSize;
     }
 
     public Mono<ServerResponse> create(ServerRequest request) {
@@ -44,21 +52,53 @@ public class CapabilityHandler {
                 });
     }
 
+    // Acepta un arreglo JSON o NDJSON; cada fila recibe su propio resultado
+    public Mono<ServerResponse> createBulk(ServerRequest request) {
+        return StreamingResponses.ok(request,
+                useCase.importCapabilities(request.bodyToFlux(Capability.class), this::violations, bulkChunkSize),
+                BulkItemResult.class);
+    }
+
+    private String violations(Capability capability) {
+        var violations = validator.validate(capability);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
     public Mono<ServerResponse> findAll(ServerRequest request) {
-        return ServerResponse.ok()
-                .contentType(APPLICATION_JSON)
-                .body(useCase.getAllCapabilities(), Capability.class);
+        return StreamingResponses.ok(request, useCase.getAllCapabilities(), Capability.class);
     }
 
     public Mono<ServerResponse> findAllPaginated(ServerRequest request) {
         String sortBy = request.queryParam("sortBy").orElse("nombre");
         String order = request.queryParam("order").orElse("asc");
-        int page = Integer.parseInt(request.queryParam("page").orElse("0"));
-        int size = Integer.parseInt(request.queryParam("size").orElse("5"));
+        int page;
+        int size;
+        try {
+            page = Integer.parseInt(request.queryParam("page").orElse("0"));
+            size = Integer.parseInt(request.queryParam("size").orElse("5"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().bodyValue(INVALID_PAGE);
+        }
+
+        // Con size 0 el límite de Mongo desaparece y la consulta trae la colección completa
+        if (page < 0 || size < 1) {
+            return ServerResponse.badRequest().bodyValue(INVALID_PAGE);
+        }
+
+        // Con ?cursor= (vacío para la primera página) se pagina por clave en vez de offset
+        if (request.queryParams().containsKey("cursor")) {
+            String cursor = request.queryParam("cursor").orElse("");
+            return useCase.getAllCapabilitiesAfter(sortBy, order, cursor, size)
+                    .flatMap(result -> ServerResponse.ok().contentType(APPLICATION_JSON).bodyValue(result))
+                    .onErrorResume(e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+        }
 
-        return ServerResponse.ok()
-                .contentType(APPLICATION_JSON)
-                .body(useCase.getAllCapabilities(sortBy, order, page, size), Capability.class);
+        return StreamingResponses.ok(request, useCase.getAllCapabilities(sortBy, order, page, size), Capability.class);
     }
 
 }
@@ -1,10 +1,14 @@
 package com.reactivo.onclass.app.on_class_reactivo.application.handler;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
 import com.reactivo.onclass.app.on_class_reactivo.application.dto.EnrollmentRequestDTO;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BulkItemResult;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
 import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.EnrollmentUseCase;
 
 import reactor.core.publisher.Mono;
@@ -14,9 +18,16 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 public class EnrollmentHandler {
 
     private final EnrollmentUseCase useCase;
+    private final int bulkChunkSize;
 
-    public EnrollmentHandler(EnrollmentUseCase useCase) {
+    public EnrollmentHandler(EnrollmentUseCase useCase,
+            @Value("${onclass.bulk.chunk-size:1000}") int bulkChunkSize) {
         this.useCase = useCase;
+        this.bulkChunkSize = bulkChunkSize;
+    }
+
+    public Mono<ServerResponse> findEligibleBootcamps(ServerRequest request) {
+        return StreamingResponses.ok(request, useCase.getEligibleBootcamps(request.pathVariable("id")), Bootcamp.class);
     }
 
     public Mono<ServerResponse> enrollPerson(ServerRequest request) {
@@ -26,4 +37,15 @@ public class EnrollmentHandler {
                 .onErrorResume(e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
     }
 
+    // NDJSON (o arreglo JSON) de pares personId/bootcampId; cada fila recibe su resultado
+    public Mono<ServerResponse> enrollBulk(ServerRequest request) {
+        var rows = request.bodyToFlux(EnrollmentRequestDTO.class)
+                .map(row -> Enrollment.builder()
+                        .personId(row.getPersonId())
+                        .bootcampId(row.getBootcampId())
+                        .build());
+
+        return StreamingResponses.ok(request, useCase.enrollAll(rows, bulkChunkSize), BulkItemResult.class);
+    }
+
 }
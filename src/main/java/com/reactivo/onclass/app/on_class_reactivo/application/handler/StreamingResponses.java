@@ -0,0 +1,45 @@
+package com.reactivo.onclass.app.on_class_reactivo.application.handler;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
+
+import java.util.List;
+
+import org.reactivestreams.Publisher;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Mono;
+
+// Listados con negociación de contenido: NDJSON y SSE escriben y vacían cada
+// elemento apenas llega; sin Accept explícito se mantiene el arreglo JSON
+final class StreamingResponses {
+
+    private static final List<MediaType> STREAMING = List.of(APPLICATION_NDJSON, TEXT_EVENT_STREAM);
+
+    private StreamingResponses() {
+    }
+
+    static <T> Mono<ServerResponse> ok(ServerRequest request, Publisher<T> body, Class<T> type) {
+        return ServerResponse.ok()
+                .contentType(negotiate(request))
+                .body(body, type);
+    }
+
+    private static MediaType negotiate(ServerRequest request) {
+        List<MediaType> accepted = request.headers().accept();
+        for (MediaType mediaType : accepted) {
+            if (mediaType.equalsTypeAndSubtype(APPLICATION_JSON)) {
+                return APPLICATION_JSON;
+            }
+            for (MediaType streaming : STREAMING) {
+                if (mediaType.equalsTypeAndSubtype(streaming)) {
+                    return streaming;
+                }
+            }
+        }
+        return APPLICATION_JSON;
+    }
+}
@@ -1,9 +1,11 @@
 package com.reactivo.onclass.app.on_class_reactivo.application.handler;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BulkItemResult;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
 import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.TechnologyUseCase;
 
@@ -13,16 +15,20 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 public class TechnologyHandler {
 
     private final TechnologyUseCase useCase;
     private final Validator validator;
+    private final int bulkChunkSize;
 
-    public TechnologyHandler(TechnologyUseCase useCase, Validator validator) {
+    public TechnologyHandler(TechnologyUseCase useCase, Validator validator,
+            @Value("${onclass.bulk.chunk-size:1000}") int bulkChunkSize) {
         this.useCase = useCase;
         this.validator = validator;
+        this.bulkChunkSize = bulkChunkSize;
     }
 
     public Mono<ServerResponse> create(ServerRequest request) {
@@ -45,9 +51,24 @@ public class TechnologyHandler {
                 });
     }
 
+    // Acepta un arreglo JSON o NDJSON; cada fila recibe su propio resultado
+    public Mono<ServerResponse> createBulk(ServerRequest request) {
+        return StreamingResponses.ok(request,
+                useCase.importTechnologies(request.bodyToFlux(Technology.class), this::violations, bulkChunkSize),
+                BulkItemResult.class);
+    }
+
+    private String violations(Technology technology) {
+        var violations = validator.validate(technology);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .collect(Collectors.joining("; "));
+    }
+
     public Mono<ServerResponse> findAll(ServerRequest request) {
-        return ServerResponse.ok()
-                .contentType(APPLICATION_JSON)
-                .body(useCase.getAllTechnologies(), Technology.class);
+        return StreamingResponses.ok(request, useCase.getAllTechnologies(), Technology.class);
     }
 }
@@ -0,0 +1,55 @@
+package com.reactivo.onclass.app.on_class_reactivo.application.job;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampMetricsUseCase;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Repara periódicamente la deriva entre los contadores materializados y las inscripciones reales
+@Slf4j
+@Component
+public class EnrollmentCountReconciliationJob {
+
+    private final BootcampMetricsUseCase useCase;
+    private final Duration interval;
+    private Disposable subscription;
+
+    public EnrollmentCountReconciliationJob(BootcampMetricsUseCase useCase,
+            @Value("${onclass.enrollments.reconcile-interval:PT1H}") Duration interval) {
+        this.useCase = useCase;
+        this.interval = interval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO, interval)
+                .concatMap(tick -> useCase.reconcileEnrollmentCounts()
+                        .doOnNext(fixed -> {
+                            if (fixed > 0) {
+                                log.info("Contadores de inscritos corregidos: {}", fixed);
+                            }
+                        })
+                        .onErrorResume(e -> {
+                            log.warn("No fue posible reconciliar los contadores de inscritos", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+}
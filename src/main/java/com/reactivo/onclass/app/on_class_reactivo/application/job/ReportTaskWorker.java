@@ -0,0 +1,98 @@
+package com.reactivo.onclass.app.on_class_reactivo.application.job;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampReportUseCase;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Vacía la cola de reportes pendientes (report_tasks) de a un lote por vez. Cada
+// tick procesa lotes mientras vengan llenos; las tareas fallidas se reprograman
+// con backoff en la propia cola, así que un reinicio no pierde reportes.
+@Slf4j
+@Component
+public class ReportTaskWorker {
+
+    private final BootcampReportUseCase useCase;
+    private final Duration interval;
+    private final int batchSize;
+    private final Duration lease;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private Disposable subscription;
+
+    public ReportTaskWorker(BootcampReportUseCase useCase, MeterRegistry meterRegistry,
+            @Value("${onclass.reports.poll-interval:PT1S}") Duration interval,
+            @Value("${onclass.reports.batch-size:100}") int batchSize,
+            @Value("${onclass.reports.lease:PT1M}") Duration lease) {
+        this.useCase = useCase;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.lease = lease;
+
+        Gauge.builder("onclass.reports.pending", pending, AtomicLong::get)
+                .description("Reportes de bootcamp pendientes de generar")
+                .register(meterRegistry);
+        Gauge.builder("onclass.reports.lag", lagSeconds, AtomicLong::get)
+                .description("Antigüedad de la tarea de reporte más vieja")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .onErrorResume(e -> {
+                            log.warn("No fue posible procesar los reportes pendientes", e);
+                            return Mono.empty();
+                        })
+                        .then(refreshGauges())
+                        .onErrorResume(e -> {
+                            log.warn("No fue posible medir la cola de reportes", e);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Mono<Long> drain() {
+        return useCase.processPendingReports(batchSize, lease)
+                .expand(processed -> processed < batchSize ? Mono.empty()
+                        : useCase.processPendingReports(batchSize, lease))
+                .reduce(0L, (total, processed) -> total + processed)
+                .doOnNext(total -> {
+                    if (total > 0) {
+                        log.debug("Reportes de bootcamp generados: {}", total);
+                    }
+                });
+    }
+
+    private Mono<Void> refreshGauges() {
+        return Mono.zip(useCase.countPendingReports(), useCase.pendingReportsLag())
+                .doOnNext(state -> {
+                    pending.set(state.getT1());
+                    lagSeconds.set(state.getT2().toSeconds());
+                })
+                .then();
+    }
+}
@@ -16,6 +16,8 @@ public class BootCampRouter {
     @Bean
     public RouterFunction<?> bootcampRoutes(BootcampHandler handler) {
         return route(POST("/bootcamps").and(accept(MediaType.APPLICATION_JSON)), handler::create)
-                .andRoute(GET("/bootcamps"), handler::findAllPaginated);        
+                .andRoute(GET("/bootcamps"), handler::findAllPaginated)
+                .andRoute(GET("/bootcamps/top"), handler::findTop)
+                .andRoute(GET("/bootcamps/calendar"), handler::findCalendar);
     }
 }
@@ -15,7 +15,8 @@ public class CapabilityRouter {
 
     @Bean
     public RouterFunction<ServerResponse> capabilityRoutes(CapabilityHandler handler) {
-        return route(POST("/capabilities"), handler::create)
+        return route(POST("/capabilities/bulk"), handler::createBulk)
+                .andRoute(POST("/capabilities"), handler::create)
                 .andRoute(GET("/capabilities"), handler::findAllPaginated);
     }
 }
@@ -14,6 +14,9 @@ public class EnrollmentRouter {
     @Bean
     public RouterFunction<ServerResponse> enrollmentRoutes(EnrollmentHandler handler) {
         return RouterFunctions.route()
-                .POST("/enrollment", handler::enrollPerson).build();
+                .POST("/enrollment/bulk", handler::enrollBulk)
+                .POST("/enrollment", handler::enrollPerson)
+                .GET("/persons/{id}/eligible-bootcamps", handler::findEligibleBootcamps)
+                .build();
     }
 }
@@ -14,7 +14,8 @@ public class TechnologyRouter {
 
     @Bean
     public RouterFunction<ServerResponse> technologyRoutes(TechnologyHandler handler) {
-        return route(POST("/technologies"), handler::create)
+        return route(POST("/technologies/bulk"), handler::createBulk)
+                .andRoute(POST("/technologies"), handler::create)
                 .andRoute(GET("/technologies"), handler::findAll);
     }
 }
\ No newline at end of file
@@ -39,10 +39,20 @@ public class Bootcamp {
     @NotBlank(message = "La duración es obligatoria")
     private String duracion;
 
+    // Derivados de duracion al crear el bootcamp; evitan interpretar el texto en cada consulta
+    private Integer duracionSemanas;
+
+    private LocalDate fechaFin;
+
     @NotNull(message = "Debe contener al menos una capacidad")
     @Size(min = 1, max = 4, message = "Debe tener entre 1 y 4 capacidades asociadas")
     private List<String> capabilityIds;
 
+    private Integer cantidadCapacidades;
+
+    // Contador materializado; lo mantiene la inscripción con $inc
+    private Integer cantidadPersonasInscritas;
+
     @Transient
     private List<Capability> capabilities;
 }
@@ -0,0 +1,23 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Lo que queda sin uso al eliminar un bootcamp: capacidades que ningún otro
+// bootcamp referencia y tecnologías que ninguna otra capacidad referencia
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BootcampCascade {
+
+    private String bootcampId;
+
+    private List<String> orphanCapabilityIds;
+
+    private List<String> orphanTechnologyIds;
+}
@@ -0,0 +1,17 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BootcampEnrollmentCount {
+
+    private String bootcampId;
+
+    private long cantidad;
+}
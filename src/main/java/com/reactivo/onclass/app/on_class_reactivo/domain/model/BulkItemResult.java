@@ -0,0 +1,30 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de una fila de una carga masiva; index es la posición en el cuerpo recibido
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkItemResult {
+
+    private long index;
+
+    // id asignado cuando la fila se insertó
+    private String id;
+
+    // motivo del rechazo; null si la fila se insertó
+    private String error;
+
+    public static BulkItemResult inserted(long index, String id) {
+        return new BulkItemResult(index, id, null);
+    }
+
+    public static BulkItemResult rejected(long index, String error) {
+        return new BulkItemResult(index, null, error);
+    }
+}
@@ -32,6 +32,8 @@ public class Capability {
     @NotNull(message = "Debe asociar al menos una lista de tecnologías.")
     private List<String> technologyIds;
 
+    private Integer cantidadTecnologias;
+
     @Transient
     private List<Technology> technologies;  
 }
@@ -0,0 +1,20 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+
+    // null cuando no hay más resultados
+    private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.model;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrolledBootcamp {
+
+    private String bootcampId;
+
+    private String nombre;
+
+    private LocalDate fechaInicio;
+
+    private LocalDate fechaFin;
+}
@@ -0,0 +1,71 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Posición de la última fila entregada (clave de orden + _id como desempate).
+// Viaja al cliente como texto opaco.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageCursor {
+
+    public static final String SORT_NOMBRE = "nombre";
+    public static final String SORT_CANTIDAD = "cantidad";
+
+    private String sortBy;
+    private boolean descending;
+    private String lastId;
+    private String lastValue;
+
+    public static String normalizeSortBy(String sortBy) {
+        return SORT_CANTIDAD.equalsIgnoreCase(sortBy) ? SORT_CANTIDAD : SORT_NOMBRE;
+    }
+
+    public static boolean isDescending(String order) {
+        return "desc".equalsIgnoreCase(order);
+    }
+
+    public String encode() {
+        String raw = sortBy + "|" + (descending ? "desc" : "asc") + "|" + lastId + "|" + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // null para la primera página; falla si el cursor se emitió para otro orden o
+    // si su valor no corresponde a la clave de orden
+    public static PageCursor decode(String cursor, String sortBy, String order) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+
+        if (parts.length != 4
+                || !parts[0].equals(normalizeSortBy(sortBy))
+                || !parts[1].equals(isDescending(order) ? "desc" : "asc")) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+
+        // Los repositorios convierten el valor a número al armar la consulta
+        if (SORT_CANTIDAD.equals(parts[0])) {
+            try {
+                Integer.parseInt(parts[3]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
+
+        return new PageCursor(parts[0], isDescending(order), parts[2], parts[3]);
+    }
+}
@@ -0,0 +1,30 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.model;
+
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resumen por persona de sus bootcamps inscritos; permite validar una
+// inscripción nueva con una sola actualización condicional
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("person_enrollments")
+public class PersonEnrollments {
+
+    // Mismo valor que personId
+    @Id
+    private String id;
+
+    private List<EnrolledBootcamp> bootcamps;
+
+    // Se incrementa en cada inscripción
+    private Long version;
+}
@@ -0,0 +1,43 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Reporte pendiente de generar. Se escribe en la misma transacción que el bootcamp
+// y lo consume el worker de reportes; nextAttemptAt hace de cola y de lease.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "report_tasks")
+public class ReportTask {
+
+    @Id
+    private String id;
+
+    private String bootcampId;
+
+    private Instant createdAt;
+    private Instant nextAttemptAt;
+
+    private int attempts;
+    private String lastError;
+
+    // Identifica el lote que reclamó la tarea
+    private String claim;
+
+    public static ReportTask forBootcamp(String bootcampId, Instant now) {
+        return ReportTask.builder()
+                .bootcampId(bootcampId)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+}
@@ -1,10 +1,16 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.repository;
 
+import java.util.List;
+
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampReport;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface BootcampReportRepository {
 
     Mono<BootcampReport> save(BootcampReport bootcamp);
+
+    // Devuelve las posiciones que ya existían (id repetido)
+    Flux<Integer> insertAll(List<BootcampReport> reports);
 }
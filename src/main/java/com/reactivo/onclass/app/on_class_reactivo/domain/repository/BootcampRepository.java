@@ -1,6 +1,12 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.repository;
 
+import java.time.LocalDate;
+import java.util.List;
+
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampCascade;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -11,11 +17,31 @@ public interface BootcampRepository {
 
     Flux<Bootcamp> findAll();
 
+    Flux<Bootcamp> findAllPaginated(String sortBy, String order, int page, int size);
+
+    Flux<Bootcamp> findAllAfter(String sortBy, String order, PageCursor cursor, int size);
+
+    // Bootcamps cuyo periodo se cruza con [from, to], ordenados por fecha de lanzamiento
+    Flux<Bootcamp> findRunningBetween(LocalDate from, LocalDate to);
+
+    // Bootcamps que terminan en o después de la fecha, ordenados por fecha de lanzamiento
+    Flux<Bootcamp> findEndingFrom(LocalDate date);
+
     Mono<Boolean> existsByNombre(String nombre);
 
     Mono<Bootcamp> findById(String id);
 
+    Flux<Bootcamp> findAllById(Iterable<String> ids);
+
     Mono<Void> deleteById(String id);
 
-    Mono<Long> countByCapabilityIdsContains(String capabilityId);
+    // Capacidades y tecnologías que quedarían huérfanas; vacío si el bootcamp no existe
+    Mono<BootcampCascade> findDeleteCascade(String bootcampId);
+
+    Mono<Void> incrementCantidadPersonasInscritas(String bootcampId, int delta);
+
+    Flux<Bootcamp> findTopByCantidadPersonasInscritas(int limit);
+
+    // Corrige los contadores que no coinciden; devuelve cuántos bootcamps se modificaron
+    Mono<Long> reconcileCantidadPersonasInscritas(List<BootcampEnrollmentCount> counts);
 }
@@ -1,6 +1,11 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -11,13 +16,25 @@ public interface CapabilityRepository {
 
     Flux<Capability> findAll();
 
+    Flux<Capability> findAllPaginated(String sortBy, String order, int page, int size);
+
+    Flux<Capability> findAllAfter(String sortBy, String order, PageCursor cursor, int size);
+
     Mono<Boolean> existsByNombre(String nombre);
 
     Mono<Capability> findById(String id);
 
     Mono<Void> deleteById(String id);
 
-    Mono<Long> countByTechnologyIdsContains(String technologyId);
+    // Un solo deleteMany con $in
+    Mono<Void> deleteAllById(Collection<String> ids);
 
     Flux<Capability> findAllById(Iterable<String> ids);
+
+    // Tecnologías distintas de cada grupo de capacidades (p. ej. las de cada bootcamp),
+    // todos los grupos en una sola consulta; los grupos sin tecnologías quedan en 0
+    Mono<Map<String, Integer>> countDistinctTechnologiesPerGroup(Map<String, List<String>> capabilityIdsByGroup);
+
+    // Inserción masiva sin orden; emite la posición de las filas rechazadas por nombre repetido
+    Flux<Integer> insertAll(List<Capability> capabilities);
 }
@@ -1,6 +1,13 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.EnrolledBootcamp;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PersonEnrollments;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -19,4 +26,25 @@ public interface EnrollmentRepository {
 
     Flux<Enrollment> findByBootcampId(String bootcampId);
 
+    // Bootcamp con más inscripciones, con sus capacidades y tecnologías cargadas
+    Mono<Bootcamp> findBootcampWithMostEnrollments();
+
+    Flux<BootcampEnrollmentCount> countGroupedByBootcamp();
+
+    // Registra la inscripción solo si el resumen de la persona la admite: no inscrita
+    // en ese bootcamp, menos de maxBootcamps y sin cruce de fechas. Vacío si la rechaza
+    Mono<Enrollment> admit(Enrollment enrollment, EnrolledBootcamp bootcamp, int maxBootcamps);
+
+    Mono<PersonEnrollments> findSummaryByPersonId(String personId);
+
+    Flux<PersonEnrollments> findSummariesByPersonIds(Collection<String> personIds);
+
+    // Guarda en una transacción los resúmenes ya validados y sus inscripciones. Cada
+    // resumen lleva la versión leída (null si la persona no tenía resumen); si alguno
+    // cambió mientras tanto falla con OptimisticLockingFailureException o DuplicateKeyException
+    Flux<Enrollment> admitAll(List<PersonEnrollments> summaries, List<Enrollment> enrollments);
+
+    // Borra las inscripciones al bootcamp y lo retira de los resúmenes de las personas
+    Mono<Void> removeBootcamp(String bootcampId);
+
 }
\ No newline at end of file
@@ -2,9 +2,12 @@ package com.reactivo.onclass.app.on_class_reactivo.domain.repository;
 
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Person;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface PersonRepository {
 
     Mono<Person> findById(String id);
+
+    Flux<Person> findAllById(Iterable<String> ids);
 }
@@ -0,0 +1,26 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.repository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.ReportTask;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReportTaskRepository {
+
+    Mono<ReportTask> save(ReportTask task);
+
+    // Reclama hasta limit tareas vencidas; quedan ocultas para otros nodos durante el lease
+    Flux<ReportTask> claimDue(Instant now, Duration lease, int limit);
+
+    Mono<Void> deleteAllById(Collection<String> ids);
+
+    Mono<Void> reschedule(String id, Instant nextAttemptAt, String error);
+
+    Mono<Long> count();
+
+    Mono<ReportTask> findOldest();
+}
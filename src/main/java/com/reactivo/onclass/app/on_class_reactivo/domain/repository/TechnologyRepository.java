@@ -1,5 +1,8 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
 
 import reactor.core.publisher.Flux;
@@ -16,5 +19,11 @@ public interface TechnologyRepository {
 
     Mono<Void> deleteById(String id);
 
+    // Un solo deleteMany con $in
+    Mono<Void> deleteAllById(Collection<String> ids);
+
     Flux<Technology> findAllById(Iterable<String> ids);
+
+    // Inserción masiva sin orden; emite la posición de las filas rechazadas por nombre repetido
+    Flux<Integer> insertAll(List<Technology> technologies);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.repository;
+
+import reactor.core.publisher.Mono;
+
+// Los casos de uso son objetos planos, no proxies de Spring: @Transactional no
+// aplica sobre ellos y la transacción se pide explícitamente
+public interface TransactionRunner {
+
+    <T> Mono<T> inTransaction(Mono<T> operation);
+}
@@ -0,0 +1,73 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
+
+// Ranking en memoria de bootcamps por inscritos. Las escrituras se serializan
+// y publican una copia inmutable del top; las lecturas no toman locks ni
+// consultan la base de datos.
+public class BootcampLeaderboard {
+
+    private static final Comparator<BootcampEnrollmentCount> RANKING = Comparator
+            .comparingLong(BootcampEnrollmentCount::getCantidad).reversed()
+            .thenComparing(BootcampEnrollmentCount::getBootcampId);
+
+    private final int capacity;
+    private final Map<String, BootcampEnrollmentCount> counts = new HashMap<>();
+    private final TreeSet<BootcampEnrollmentCount> ranking = new TreeSet<>(RANKING);
+
+    private volatile List<BootcampEnrollmentCount> top = List.of();
+
+    public BootcampLeaderboard(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized void reset(Collection<BootcampEnrollmentCount> initialCounts) {
+        counts.clear();
+        ranking.clear();
+        initialCounts.forEach(count -> put(count.getBootcampId(), count.getCantidad()));
+        publish();
+    }
+
+    public synchronized void apply(String bootcampId, long delta) {
+        BootcampEnrollmentCount current = counts.get(bootcampId);
+        long cantidad = Math.max(0, (current == null ? 0 : current.getCantidad()) + delta);
+
+        if (current != null) {
+            ranking.remove(current);
+            counts.remove(bootcampId);
+        }
+        if (cantidad > 0) {
+            put(bootcampId, cantidad);
+        }
+        publish();
+    }
+
+    public List<BootcampEnrollmentCount> top(int k) {
+        List<BootcampEnrollmentCount> snapshot = top;
+        return snapshot.subList(0, Math.min(Math.max(k, 0), snapshot.size()));
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private void put(String bootcampId, long cantidad) {
+        BootcampEnrollmentCount count = new BootcampEnrollmentCount(bootcampId, cantidad);
+        counts.put(bootcampId, count);
+        ranking.add(count);
+    }
+
+    private void publish() {
+        top = ranking.stream()
+                .limit(capacity)
+                .map(c -> new BootcampEnrollmentCount(c.getBootcampId(), c.getCantidad()))
+                .toList();
+    }
+}
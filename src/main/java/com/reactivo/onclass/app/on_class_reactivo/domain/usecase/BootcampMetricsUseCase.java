@@ -1,13 +1,15 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
 
 import java.util.List;
+import java.util.Objects;
 
 import com.reactivo.onclass.app.on_class_reactivo.application.dto.BootcampDetailDTO;
 import com.reactivo.onclass.app.on_class_reactivo.application.dto.CapabilityDetailDTO;
 import com.reactivo.onclass.app.on_class_reactivo.application.dto.PersonDTO;
 import com.reactivo.onclass.app.on_class_reactivo.application.dto.TechnologyDTO;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
-import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Person;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
@@ -15,9 +17,7 @@ import com.reactivo.onclass.app.on_class_reactivo.domain.repository.EnrollmentRe
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.PersonRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
 
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.util.function.Tuples;
 
 public class BootcampMetricsUseCase {
 
@@ -42,102 +42,91 @@ public class BootcampMetricsUseCase {
 
     public Mono<BootcampDetailDTO> getBootcampWithMostEnrollments() {
 
-        return bootcampRepository.findAll()
+        // Conteo, orden y carga de capacidades/tecnologías se resuelven en una sola agregación
+        return enrollmentRepository.findBootcampWithMostEnrollments()
+                // Sin inscripciones todos empatan en 0: se devuelve uno cualquiera, como antes
+                .switchIfEmpty(Mono.defer(() -> bootcampRepository.findTopByCantidadPersonasInscritas(1)
+                        .next()
+                        .flatMap(this::loadCapabilities)))
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("No existen bootcamps")))
-
-                // Para cada bootcamp obtenemos el count
-                .flatMap(b -> enrollmentRepository.countByBootcampId(b.getId())
-                        .map(count -> Tuples.of(b, count)))
-
-                // Ordenamos por cantidad de inscritos (descendente)
-                .sort((t1, t2) -> Long.compare(t2.getT2(), t1.getT2()))
-                .next() // nos quedamos con el primero (mayor count)
-
-                .flatMap(tuple -> {
-                    Bootcamp bootcamp = tuple.getT1();
-
-                    // -------- 1. Cargar capacidades realistas ----------
-                    Mono<List<Capability>> capacidadesMono = capabilityRepository
-                            .findAllById(bootcamp.getCapabilityIds()).collectList();
-
-                    // -------- 2. Cargar tecnologías por cada capacidad ----------
-                    Mono<List<CapabilityDetailDTO>> capacidadesConTecnologiasMono = capacidadesMono
-                            .flatMapMany(cap -> Flux.fromIterable(cap))
-                            .flatMap(cap -> {
-
-                                Mono<List<Technology>> techMono = technologyRepository
-                                        .findAllById(cap.getTechnologyIds()).collectList();
-
-                                return techMono.map(techList -> CapabilityDetailDTO.builder()
-                                        .id(cap.getId())
-                                        .nombre(cap.getNombre())
-                                        .descripcion(cap.getDescripcion())
-                                        .tecnologias(
-                                                techList.stream()
-                                                        .map(t -> new TechnologyDTO(t.getId(), t.getNombre(),
-                                                                t.getDescripcion()))
-                                                        .toList())
-                                        .build());
-                            })
-                            .collectList();
-
-                    // -------- 3. Cargar personas inscritas ----------
-                    Mono<List<PersonDTO>> personasMono = enrollmentRepository.findByBootcampId(bootcamp.getId())
-                            .flatMap(enr -> personRepository.findById(enr.getPersonId()))
-                            .map(p -> new PersonDTO(p.getId(), p.getNombre(), p.getCorreo()))
-                            .collectList();
-
-                    // -------- 4. Unir todo en el DTO final ----------
-                    return Mono.zip(capacidadesConTecnologiasMono, personasMono)
-                            .map(data -> BootcampDetailDTO.builder()
-                                    .id(bootcamp.getId())
-                                    .nombre(bootcamp.getNombre())
-                                    .descripcion(bootcamp.getDescripcion())
-                                    .duracion(bootcamp.getDuracion())
-                                    .fechaLanzamiento(bootcamp.getFechaLanzamiento())
-                                    .capacidades(data.getT1())
-                                    .personasInscritas(data.getT2())
-                                    .build());
-                });
+                .flatMap(this::buildBootcampDetail);
     }
 
     public Mono<BootcampDetailDTO> getMostPopularBootcamp() {
 
-        return bootcampRepository.findAll()
-                .flatMap(bootcamp -> enrollmentRepository.countByBootcampId(bootcamp.getId())
-                        .map(count -> Tuples.of(bootcamp, count)))
-                .sort((a, b) -> Long.compare(b.getT2(), a.getT2()))
+        // Lectura por índice sobre el contador materializado
+        return bootcampRepository.findTopByCantidadPersonasInscritas(1)
                 .next()
-                .flatMap(tuple -> buildBootcampDetail(tuple.getT1()));
+                .flatMap(this::loadCapabilities)
+                .flatMap(this::buildBootcampDetail);
+    }
+
+    // Recalcula los contadores a partir de las inscripciones y corrige las diferencias
+    public Mono<Long> reconcileEnrollmentCounts() {
+
+        return enrollmentRepository.countGroupedByBootcamp()
+                .collectList()
+                .flatMap(bootcampRepository::reconcileCantidadPersonasInscritas);
+    }
+
+    // Documentos antiguos pueden no tener las listas de ids: se tratan como vacías
+    private Mono<Bootcamp> loadCapabilities(Bootcamp bootcamp) {
+
+        return capabilityRepository.findAllById(orEmpty(bootcamp.getCapabilityIds()))
+                .collectList()
+                .flatMap(capabilities -> technologyRepository.findAllById(capabilities.stream()
+                        .flatMap(cap -> orEmpty(cap.getTechnologyIds()).stream())
+                        .distinct()
+                        .toList())
+                        .collectMap(Technology::getId)
+                        .map(technologies -> {
+                            capabilities.forEach(cap -> cap.setTechnologies(orEmpty(cap.getTechnologyIds()).stream()
+                                    .map(technologies::get)
+                                    .filter(Objects::nonNull)
+                                    .toList()));
+                            bootcamp.setCapabilities(capabilities);
+                            return bootcamp;
+                        }));
+    }
+
+    private static <T> List<T> orEmpty(List<T> values) {
+        return values == null ? List.of() : values;
     }
 
     private Mono<BootcampDetailDTO> buildBootcampDetail(Bootcamp bootcamp) {
 
+        // Una sola lectura de personas para todas las inscripciones, en el orden de inscripción
         Mono<List<PersonDTO>> personas = enrollmentRepository.findByBootcampId(bootcamp.getId())
-                .flatMap(enr -> personRepository.findById(enr.getPersonId()))
-                .map(p -> new PersonDTO(p.getId(), p.getNombre(), p.getCorreo()))
-                .collectList();
-
-        Mono<List<CapabilityDetailDTO>> capacidades = capabilityRepository.findAllById(bootcamp.getCapabilityIds())
-                .flatMap(cap -> technologyRepository.findAllById(cap.getTechnologyIds())
-                        .map(t -> new TechnologyDTO(t.getId(), t.getNombre(), t.getDescripcion()))
-                        .collectList()
-                        .map(techs -> new CapabilityDetailDTO(
-                                cap.getId(),
-                                cap.getNombre(),
-                                cap.getDescripcion(),
-                                techs)))
-                .collectList();
-
-        return Mono.zip(personas, capacidades)
-                .map(tuple -> BootcampDetailDTO.builder()
-                        .id(bootcamp.getId())
-                        .nombre(bootcamp.getNombre())
-                        .descripcion(bootcamp.getDescripcion())
-                        .duracion(bootcamp.getDuracion())
-                        .fechaLanzamiento(bootcamp.getFechaLanzamiento())
-                        .personasInscritas(tuple.getT1())
-                        .capacidades(tuple.getT2())
-                        .build());
+                .map(Enrollment::getPersonId)
+                .distinct()
+                .collectList()
+                .flatMap(personIds -> personIds.isEmpty() ? Mono.just(List.<PersonDTO>of()) : personRepository
+                        .findAllById(personIds)
+                        .collectMap(Person::getId)
+                        .map(found -> personIds.stream()
+                                .map(found::get)
+                                .filter(Objects::nonNull)
+                                .map(p -> new PersonDTO(p.getId(), p.getNombre(), p.getCorreo()))
+                                .toList()));
+
+        List<CapabilityDetailDTO> capacidades = orEmpty(bootcamp.getCapabilities()).stream()
+                .map(cap -> new CapabilityDetailDTO(
+                        cap.getId(),
+                        cap.getNombre(),
+                        cap.getDescripcion(),
+                        orEmpty(cap.getTechnologies()).stream()
+                                .map(t -> new TechnologyDTO(t.getId(), t.getNombre(), t.getDescripcion()))
+                                .toList()))
+                .toList();
+
+        return personas.map(personasInscritas -> BootcampDetailDTO.builder()
+                .id(bootcamp.getId())
+                .nombre(bootcamp.getNombre())
+                .descripcion(bootcamp.getDescripcion())
+                .duracion(bootcamp.getDuracion())
+                .fechaLanzamiento(bootcamp.getFechaLanzamiento())
+                .personasInscritas(personasInscritas)
+                .capacidades(capacidades)
+                .build());
     }
 }
@@ -0,0 +1,124 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampReport;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.ReportTask;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampReportRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.ReportTaskRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Genera los reportes de bootcamp pendientes por lotes: una lectura de bootcamps,
+// un único conteo agregado de tecnologías para todo el lote y un único insertMany.
+public class BootcampReportUseCase {
+
+    private static final Duration FIRST_RETRY = Duration.ofSeconds(5);
+    private static final Duration MAX_RETRY = Duration.ofHours(1);
+
+    private final ReportTaskRepository taskRepository;
+    private final BootcampRepository bootcampRepository;
+    private final CapabilityRepository capabilityRepository;
+    private final BootcampReportRepository reportRepository;
+
+    public BootcampReportUseCase(
+            ReportTaskRepository taskRepository,
+            BootcampRepository bootcampRepository,
+            CapabilityRepository capabilityRepository,
+            BootcampReportRepository reportRepository) {
+        this.taskRepository = taskRepository;
+        this.bootcampRepository = bootcampRepository;
+        this.capabilityRepository = capabilityRepository;
+        this.reportRepository = reportRepository;
+    }
+
+    // Procesa un lote de tareas vencidas y devuelve cuántas reclamó
+    public Mono<Integer> processPendingReports(int batchSize, Duration lease) {
+        Instant now = Instant.now();
+
+        return taskRepository.claimDue(now, lease, batchSize)
+                .collectList()
+                .flatMap(tasks -> {
+                    if (tasks.isEmpty()) {
+                        return Mono.just(0);
+                    }
+                    List<String> ids = tasks.stream().map(ReportTask::getId).toList();
+                    return generateReports(tasks)
+                            .then(Mono.defer(() -> taskRepository.deleteAllById(ids)))
+                            .onErrorResume(e -> rescheduleAll(tasks, now, e))
+                            .thenReturn(tasks.size());
+                });
+    }
+
+    public Mono<Long> countPendingReports() {
+        return taskRepository.count();
+    }
+
+    // Antigüedad de la tarea más vieja; cero con la cola vacía
+    public Mono<Duration> pendingReportsLag() {
+        return taskRepository.findOldest()
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), Instant.now()))
+                .defaultIfEmpty(Duration.ZERO);
+    }
+
+    private Mono<Void> generateReports(List<ReportTask> tasks) {
+        Set<String> bootcampIds = tasks.stream().map(ReportTask::getBootcampId).collect(Collectors.toSet());
+
+        return bootcampRepository.findAllById(bootcampIds)
+                .collectMap(Bootcamp::getId)
+                .flatMap(bootcamps -> capabilityRepository.countDistinctTechnologiesPerGroup(bootcamps.values()
+                                .stream()
+                                .collect(Collectors.toMap(Bootcamp::getId, BootcampReportUseCase::capabilityIdsOf)))
+                        .map(technologies -> tasks.stream()
+                                // Un bootcamp borrado antes de generar su reporte no lo necesita
+                                .filter(task -> bootcamps.containsKey(task.getBootcampId()))
+                                .map(task -> toReport(task, bootcamps.get(task.getBootcampId()),
+                                        technologies.getOrDefault(task.getBootcampId(), 0)))
+                                .toList()))
+                // Los ids repetidos son reportes de un intento anterior que no alcanzó a borrar sus tareas
+                .flatMap(reports -> reportRepository.insertAll(reports).then());
+    }
+
+    // El id del reporte es el de la tarea: reintentar un lote no duplica reportes
+    private static BootcampReport toReport(ReportTask task, Bootcamp bootcamp, int totalTecnologias) {
+        return BootcampReport.builder()
+                .id(task.getId())
+                .bootcampId(bootcamp.getId())
+                .nombreBootcamp(bootcamp.getNombre())
+                .cantidadCapacidades(capabilityIdsOf(bootcamp).size())
+                .cantidadTecnologias(totalTecnologias)
+                .cantidadPersonasInscritas(bootcamp.getCantidadPersonasInscritas() == null ? 0
+                        : bootcamp.getCantidadPersonasInscritas())
+                .fechaRegistro(LocalDate.now())
+                .build();
+    }
+
+    private static List<String> capabilityIdsOf(Bootcamp bootcamp) {
+        return bootcamp.getCapabilityIds() == null ? List.of() : bootcamp.getCapabilityIds();
+    }
+
+    private Mono<Void> rescheduleAll(List<ReportTask> tasks, Instant now, Throwable error) {
+        return Flux.fromIterable(tasks)
+                .concatMap(task -> taskRepository.reschedule(task.getId(),
+                        now.plus(backoff(task.getAttempts())), error.getMessage()))
+                .then(Mono.error(error));
+    }
+
+    // 5s, 10s, 20s... hasta una hora
+    static Duration backoff(int attempts) {
+        if (attempts >= 20) {
+            return MAX_RETRY;
+        }
+        Duration delay = FIRST_RETRY.multipliedBy(1L << attempts);
+        return delay.compareTo(MAX_RETRY) > 0 ? MAX_RETRY : delay;
+    }
+}
@@ -1,38 +1,55 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.dao.DuplicateKeyException;
 
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
-import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampReport;
-import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
-import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
-import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampReportRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.CursorPage;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.ReportTask;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.EnrollmentRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.ReportTaskRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TransactionRunner;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class BootcampUseCase {
 
+    // "10", "10 semanas" o "1 semana"
+    private static final Pattern DURACION = Pattern.compile("\\s*(\\d{1,3})(\\s+semanas?)?\\s*",
+            Pattern.CASE_INSENSITIVE);
+
     private final BootcampRepository repository;
     private final CapabilityRepository capabilityRepository;
     private final TechnologyRepository technologyRepository;
-    private final BootcampReportRepository reportRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ReportTaskRepository reportTaskRepository;
+    private final TransactionRunner transactionRunner;
+    private final CatalogRelationLoader relationLoader;
 
     public BootcampUseCase(
             BootcampRepository repository,
             CapabilityRepository capabilityRepository,
             TechnologyRepository technologyRepository,
-            BootcampReportRepository reportRepository) {
+            EnrollmentRepository enrollmentRepository,
+            ReportTaskRepository reportTaskRepository,
+            TransactionRunner transactionRunner) {
         this.repository = repository;
         this.capabilityRepository = capabilityRepository;
         this.technologyRepository = technologyRepository;
-        this.reportRepository = reportRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.reportTaskRepository = reportTaskRepository;
+        this.transactionRunner = transactionRunner;
+        this.relationLoader = new CatalogRelationLoader(capabilityRepository, technologyRepository);
     }
 
     public Mono<Bootcamp> createBootcamp(Bootcamp bootcamp) {
@@ -45,134 +62,80 @@ public class BootcampUseCase {
             return Mono.error(new IllegalArgumentException("No puede tener más de 4 capacidades asociadas."));
         }
 
-        return repository.existsByNombre(bootcamp.getNombre())
-                .flatMap(exists -> {
-                    if (exists) {
-                        return Mono.error(new IllegalArgumentException("El nombre del bootcamp ya existe."));
-                    }
-                    return repository.save(bootcamp);
-                })
-                .flatMap(saved -> {
-
-                    // ✔ CONTAR TECNOLOGÍAS ASOCIADAS
-                    Mono<Integer> totalTecnologias = capabilityRepository
-                            .findAllById(saved.getCapabilityIds())
-                            .flatMap(cap -> technologyRepository.findAllById(cap.getTechnologyIds()))
-                            .count()
-                            .map(Long::intValue);
-
-                    // ✔ CREAR REPORTE ASÍNCRONAMENTE
-                    totalTecnologias.flatMap(totalTechs -> {
-                        BootcampReport report = BootcampReport.builder()
-                                .bootcampId(saved.getId())
-                                .nombreBootcamp(saved.getNombre())
-                                .cantidadCapacidades(saved.getCapabilityIds().size())
-                                .cantidadTecnologias(totalTechs)
-                                .cantidadPersonasInscritas(0)
-                                .fechaRegistro(LocalDate.now())
-                                .build();
-
-                        return reportRepository.save(report);
-                    })
-                            .subscribe(); // *** EJECUTAR EN PARALELO SIN BLOQUEAR ***
-
-                    return Mono.just(saved);
-                });
+        Matcher duracion = DURACION.matcher(bootcamp.getDuracion() == null ? "" : bootcamp.getDuracion());
+        if (!duracion.matches() || Integer.parseInt(duracion.group(1)) == 0) {
+            return Mono.error(new IllegalArgumentException("Formato de duración inválido: " + bootcamp.getDuracion()));
+        }
+
+        bootcamp.setCantidadCapacidades(bootcamp.getCapabilityIds().size());
+        bootcamp.setDuracionSemanas(Integer.parseInt(duracion.group(1)));
+        if (bootcamp.getFechaLanzamiento() != null) {
+            bootcamp.setFechaFin(bootcamp.getFechaLanzamiento().plusWeeks(bootcamp.getDuracionSemanas()));
+        }
+
+        // El bootcamp y su reporte pendiente se confirman juntos; el reporte lo
+        // genera después BootcampReportUseCase. La unicidad del nombre la garantiza el índice único
+        return transactionRunner.inTransaction(repository.save(bootcamp)
+                .flatMap(saved -> reportTaskRepository.save(ReportTask.forBootcamp(saved.getId(), Instant.now()))
+                        .thenReturn(saved)))
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new IllegalArgumentException("El nombre del bootcamp ya existe."));
     }
 
     public Flux<Bootcamp> getAllBootcamp(String sortBy, String order, int page, int size) {
 
-        return repository.findAll()
-                .sort((b1, b2) -> {
-                    int comparison;
-
-                    if ("cantidad".equalsIgnoreCase(sortBy)) {
-                        int s1 = b1.getCapabilityIds() == null ? 0 : b1.getCapabilityIds().size();
-                        int s2 = b2.getCapabilityIds() == null ? 0 : b2.getCapabilityIds().size();
-                        comparison = Integer.compare(s1, s2);
-                    } else {
-                        comparison = b1.getNombre().compareToIgnoreCase(b2.getNombre());
-                    }
-
-                    return "desc".equalsIgnoreCase(order) ? -comparison : comparison;
-                })
-                .skip((long) page * size)
-                .take(size)
-                .flatMap(this::enrichBootcamp);
+        return repository.findAllPaginated(sortBy, order, page, size)
+                .collectList()
+                .flatMap(relationLoader::loadBootcamps)
+                .flatMapIterable(bootcamps -> bootcamps);
     }
 
-    private Mono<Bootcamp> enrichBootcamp(Bootcamp bootcamp) {
+    public Mono<CursorPage<Bootcamp>> getAllBootcampAfter(String sortBy, String order, String cursor, int size) {
 
-        if (bootcamp.getCapabilityIds() == null || bootcamp.getCapabilityIds().isEmpty()) {
-            bootcamp.setCapabilities(List.of());
-            return Mono.just(bootcamp);
+        PageCursor after;
+        try {
+            after = PageCursor.decode(cursor, sortBy, order);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
         }
 
-        return Flux.fromIterable(bootcamp.getCapabilityIds())
-                .flatMap(capId -> capabilityRepository.findById(capId))
-                .flatMap(this::enrichCapability)
+        // Se pide un elemento extra para saber si existe una página siguiente
+        return repository.findAllAfter(sortBy, order, after, size + 1)
                 .collectList()
-                .map(capList -> {
-                    bootcamp.setCapabilities(capList);
-                    return bootcamp;
+                .flatMap(found -> {
+                    boolean hasMore = found.size() > size;
+                    List<Bootcamp> items = hasMore ? found.subList(0, size) : found;
+                    String nextCursor = hasMore ? nextCursor(items.get(items.size() - 1), sortBy, order) : null;
+
+                    return relationLoader.loadBootcamps(items)
+                            .map(enriched -> new CursorPage<>(enriched, nextCursor));
                 });
     }
 
-    private Mono<Capability> enrichCapability(Capability cap) {
+    public Flux<Bootcamp> getCalendar(LocalDate from, LocalDate to) {
+        return repository.findRunningBetween(from, to);
+    }
 
-        if (cap.getTechnologyIds() == null || cap.getTechnologyIds().isEmpty()) {
-            cap.setTechnologies(List.of());
-            return Mono.just(cap);
-        }
+    private String nextCursor(Bootcamp last, String sortBy, String order) {
+        String key = PageCursor.normalizeSortBy(sortBy);
+        String value = PageCursor.SORT_CANTIDAD.equals(key)
+                ? String.valueOf(last.getCantidadCapacidades())
+                : last.getNombre();
 
-        return Flux.fromIterable(cap.getTechnologyIds())
-                .flatMap(techId -> technologyRepository.findById(techId))
-                .map(tech -> Technology.builder()
-                        .id(tech.getId())
-                        .nombre(tech.getNombre())
-                        .descripcion(null)
-                        .build())
-                .collectList()
-                .map(techList -> {
-                    cap.setTechnologies(techList);
-                    return cap;
-                });
+        return new PageCursor(key, PageCursor.isDescending(order), last.getId(), value).encode();
     }
 
-    @Transactional
+    // Un cálculo de huérfanos y un borrado con $in por colección, todo en una transacción.
+    // Las inscripciones se retiran también, para que el bootcamp deje de contar en el
+    // límite de bootcamps y en el cruce de fechas de sus inscritos.
     public Mono<Void> deleteBootcamp(String bootcampId) {
 
-        return repository.findById(bootcampId)
+        return transactionRunner.inTransaction(repository.findDeleteCascade(bootcampId)
                 .switchIfEmpty(Mono.error(new IllegalArgumentException("Bootcamp no encontrado")))
-                .flatMap(bootcamp -> {
-                    List<String> capsIds = bootcamp.getCapabilityIds();
-
-                    return Flux.fromIterable(capsIds)
-                            .flatMap(capId -> capabilityRepository.findById(capId)
-                                    .flatMap(cap ->
-
-                                    repository.countByCapabilityIdsContains(capId)
-                                            .flatMap(count -> {
-                                                if (count > 1) {
-                                                    return Mono.empty(); // NO ELIMINAR
-                                                }
-
-                                                // eliminar tecnologías solo si no están en otras caps
-                                                return Flux.fromIterable(cap.getTechnologyIds())
-                                                        .flatMap(techId -> capabilityRepository
-                                                                .countByTechnologyIdsContains(techId)
-                                                                .flatMap(techCount -> {
-                                                                    if (techCount > 1) {
-                                                                        return Mono.empty();
-                                                                    }
-                                                                    return technologyRepository.deleteById(techId);
-                                                                }))
-                                                        .then(capabilityRepository.deleteById(capId));
-                                            })
-
-                                    ))
-                            .then(repository.deleteById(bootcampId));
-                });
+                .flatMap(cascade -> technologyRepository.deleteAllById(cascade.getOrphanTechnologyIds())
+                        .then(capabilityRepository.deleteAllById(cascade.getOrphanCapabilityIds()))
+                        .then(enrollmentRepository.removeBootcamp(bootcampId))
+                        .then(repository.deleteById(bootcampId))));
     }
 
 }
@@ -0,0 +1,70 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Function;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BulkItemResult;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+// Inserta un bloque de filas ya numeradas: las inválidas se rechazan sin ir a la
+// base de datos y las válidas viajan en una sola escritura masiva
+final class BulkImport {
+
+    // Los errores de infraestructura no se devuelven tal cual al cliente
+    static final String ERROR_FILA = "No fue posible procesar la fila, intente nuevamente";
+
+    private BulkImport() {
+    }
+
+    // Las reglas de negocio se informan con su mensaje; el resto con uno fijo
+    static String rejectionMessage(Throwable error) {
+        return error instanceof IllegalArgumentException ? error.getMessage() : ERROR_FILA;
+    }
+
+    static <T> Flux<BulkItemResult> insertChunk(List<Tuple2<Long, T>> chunk, Function<T, String> validation,
+            Function<List<T>, Flux<Integer>> insertAll, Function<T, String> idOf, String duplicateMessage) {
+
+        List<BulkItemResult> results = new ArrayList<>();
+        List<Long> indexes = new ArrayList<>();
+        List<T> valid = new ArrayList<>();
+
+        for (Tuple2<Long, T> item : chunk) {
+            String error = validation.apply(item.getT2());
+            if (error != null) {
+                results.add(BulkItemResult.rejected(item.getT1(), error));
+            } else {
+                indexes.add(item.getT1());
+                valid.add(item.getT2());
+            }
+        }
+
+        if (valid.isEmpty()) {
+            return Flux.fromIterable(results);
+        }
+
+        return Flux.defer(() -> insertAll.apply(valid))
+                .collect(HashSet<Integer>::new, HashSet::add)
+                .map(duplicates -> {
+                    for (int i = 0; i < valid.size(); i++) {
+                        results.add(duplicates.contains(i)
+                                ? BulkItemResult.rejected(indexes.get(i), duplicateMessage)
+                                : BulkItemResult.inserted(indexes.get(i), idOf.apply(valid.get(i))));
+                    }
+                    return results;
+                })
+                .onErrorResume(e -> {
+                    indexes.forEach(index -> results.add(BulkItemResult.rejected(index, rejectionMessage(e))));
+                    return Mono.just(results);
+                })
+                .flatMapIterable(all -> {
+                    all.sort(Comparator.comparingLong(BulkItemResult::getIndex));
+                    return all;
+                });
+    }
+}
@@ -2,9 +2,14 @@ package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Function;
 
+import org.springframework.dao.DuplicateKeyException;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BulkItemResult;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
-import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.CursorPage;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
 
@@ -14,38 +19,62 @@ import reactor.core.publisher.Mono;
 public class CapabilityUseCase {
 
     private final CapabilityRepository repository;
-    private final TechnologyRepository technologyRepository;
+    private final CatalogRelationLoader relationLoader;
 
     public CapabilityUseCase(CapabilityRepository repository, TechnologyRepository technologyRepository) {
         this.repository = repository;
-        this.technologyRepository = technologyRepository;
+        this.relationLoader = new CatalogRelationLoader(repository, technologyRepository);
     }
 
     public Mono<Capability> createCapability(Capability capability) {
-        List<String> technologyIds = capability.getTechnologyIds();
+        String violation = technologyRulesViolation(capability.getTechnologyIds());
+        if (violation != null) {
+            return Mono.error(new IllegalArgumentException(violation));
+        }
+
+        capability.setCantidadTecnologias(capability.getTechnologyIds().size());
 
+        // La unicidad del nombre la garantiza el índice único
+        return repository.save(capability)
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new IllegalArgumentException("El nombre de la capacidad ya existe"));
+    }
+
+    // validation devuelve el motivo de rechazo de una fila, o null si es válida
+    public Flux<BulkItemResult> importCapabilities(Flux<Capability> capabilities,
+            Function<Capability, String> validation, int chunkSize) {
+        Function<Capability, String> rules = capability -> {
+            String violation = validation.apply(capability);
+            if (violation == null) {
+                violation = technologyRulesViolation(capability.getTechnologyIds());
+            }
+            if (violation == null) {
+                capability.setCantidadTecnologias(capability.getTechnologyIds().size());
+            }
+            return violation;
+        };
+
+        return capabilities
+                .doOnNext(capability -> capability.setId(null))
+                .index()
+                .buffer(chunkSize)
+                .concatMap(chunk -> BulkImport.insertChunk(chunk, rules, repository::insertAll,
+                        Capability::getId, "El nombre de la capacidad ya existe"));
+    }
+
+    private static String technologyRulesViolation(List<String> technologyIds) {
         if (technologyIds == null || technologyIds.size() < 3) {
-            return Mono.error(new IllegalArgumentException("Debe tener al menos 3 tecnologías asociadas"));
+            return "Debe tener al menos 3 tecnologías asociadas";
         }
 
         if (technologyIds.size() > 20) {
-            return Mono.error(new IllegalArgumentException("No puede tener más de 20 tecnologías asociadas"));
+            return "No puede tener más de 20 tecnologías asociadas";
         }
 
-        var idsSet = new HashSet<String>();
-        for (String techId : technologyIds) {
-            if (!idsSet.add(techId)) {
-                return Mono.error(new IllegalArgumentException("Existen tecnologías repetidas"));
-            }
+        if (new HashSet<>(technologyIds).size() != technologyIds.size()) {
+            return "Existen tecnologías repetidas";
         }
-
-        return repository.existsByNombre(capability.getNombre())
-                .flatMap(exists -> {
-                    if (exists) {
-                        return Mono.error(new IllegalArgumentException("El nombre de la capacidad ya existe"));
-                    }
-                    return repository.save(capability);
-                });
+        return null;
     }
 
     public Flux<Capability> getAllCapabilities() {
@@ -55,39 +84,42 @@ public class CapabilityUseCase {
     public Flux<Capability> getAllCapabilities(
             String sortBy, String order, int page, int size) {
 
-        return repository.findAll()
-                .sort((c1, c2) -> {
-                    int comparison;
-                    if ("cantidad".equalsIgnoreCase(sortBy)) {
-                        int s1 = c1.getTechnologyIds() == null ? 0 : c1.getTechnologyIds().size();
-                        int s2 = c2.getTechnologyIds() == null ? 0 : c2.getTechnologyIds().size();
-                        comparison = Integer.compare(s1, s2);
-                    } else { 
-                        comparison = c1.getNombre().compareToIgnoreCase(c2.getNombre());
-                    }
-                    return "desc".equalsIgnoreCase(order) ? -comparison : comparison;
-                })
-                .skip((long) page * size)
-                .take(size)
-                .flatMap(cap -> {
-                    if (cap.getTechnologyIds() == null || cap.getTechnologyIds().isEmpty()) {
-                        cap.setTechnologies(List.of());
-                        return Mono.just(cap);
-                    }
-
-                    return Flux.fromIterable(cap.getTechnologyIds())
-                            .flatMap(techId -> technologyRepository.findById(techId))
-                            .map(tech -> Technology.builder()
-                                    .id(tech.getId())
-                                    .nombre(tech.getNombre())
-                                    .descripcion(null) 
-                                    .build())
-                            .collectList()
-                            .map(techList -> {
-                                cap.setTechnologies(techList);
-                                return cap;
-                            });
+        return repository.findAllPaginated(sortBy, order, page, size)
+                .collectList()
+                .flatMap(relationLoader::loadCapabilities)
+                .flatMapIterable(capabilities -> capabilities);
+    }
+
+    public Mono<CursorPage<Capability>> getAllCapabilitiesAfter(
+            String sortBy, String order, String cursor, int size) {
+
+        PageCursor after;
+        try {
+            after = PageCursor.decode(cursor, sortBy, order);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        return repository.findAllAfter(sortBy, order, after, size + 1)
+                .collectList()
+                .flatMap(found -> {
+                    boolean hasMore = found.size() > size;
+                    List<Capability> items = hasMore ? found.subList(0, size) : found;
+                    String nextCursor = hasMore ? nextCursor(items.get(items.size() - 1), sortBy, order) : null;
+
+                    return relationLoader.loadCapabilities(items)
+                            .map(enriched -> new CursorPage<>(enriched, nextCursor));
                 });
     }
 
+    private String nextCursor(Capability last, String sortBy, String order) {
+        String key = PageCursor.normalizeSortBy(sortBy);
+        String value = PageCursor.SORT_CANTIDAD.equals(key)
+                ? String.valueOf(last.getCantidadTecnologias())
+                : last.getNombre();
+
+        return new PageCursor(key, PageCursor.isDescending(order), last.getId(), value).encode();
+    }
+
 }
@@ -0,0 +1,91 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+
+import reactor.core.publisher.Mono;
+
+// Carga las relaciones de una página completa con una consulta $in por
+// colección en lugar de un findById por cada id referenciado.
+class CatalogRelationLoader {
+
+    private final CapabilityRepository capabilityRepository;
+    private final TechnologyRepository technologyRepository;
+
+    CatalogRelationLoader(CapabilityRepository capabilityRepository, TechnologyRepository technologyRepository) {
+        this.capabilityRepository = capabilityRepository;
+        this.technologyRepository = technologyRepository;
+    }
+
+    Mono<List<Bootcamp>> loadBootcamps(List<Bootcamp> bootcamps) {
+
+        Set<String> capabilityIds = distinctIds(bootcamps.stream().map(Bootcamp::getCapabilityIds).toList());
+
+        if (capabilityIds.isEmpty()) {
+            bootcamps.forEach(b -> b.setCapabilities(List.of()));
+            return Mono.just(bootcamps);
+        }
+
+        return capabilityRepository.findAllById(capabilityIds)
+                .collectList()
+                .flatMap(this::loadCapabilities)
+                .map(capabilities -> {
+                    Map<String, Capability> byId = capabilities.stream()
+                            .collect(Collectors.toMap(Capability::getId, c -> c, (a, b) -> a));
+
+                    bootcamps.forEach(b -> b.setCapabilities(resolve(b.getCapabilityIds(), byId)));
+                    return bootcamps;
+                });
+    }
+
+    Mono<List<Capability>> loadCapabilities(List<Capability> capabilities) {
+
+        Set<String> technologyIds = distinctIds(capabilities.stream().map(Capability::getTechnologyIds).toList());
+
+        if (technologyIds.isEmpty()) {
+            capabilities.forEach(c -> c.setTechnologies(List.of()));
+            return Mono.just(capabilities);
+        }
+
+        return technologyRepository.findAllById(technologyIds)
+                // En los listados solo se expone id y nombre de la tecnología
+                .collectMap(Technology::getId, tech -> Technology.builder()
+                        .id(tech.getId())
+                        .nombre(tech.getNombre())
+                        .descripcion(null)
+                        .build())
+                .map(byId -> {
+                    capabilities.forEach(c -> c.setTechnologies(resolve(c.getTechnologyIds(), byId)));
+                    return capabilities;
+                });
+    }
+
+    private static Set<String> distinctIds(List<List<String>> idLists) {
+        Set<String> ids = new LinkedHashSet<>();
+        idLists.stream()
+                .filter(Objects::nonNull)
+                .forEach(ids::addAll);
+        return ids;
+    }
+
+    private static <T> List<T> resolve(Collection<String> ids, Map<String, T> byId) {
+        if (ids == null) {
+            return List.of();
+        }
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -1,85 +1,305 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BulkItemResult;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.EnrolledBootcamp;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PersonEnrollments;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.EnrollmentRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TransactionRunner;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 public class EnrollmentUseCase {
 
+    private static final int MAX_BOOTCAMPS = 5;
+
+    private static final String SIN_FECHAS = "El bootcamp no tiene fecha de lanzamiento";
+
     private final EnrollmentRepository enrollmentRepository;
     private final BootcampRepository bootcampRepository;
+    private final TransactionRunner transactionRunner;
 
-    public EnrollmentUseCase(EnrollmentRepository enrollmentRepository, BootcampRepository bootcampRepository) {
+    public EnrollmentUseCase(EnrollmentRepository enrollmentRepository, BootcampRepository bootcampRepository,
+            TransactionRunner transactionRunner) {
         this.enrollmentRepository = enrollmentRepository;
         this.bootcampRepository = bootcampRepository;
+        this.transactionRunner = transactionRunner;
     }
 
     public Mono<Enrollment> enrollPerson(String personId, String bootcampId) {
 
-        return enrollmentRepository.existsByPersonIdAndBootcampId(personId, bootcampId)
-                .flatMap(exists -> {
-                    if (exists) {
-                        return Mono.error(new IllegalArgumentException("La persona ya está inscrita en este bootcamp"));
+        // 1. Obtener bootcamp objetivo
+        return bootcampRepository.findById(bootcampId)
+                .switchIfEmpty(Mono.error(new IllegalArgumentException("Bootcamp no encontrado")))
+                .flatMap(bootcampObjetivo -> {
+
+                    // Sin fecha de inicio el filtro de admit no puede detectar cruces
+                    if (bootcampObjetivo.getFechaLanzamiento() == null) {
+                        return Mono.error(new IllegalArgumentException(SIN_FECHAS));
                     }
-                    return Mono.just(true);
-                })
-                // 1. Validar máximo 5 bootcamps
-                .then(enrollmentRepository.countByPersonId(personId))
-                .flatMap(count -> {
-                    if (count >= 5) {
-                        return Mono.error(new IllegalArgumentException(
-                                "Una persona no puede estar inscrita en más de 5 bootcamps"));
+
+                    EnrolledBootcamp inscrito = toInscrito(bootcampObjetivo);
+
+                    Enrollment enrollment = Enrollment.builder()
+                            .bootcampId(bootcampId)
+                            .personId(personId)
+                            .fechaInscripcion(LocalDate.now())
+                            .build();
+
+                    // 2. Validar y registrar en una sola operación sobre el resumen de la persona
+                    // 3. Actualizar el contador materializado del bootcamp en la misma transacción
+                    Mono<Enrollment> admission = enrollmentRepository.admit(enrollment, inscrito, MAX_BOOTCAMPS)
+                            .switchIfEmpty(Mono.error(new AdmissionRejectedException()))
+                            .flatMap(saved -> bootcampRepository.incrementCantidadPersonasInscritas(bootcampId, 1)
+                                    .thenReturn(saved));
+
+                    return transactionRunner.inTransaction(admission)
+                            .onErrorMap(DuplicateKeyException.class,
+                                    e -> new IllegalArgumentException("La persona ya está inscrita en este bootcamp"))
+                            .onErrorResume(AdmissionRejectedException.class,
+                                    e -> rejectionReason(personId, inscrito));
+                });
+    }
+
+    // Carga masiva: por bloque se leen una vez los bootcamps y los resúmenes de las
+    // personas, las reglas se aplican en memoria y lo aceptado se escribe junto
+    public Flux<BulkItemResult> enrollAll(Flux<Enrollment> rows, int chunkSize) {
+        return rows.index()
+                .buffer(chunkSize)
+                .concatMap(this::enrollChunk);
+    }
+
+    private Flux<BulkItemResult> enrollChunk(List<Tuple2<Long, Enrollment>> chunk) {
+        Set<String> bootcampIds = chunk.stream()
+                .map(row -> row.getT2().getBootcampId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> personIds = chunk.stream()
+                .map(row -> row.getT2().getPersonId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        return Mono.zip(
+                bootcampRepository.findAllById(bootcampIds).collectMap(Bootcamp::getId),
+                enrollmentRepository.findSummariesByPersonIds(personIds).collectMap(PersonEnrollments::getId))
+                .flatMapMany(loaded -> admitChunk(chunk, loaded.getT1(), loaded.getT2()))
+                // admitChunk resuelve sus propios errores: lo que llega aquí es la lectura del bloque
+                .onErrorResume(e -> Flux.fromIterable(chunk)
+                        .map(row -> BulkItemResult.rejected(row.getT1(), BulkImport.rejectionMessage(e))));
+    }
+
+    private Flux<BulkItemResult> admitChunk(List<Tuple2<Long, Enrollment>> chunk, Map<String, Bootcamp> bootcamps,
+            Map<String, PersonEnrollments> summaries) {
+
+        Map<String, PersonEnrollments> pending = new LinkedHashMap<>();
+        List<BulkItemResult> results = new ArrayList<>();
+        List<Long> acceptedIndexes = new ArrayList<>();
+        List<Enrollment> accepted = new ArrayList<>();
+
+        for (Tuple2<Long, Enrollment> row : chunk) {
+            String personId = row.getT2().getPersonId();
+            String bootcampId = row.getT2().getBootcampId();
+
+            String error;
+            if (isBlank(personId) || isBlank(bootcampId)) {
+                error = "personId y bootcampId son obligatorios";
+            } else if (!bootcamps.containsKey(bootcampId)) {
+                error = "Bootcamp no encontrado";
+            } else {
+                // Las filas anteriores de la misma persona ya cuentan para las reglas
+                PersonEnrollments summary = pending.computeIfAbsent(personId,
+                        id -> pendingSummary(id, summaries.get(id)));
+                EnrolledBootcamp inscrito = toInscrito(bootcamps.get(bootcampId));
+                error = violatedRule(summary.getBootcamps(), inscrito);
+
+                if (error == null) {
+                    summary.getBootcamps().add(inscrito);
+                    acceptedIndexes.add(row.getT1());
+                    accepted.add(Enrollment.builder()
+                            .personId(personId)
+                            .bootcampId(bootcampId)
+                            .fechaInscripcion(LocalDate.now())
+                            .build());
+                }
+            }
+
+            if (error != null) {
+                results.add(BulkItemResult.rejected(row.getT1(), error));
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return Flux.fromIterable(results);
+        }
+
+        Set<String> admittedPersons = accepted.stream().map(Enrollment::getPersonId).collect(Collectors.toSet());
+        List<PersonEnrollments> changed = pending.values().stream()
+                .filter(summary -> admittedPersons.contains(summary.getId()))
+                .toList();
+
+        // Las inscripciones y los contadores de sus bootcamps se confirman juntos
+        Mono<List<Enrollment>> admission = enrollmentRepository.admitAll(changed, accepted)
+                .collectList()
+                .flatMap(saved -> incrementCounters(saved).thenReturn(saved));
+
+        return transactionRunner.inTransaction(admission)
+                .map(saved -> {
+                    for (int i = 0; i < saved.size(); i++) {
+                        results.add(BulkItemResult.inserted(acceptedIndexes.get(i), saved.get(i).getId()));
                     }
-                    return Mono.just(true);
+                    return results;
+                })
+                // Cualquier otro fallo rechaza las filas del bloque sin cortar la respuesta
+                .onErrorResume(e -> !isConcurrentChange(e), e -> {
+                    acceptedIndexes.forEach(index -> results.add(
+                            BulkItemResult.rejected(index, BulkImport.rejectionMessage(e))));
+                    return Mono.just(results);
                 })
-                // 2. Obtener bootcamp objetivo
-                .then(bootcampRepository.findById(bootcampId)
-                        .switchIfEmpty(Mono.error(new IllegalArgumentException("Bootcamp no encontrado"))))
-                // 3. Verificar conflictos por fechas
-                .flatMap(bootcampObjetivo -> enrollmentRepository.findByPersonId(personId)
-                        .flatMap(enr -> bootcampRepository.findById(enr.getBootcampId()))
-                        .collectList()
-                        .flatMap(bootcampsInscritos -> {
-
-                            LocalDate startA = bootcampObjetivo.getFechaLanzamiento();
-                            LocalDate endA = startA.plusWeeks(parseDuracion(bootcampObjetivo.getDuracion()));
-
-                            for (Bootcamp b : bootcampsInscritos) {
-
-                                LocalDate startB = b.getFechaLanzamiento();
-                                LocalDate endB = startB.plusWeeks(parseDuracion(b.getDuracion()));
-
-                                boolean conflict = (startA.isBefore(endB) || startA.isEqual(endB)) &&
-                                        (startB.isBefore(endA) || startB.isEqual(endA));
-
-                                if (conflict) {
-                                    return Mono.error(new IllegalArgumentException(
-                                            "Conflicto de fechas con el bootcamp: " + b.getNombre()));
-                                }
-                            }
-
-                            return Mono.just(bootcampObjetivo);
-                        }))
-                // 4. Registrar inscripción
-                .flatMap(boot -> enrollmentRepository.save(
-                        Enrollment.builder()
-                                .bootcampId(bootcampId)
-                                .personId(personId)
-                                .fechaInscripcion(LocalDate.now())
-                                .build()));
-    }
-
-    private int parseDuracion(String duracion) {
-        try {
-            return Integer.parseInt(duracion.split(" ")[0]);
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Formato de duración inválido: " + duracion);
+                .flatMapIterable(all -> {
+                    all.sort(Comparator.comparingLong(BulkItemResult::getIndex));
+                    return all;
+                })
+                // Otra escritura tocó a alguna de estas personas: el bloque se repite fila a fila
+                .onErrorResume(this::isConcurrentChange, e -> enrollOneByOne(chunk));
+    }
+
+    private boolean isConcurrentChange(Throwable error) {
+        return error instanceof OptimisticLockingFailureException || error instanceof DuplicateKeyException;
+    }
+
+    private Flux<BulkItemResult> enrollOneByOne(List<Tuple2<Long, Enrollment>> chunk) {
+        return Flux.fromIterable(chunk)
+                .concatMap(row -> enrollPerson(row.getT2().getPersonId(), row.getT2().getBootcampId())
+                        .map(saved -> BulkItemResult.inserted(row.getT1(), saved.getId()))
+                        .onErrorResume(e -> Mono.just(BulkItemResult.rejected(row.getT1(), BulkImport.rejectionMessage(e)))));
+    }
+
+    // Un incremento por bootcamp en vez de uno por fila
+    private Mono<Void> incrementCounters(List<Enrollment> saved) {
+        Map<String, Long> perBootcamp = saved.stream()
+                .collect(Collectors.groupingBy(Enrollment::getBootcampId, LinkedHashMap::new, Collectors.counting()));
+
+        return Flux.fromIterable(perBootcamp.entrySet())
+                .concatMap(entry -> bootcampRepository.incrementCantidadPersonasInscritas(entry.getKey(),
+                        entry.getValue().intValue()))
+                .then();
+    }
+
+    // Copia editable del resumen; version 0 si el resumen existe sin versión
+    private static PersonEnrollments pendingSummary(String personId, PersonEnrollments current) {
+        if (current == null) {
+            return new PersonEnrollments(personId, new ArrayList<>(), null);
+        }
+        return new PersonEnrollments(personId,
+                current.getBootcamps() == null ? new ArrayList<>() : new ArrayList<>(current.getBootcamps()),
+                current.getVersion() == null ? 0L : current.getVersion());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    // Bootcamps que aún no terminan y en los que la persona podría inscribirse:
+    // una lectura del resumen, una consulta por rango y el resto en memoria
+    public Flux<Bootcamp> getEligibleBootcamps(String personId) {
+        return loadInscritos(personId)
+                .flatMapMany(inscritos -> inscritos.size() >= MAX_BOOTCAMPS
+                        ? Flux.<Bootcamp>empty()
+                        : bootcampRepository.findEndingFrom(LocalDate.now())
+                                .filter(bootcamp -> bootcamp.getFechaLanzamiento() != null
+                                        && bootcamp.getFechaFin() != null)
+                                .filter(bootcamp -> violatedRule(inscritos, toInscrito(bootcamp)) == null));
+    }
+
+    // Solo en el camino de rechazo se lee el resumen para informar qué regla falló
+    private Mono<Enrollment> rejectionReason(String personId, EnrolledBootcamp objetivo) {
+        return loadInscritos(personId)
+                .flatMap(inscritos -> {
+                    String rule = violatedRule(inscritos, objetivo);
+
+                    // Si ninguna regla falla, el resumen cambió entre la actualización y la lectura
+                    return Mono.error(new IllegalArgumentException(rule != null
+                            ? rule
+                            : "La inscripción no pudo completarse, intente nuevamente"));
+                });
+    }
+
+    private Mono<List<EnrolledBootcamp>> loadInscritos(String personId) {
+        return enrollmentRepository.findSummaryByPersonId(personId)
+                .map(summary -> summary.getBootcamps() == null ? List.<EnrolledBootcamp>of() : summary.getBootcamps())
+                .defaultIfEmpty(List.of());
+    }
+
+    // Mismas reglas que aplica admit sobre el resumen; null si el bootcamp es admisible
+    private static String violatedRule(List<EnrolledBootcamp> inscritos, EnrolledBootcamp objetivo) {
+
+        if (objetivo.getFechaInicio() == null) {
+            return SIN_FECHAS;
         }
+
+        if (inscritos.stream().anyMatch(b -> objetivo.getBootcampId().equals(b.getBootcampId()))) {
+            return "La persona ya está inscrita en este bootcamp";
+        }
+
+        if (inscritos.size() >= MAX_BOOTCAMPS) {
+            return "Una persona no puede estar inscrita en más de 5 bootcamps";
+        }
+
+        for (EnrolledBootcamp b : inscritos) {
+
+            // Entradas sin fecha de inicio no pueden cruzarse con nada
+            if (b.getFechaInicio() == null) {
+                continue;
+            }
+
+            boolean conflict = !objetivo.getFechaInicio().isAfter(fechaFin(b)) &&
+                    !b.getFechaInicio().isAfter(fechaFin(objetivo));
+
+            if (conflict) {
+                return "Conflicto de fechas con el bootcamp: " + b.getNombre();
+            }
+        }
+
+        return null;
+    }
+
+    // Sin fecha de fin (duración que no se pudo interpretar) el periodo se reduce al día de inicio
+    private static LocalDate fechaFin(EnrolledBootcamp bootcamp) {
+        return bootcamp.getFechaFin() != null ? bootcamp.getFechaFin() : bootcamp.getFechaInicio();
+    }
+
+    private static EnrolledBootcamp toInscrito(Bootcamp bootcamp) {
+        return EnrolledBootcamp.builder()
+                .bootcampId(bootcamp.getId())
+                .nombre(bootcamp.getNombre())
+                .fechaInicio(bootcamp.getFechaLanzamiento())
+                .fechaFin(bootcamp.getFechaFin() != null ? bootcamp.getFechaFin() : bootcamp.getFechaLanzamiento())
+                .build();
     }
 
+    // El rechazo de admit viaja como error hasta salir de la transacción: la escritura
+    // que lo detectó ya la anuló en el servidor y no debe intentarse confirmarla
+    private static final class AdmissionRejectedException extends RuntimeException {
+
+        AdmissionRejectedException() {
+            super(null, null, false, false);
+        }
+    }
 }
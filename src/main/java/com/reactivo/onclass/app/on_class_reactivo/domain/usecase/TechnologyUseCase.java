@@ -1,5 +1,10 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
 
+import java.util.function.Function;
+
+import org.springframework.dao.DuplicateKeyException;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BulkItemResult;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
 
@@ -15,13 +20,21 @@ public class TechnologyUseCase {
     }
 
     public Mono<Technology> createTechnology(Technology technology) {
-        return repository.existsByNombre(technology.getNombre())
-                .flatMap(exists -> {
-                    if (exists) {
-                        return Mono.error(new IllegalArgumentException("El nombre de la tecnología ya existe"));
-                    }
-                    return repository.save(technology);
-                });
+        // La unicidad del nombre la garantiza el índice único
+        return repository.save(technology)
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new IllegalArgumentException("El nombre de la tecnología ya existe"));
+    }
+
+    // validation devuelve el motivo de rechazo de una fila, o null si es válida
+    public Flux<BulkItemResult> importTechnologies(Flux<Technology> technologies,
+            Function<Technology, String> validation, int chunkSize) {
+        return technologies
+                .doOnNext(technology -> technology.setId(null))
+                .index()
+                .buffer(chunkSize)
+                .concatMap(chunk -> BulkImport.insertChunk(chunk, validation, repository::insertAll,
+                        Technology::getId, "El nombre de la tecnología ya existe"));
     }
 
     public Flux<Technology> getAllTechnologies() {
@@ -0,0 +1,59 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas comunes a los decoradores con caché. Se guardan y se devuelven
+// copias para que nadie modifique el objeto compartido (p. ej. al asignar
+// las relaciones @Transient).
+final class CacheLookups {
+
+    private CacheLookups() {
+    }
+
+    static <T> Mono<T> findById(Cache<String, T> cache, String id,
+            Function<String, Mono<T>> loader, UnaryOperator<T> copy) {
+
+        T cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Mono.just(copy.apply(cached));
+        }
+
+        return loader.apply(id)
+                .doOnNext(found -> cache.put(id, copy.apply(found)));
+    }
+
+    // Solo los ids que no están en caché van a la base de datos, en una única consulta
+    static <T> Flux<T> findAllById(Cache<String, T> cache, Iterable<String> ids,
+            Function<Iterable<String>, Flux<T>> loader, Function<T, String> idOf, UnaryOperator<T> copy) {
+
+        List<T> hits = new ArrayList<>();
+        Set<String> misses = new LinkedHashSet<>();
+
+        for (String id : ids) {
+            T cached = cache.getIfPresent(id);
+            if (cached != null) {
+                hits.add(copy.apply(cached));
+            } else {
+                misses.add(id);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return Flux.fromIterable(hits);
+        }
+
+        return Flux.concat(
+                Flux.fromIterable(hits),
+                loader.apply(misses).doOnNext(found -> cache.put(idOf.apply(found), copy.apply(found))));
+    }
+}
@@ -0,0 +1,107 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Caché de lectura por id delante del adaptador de Mongo; los listados
+// paginados y los conteos siempre van a la base de datos
+public class CachingCapabilityRepository implements CapabilityRepository, CatalogCache {
+
+    private final CapabilityRepository delegate;
+    private final Cache<String, Capability> cache;
+
+    public CachingCapabilityRepository(CapabilityRepository delegate, Cache<String, Capability> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean supports(String collection) {
+        return "capabilities".equals(collection);
+    }
+
+    @Override
+    public void evict(String collection, String id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void evictAll(String collection) {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void resync() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public Mono<Capability> save(Capability capability) {
+        return delegate.save(capability)
+                .doOnNext(saved -> cache.invalidate(saved.getId()));
+    }
+
+    @Override
+    public Flux<Capability> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Flux<Capability> findAllPaginated(String sortBy, String order, int page, int size) {
+        return delegate.findAllPaginated(sortBy, order, page, size);
+    }
+
+    @Override
+    public Flux<Capability> findAllAfter(String sortBy, String order, PageCursor cursor, int size) {
+        return delegate.findAllAfter(sortBy, order, cursor, size);
+    }
+
+    @Override
+    public Mono<Boolean> existsByNombre(String nombre) {
+        return delegate.existsByNombre(nombre);
+    }
+
+    @Override
+    public Mono<Capability> findById(String id) {
+        return CacheLookups.findById(cache, id, delegate::findById, CatalogCopies::copy);
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return delegate.deleteById(id)
+                .doOnSuccess(done -> cache.invalidate(id));
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Collection<String> ids) {
+        return delegate.deleteAllById(ids)
+                .doOnSuccess(done -> cache.invalidateAll(ids));
+    }
+
+    @Override
+    public Flux<Capability> findAllById(Iterable<String> ids) {
+        return CacheLookups.findAllById(cache, ids, delegate::findAllById, Capability::getId,
+                CatalogCopies::copy);
+    }
+
+    @Override
+    public Mono<Map<String, Integer>> countDistinctTechnologiesPerGroup(
+            Map<String, List<String>> capabilityIdsByGroup) {
+        return delegate.countDistinctTechnologiesPerGroup(capabilityIdsByGroup);
+    }
+
+    // Las filas nuevas no pueden estar en la caché
+    @Override
+    public Flux<Integer> insertAll(List<Capability> capabilities) {
+        return delegate.insertAll(capabilities);
+    }
+}
@@ -0,0 +1,88 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Caché de lectura por id delante del adaptador de Mongo
+public class CachingTechnologyRepository implements TechnologyRepository, CatalogCache {
+
+    private final TechnologyRepository delegate;
+    private final Cache<String, Technology> cache;
+
+    public CachingTechnologyRepository(TechnologyRepository delegate, Cache<String, Technology> cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean supports(String collection) {
+        return "technologies".equals(collection);
+    }
+
+    @Override
+    public void evict(String collection, String id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void evictAll(String collection) {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void resync() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public Mono<Technology> save(Technology technology) {
+        return delegate.save(technology)
+                .doOnNext(saved -> cache.invalidate(saved.getId()));
+    }
+
+    @Override
+    public Flux<Technology> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Mono<Boolean> existsByNombre(String nombre) {
+        return delegate.existsByNombre(nombre);
+    }
+
+    @Override
+    public Mono<Technology> findById(String id) {
+        return CacheLookups.findById(cache, id, delegate::findById, CatalogCopies::copy);
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return delegate.deleteById(id)
+                .doOnSuccess(done -> cache.invalidate(id));
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Collection<String> ids) {
+        return delegate.deleteAllById(ids)
+                .doOnSuccess(done -> cache.invalidateAll(ids));
+    }
+
+    @Override
+    public Flux<Technology> findAllById(Iterable<String> ids) {
+        return CacheLookups.findAllById(cache, ids, delegate::findAllById, Technology::getId,
+                CatalogCopies::copy);
+    }
+
+    // Las filas nuevas no pueden estar en la caché
+    @Override
+    public Flux<Integer> insertAll(List<Technology> technologies) {
+        return delegate.insertAll(technologies);
+    }
+}
@@ -0,0 +1,25 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+// Copia local de una o más colecciones del catálogo; el bus de invalidación
+// la avisa cuando otro nodo modifica un documento
+public interface CatalogCache {
+
+    boolean supports(String collection);
+
+    void evict(String collection, String id);
+
+    void evictAll(String collection);
+
+    // El bus arrancó: lo cambiado antes de este punto no se va a avisar
+    default void resync() {
+    }
+
+    // Las cachés que muestran contadores reciben su valor nuevo; para el resto
+    // esos cambios ni siquiera se leen del change stream
+    default boolean tracksCounters(String collection) {
+        return false;
+    }
+
+    default void updateCounter(String collection, String id, String field, int value) {
+    }
+}
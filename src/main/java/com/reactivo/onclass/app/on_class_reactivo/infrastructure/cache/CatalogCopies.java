@@ -0,0 +1,48 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import java.util.ArrayList;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+
+// Copias de los objetos compartidos en memoria. Las relaciones @Transient no se
+// copian: las asigna quien las necesite sobre su propia copia.
+final class CatalogCopies {
+
+    private CatalogCopies() {
+    }
+
+    static Technology copy(Technology technology) {
+        return Technology.builder()
+                .id(technology.getId())
+                .nombre(technology.getNombre())
+                .descripcion(technology.getDescripcion())
+                .build();
+    }
+
+    static Capability copy(Capability capability) {
+        return Capability.builder()
+                .id(capability.getId())
+                .nombre(capability.getNombre())
+                .descripcion(capability.getDescripcion())
+                .technologyIds(capability.getTechnologyIds() == null ? null : new ArrayList<>(capability.getTechnologyIds()))
+                .cantidadTecnologias(capability.getCantidadTecnologias())
+                .build();
+    }
+
+    static Bootcamp copy(Bootcamp bootcamp) {
+        return Bootcamp.builder()
+                .id(bootcamp.getId())
+                .nombre(bootcamp.getNombre())
+                .descripcion(bootcamp.getDescripcion())
+                .fechaLanzamiento(bootcamp.getFechaLanzamiento())
+                .duracion(bootcamp.getDuracion())
+                .duracionSemanas(bootcamp.getDuracionSemanas())
+                .fechaFin(bootcamp.getFechaFin())
+                .capabilityIds(bootcamp.getCapabilityIds() == null ? null : new ArrayList<>(bootcamp.getCapabilityIds()))
+                .cantidadCapacidades(bootcamp.getCantidadCapacidades())
+                .cantidadPersonasInscritas(bootcamp.getCantidadPersonasInscritas())
+                .build();
+    }
+}
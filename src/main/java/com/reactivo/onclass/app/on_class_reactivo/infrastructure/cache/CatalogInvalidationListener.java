@@ -0,0 +1,201 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import com.mongodb.client.model.changestream.UpdateDescription;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+// Bus de invalidación entre nodos: sigue el change stream de las colecciones que
+// alguna caché local guarda y expulsa de ellas los documentos modificados. Los
+// cambios que solo tocan contadores no invalidan nada. El resume token vive en
+// memoria para las reconexiones; al arrancar, el stream empieza en la hora del
+// servidor y las cachés se recargan, así que no hace falta persistirlo.
+@Slf4j
+@Component
+public class CatalogInvalidationListener {
+
+    private static final List<String> COLLECTIONS = List.of("technologies", "capabilities", "bootcamps");
+
+    // Campos que cambian con cada inscripción; no alteran el catálogo
+    static final List<String> COUNTER_FIELDS = List.of("cantidadPersonasInscritas");
+
+    // ChangeStreamHistoryLost y ChangeStreamFatalError: el token ya no está en el oplog
+    private static final List<Integer> HISTORY_LOST_CODES = List.of(286, 280);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ObjectProvider<CatalogCache> caches;
+    private final Map<String, BsonDocument> lastTokens = new ConcurrentHashMap<>();
+    private final Map<String, BsonTimestamp> startTimes = new ConcurrentHashMap<>();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public CatalogInvalidationListener(ReactiveMongoTemplate mongoTemplate, ObjectProvider<CatalogCache> caches) {
+        this.mongoTemplate = mongoTemplate;
+        this.caches = caches;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<String> watched = COLLECTIONS.stream()
+                .filter(collection -> caches.stream().anyMatch(cache -> cache.supports(collection)))
+                .toList();
+        if (watched.isEmpty()) {
+            return;
+        }
+        // Los streams abren en la hora tomada antes de recargar: nada de lo que cambie
+        // mientras las cachés se cargan queda sin avisar
+        subscriptions.add(operationTime()
+                .doOnNext(time -> watched.forEach(collection -> startTimes.put(collection, time)))
+                .onErrorResume(e -> {
+                    log.warn("No fue posible leer la hora del servidor, los streams inician sin ella", e);
+                    return Mono.empty();
+                })
+                .doFinally(signal -> {
+                    watched.forEach(collection -> subscriptions.add(watch(collection).subscribe()));
+                    caches.forEach(CatalogCache::resync);
+                })
+                .subscribe());
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        subscriptions.dispose();
+    }
+
+    private Flux<ChangeStreamEvent<Document>> watch(String collection) {
+        return Flux.defer(() -> changes(collection))
+                .doOnNext(event -> {
+                    dispatch(collection, event);
+                    BsonValue token = event.getResumeToken();
+                    if (token != null && token.isDocument()) {
+                        lastTokens.put(collection, token.asDocument());
+                    }
+                })
+                .onErrorResume(this::isHistoryLost, e -> {
+                    // Sin historial no se sabe qué cambió: se descarta todo y se empieza de cero
+                    log.warn("Resume token de {} expirado, se vacían las cachés", collection);
+                    lastTokens.remove(collection);
+                    startTimes.remove(collection);
+                    caches.stream()
+                            .filter(cache -> cache.supports(collection))
+                            .forEach(cache -> cache.evictAll(collection));
+                    return Mono.error(e);
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofMinutes(1))
+                        .doBeforeRetry(signal -> log.warn("Change stream de {} interrumpido, reintentando",
+                                collection, signal.failure())));
+    }
+
+    private Flux<ChangeStreamEvent<Document>> changes(String collection) {
+        Document match = new Document("operationType",
+                new Document("$in", List.of("insert", "update", "replace", "delete")));
+        if (!tracksCounters(collection)) {
+            // Las actualizaciones de solo contadores ni siquiera salen del servidor
+            match.append("$expr", new Document("$or", List.of(
+                    new Document("$ne", List.of("$operationType", "update")),
+                    new Document("$gt", List.of(new Document("$size",
+                            new Document("$ifNull", List.of("$updateDescription.removedFields", List.of()))), 0)),
+                    new Document("$gt", List.of(new Document("$size", new Document("$setDifference", List.of(
+                            new Document("$map", new Document("input",
+                                    new Document("$objectToArray", "$updateDescription.updatedFields"))
+                                    .append("in", "$$this.k")),
+                            COUNTER_FIELDS))), 0)))));
+        }
+        ChangeStreamOptions.ChangeStreamOptionsBuilder options = ChangeStreamOptions.builder()
+                .filter(new Document("$match", match));
+
+        BsonDocument resumeToken = lastTokens.get(collection);
+        BsonTimestamp startTime = startTimes.get(collection);
+        if (resumeToken != null) {
+            options.resumeAfter(resumeToken);
+        } else if (startTime != null) {
+            options.resumeAt(startTime);
+        }
+
+        return mongoTemplate.changeStream(collection, options.build(), Document.class);
+    }
+
+    private void dispatch(String collection, ChangeStreamEvent<Document> event) {
+        ChangeStreamDocument<Document> raw = event.getRaw();
+        if (raw == null || raw.getDocumentKey() == null) {
+            return;
+        }
+        String id = toId(raw.getDocumentKey().get("_id"));
+        BsonDocument counters = counterOnlyUpdate(raw);
+        if (counters == null) {
+            caches.stream()
+                    .filter(cache -> cache.supports(collection))
+                    .forEach(cache -> cache.evict(collection, id));
+            return;
+        }
+        counters.forEach((field, value) -> {
+            if (value.isNumber()) {
+                caches.stream()
+                        .filter(cache -> cache.supports(collection) && cache.tracksCounters(collection))
+                        .forEach(cache -> cache.updateCounter(collection, id, field, value.asNumber().intValue()));
+            }
+        });
+    }
+
+    // Campos actualizados si el cambio solo tocó contadores; null en cualquier otro caso
+    private static BsonDocument counterOnlyUpdate(ChangeStreamDocument<Document> raw) {
+        UpdateDescription update = raw.getUpdateDescription();
+        if (raw.getOperationType() != OperationType.UPDATE || update == null || update.getUpdatedFields() == null
+                || update.getUpdatedFields().isEmpty()
+                || (update.getRemovedFields() != null && !update.getRemovedFields().isEmpty())) {
+            return null;
+        }
+        return COUNTER_FIELDS.containsAll(update.getUpdatedFields().keySet()) ? update.getUpdatedFields() : null;
+    }
+
+    private boolean tracksCounters(String collection) {
+        return caches.stream().anyMatch(cache -> cache.supports(collection) && cache.tracksCounters(collection));
+    }
+
+    private static String toId(BsonValue id) {
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    // operationTime de la respuesta: la hora del servidor en el formato del oplog
+    private Mono<BsonTimestamp> operationTime() {
+        return mongoTemplate.executeCommand(new Document("ping", 1))
+                .mapNotNull(reply -> reply.get("operationTime", BsonTimestamp.class));
+    }
+
+    private boolean isHistoryLost(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoError && HISTORY_LOST_CODES.contains(mongoError.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
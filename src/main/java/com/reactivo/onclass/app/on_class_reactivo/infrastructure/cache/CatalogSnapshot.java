@@ -0,0 +1,282 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+
+// Foto inmutable del catálogo: índices por id y listas ya ordenadas para paginar.
+// Cada cambio produce una foto nueva; las lecturas nunca ven una a medio armar.
+final class CatalogSnapshot {
+
+    // Mismo criterio que la collation "es" de fuerza secundaria usada en Mongo
+    private static final Collator NOMBRE_COLLATOR = Collator.getInstance(Locale.forLanguageTag("es"));
+
+    static {
+        NOMBRE_COLLATOR.setStrength(Collator.SECONDARY);
+    }
+
+    private static final Comparator<Capability> CAPABILITY_BY_NOMBRE = Comparator
+            .comparing(Capability::getNombre, Comparator.nullsFirst(NOMBRE_COLLATOR))
+            .thenComparing(Capability::getId);
+
+    private static final Comparator<Capability> CAPABILITY_BY_CANTIDAD = Comparator
+            .comparing(Capability::getCantidadTecnologias, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Capability::getId);
+
+    private static final Comparator<Bootcamp> BOOTCAMP_BY_NOMBRE = Comparator
+            .comparing(Bootcamp::getNombre, Comparator.nullsFirst(NOMBRE_COLLATOR))
+            .thenComparing(Bootcamp::getId);
+
+    private static final Comparator<Bootcamp> BOOTCAMP_BY_CANTIDAD = Comparator
+            .comparing(Bootcamp::getCantidadCapacidades, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Bootcamp::getId);
+
+    private final Map<String, Technology> technologies;
+    private final Map<String, Capability> capabilities;
+    private final Map<String, Bootcamp> bootcamps;
+
+    private final List<Capability> capabilitiesByNombre;
+    private final List<Capability> capabilitiesByCantidad;
+    private final List<Bootcamp> bootcampsByNombre;
+    private final List<Bootcamp> bootcampsByCantidad;
+
+    private CatalogSnapshot(Map<String, Technology> technologies, Map<String, Capability> capabilities,
+            Map<String, Bootcamp> bootcamps, List<Capability> capabilitiesByNombre,
+            List<Capability> capabilitiesByCantidad, List<Bootcamp> bootcampsByNombre,
+            List<Bootcamp> bootcampsByCantidad) {
+        this.technologies = technologies;
+        this.capabilities = capabilities;
+        this.bootcamps = bootcamps;
+        this.capabilitiesByNombre = capabilitiesByNombre;
+        this.capabilitiesByCantidad = capabilitiesByCantidad;
+        this.bootcampsByNombre = bootcampsByNombre;
+        this.bootcampsByCantidad = bootcampsByCantidad;
+    }
+
+    static CatalogSnapshot of(List<Technology> technologies, List<Capability> capabilities,
+            List<Bootcamp> bootcamps) {
+        return new CatalogSnapshot(
+                index(technologies, Technology::getId),
+                index(capabilities, Capability::getId),
+                index(bootcamps, Bootcamp::getId),
+                sorted(capabilities, CAPABILITY_BY_NOMBRE),
+                sorted(capabilities, CAPABILITY_BY_CANTIDAD),
+                sorted(bootcamps, BOOTCAMP_BY_NOMBRE),
+                sorted(bootcamps, BOOTCAMP_BY_CANTIDAD));
+    }
+
+    // Las variantes with* reciben null para eliminar el documento. Solo cambian
+    // las estructuras de esa colección y el documento se reubica por búsqueda
+    // binaria en las listas ordenadas, sin volver a ordenarlas
+
+    CatalogSnapshot withTechnology(String id, Technology technology) {
+        if (Objects.equals(technologies.get(id), technology)) {
+            return this;
+        }
+        return new CatalogSnapshot(replace(technologies, id, technology), capabilities, bootcamps,
+                capabilitiesByNombre, capabilitiesByCantidad, bootcampsByNombre, bootcampsByCantidad);
+    }
+
+    CatalogSnapshot withCapability(String id, Capability capability) {
+        Capability previous = capabilities.get(id);
+        if (Objects.equals(previous, capability)) {
+            return this;
+        }
+        return new CatalogSnapshot(technologies, replace(capabilities, id, capability), bootcamps,
+                reposition(capabilitiesByNombre, previous, capability, CAPABILITY_BY_NOMBRE),
+                reposition(capabilitiesByCantidad, previous, capability, CAPABILITY_BY_CANTIDAD),
+                bootcampsByNombre, bootcampsByCantidad);
+    }
+
+    CatalogSnapshot withBootcamp(String id, Bootcamp bootcamp) {
+        Bootcamp previous = bootcamps.get(id);
+        if (Objects.equals(previous, bootcamp)) {
+            return this;
+        }
+        return new CatalogSnapshot(technologies, capabilities, replace(bootcamps, id, bootcamp),
+                capabilitiesByNombre, capabilitiesByCantidad,
+                reposition(bootcampsByNombre, previous, bootcamp, BOOTCAMP_BY_NOMBRE),
+                reposition(bootcampsByCantidad, previous, bootcamp, BOOTCAMP_BY_CANTIDAD));
+    }
+
+    Collection<Technology> technologies() {
+        return technologies.values();
+    }
+
+    Collection<Capability> capabilities() {
+        return capabilities.values();
+    }
+
+    Collection<Bootcamp> bootcamps() {
+        return bootcamps.values();
+    }
+
+    Technology technology(String id) {
+        return technologies.get(id);
+    }
+
+    Capability capability(String id) {
+        return capabilities.get(id);
+    }
+
+    Bootcamp bootcamp(String id) {
+        return bootcamps.get(id);
+    }
+
+    <T> List<String> missing(Iterable<String> ids, Function<String, T> lookup) {
+        List<String> missing = new ArrayList<>();
+        for (String id : ids) {
+            if (lookup.apply(id) == null) {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    <T> List<T> resolve(Iterable<String> ids, Function<String, T> lookup) {
+        List<T> found = new ArrayList<>();
+        for (String id : ids) {
+            T item = lookup.apply(id);
+            if (item != null) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+
+    List<Capability> capabilityPage(String sortBy, String order, int page, int size) {
+        return page(byCantidad(sortBy) ? capabilitiesByCantidad : capabilitiesByNombre, order, page, size);
+    }
+
+    List<Bootcamp> bootcampPage(String sortBy, String order, int page, int size) {
+        return page(byCantidad(sortBy) ? bootcampsByCantidad : bootcampsByNombre, order, page, size);
+    }
+
+    List<Capability> capabilitiesAfter(String sortBy, String order, PageCursor cursor, int size) {
+        boolean byCantidad = byCantidad(sortBy);
+        if (cursor == null) {
+            return page(byCantidad ? capabilitiesByCantidad : capabilitiesByNombre, order, 0, size);
+        }
+        Capability probe = Capability.builder()
+                .id(cursor.getLastId())
+                .nombre(byCantidad ? null : cursor.getLastValue())
+                .cantidadTecnologias(byCantidad ? Integer.valueOf(cursor.getLastValue()) : null)
+                .build();
+        return byCantidad
+                ? after(capabilitiesByCantidad, probe, CAPABILITY_BY_CANTIDAD, PageCursor.isDescending(order), size)
+                : after(capabilitiesByNombre, probe, CAPABILITY_BY_NOMBRE, PageCursor.isDescending(order), size);
+    }
+
+    List<Bootcamp> bootcampsAfter(String sortBy, String order, PageCursor cursor, int size) {
+        boolean byCantidad = byCantidad(sortBy);
+        if (cursor == null) {
+            return page(byCantidad ? bootcampsByCantidad : bootcampsByNombre, order, 0, size);
+        }
+        Bootcamp probe = Bootcamp.builder()
+                .id(cursor.getLastId())
+                .nombre(byCantidad ? null : cursor.getLastValue())
+                .cantidadCapacidades(byCantidad ? Integer.valueOf(cursor.getLastValue()) : null)
+                .build();
+        return byCantidad
+                ? after(bootcampsByCantidad, probe, BOOTCAMP_BY_CANTIDAD, PageCursor.isDescending(order), size)
+                : after(bootcampsByNombre, probe, BOOTCAMP_BY_NOMBRE, PageCursor.isDescending(order), size);
+    }
+
+    private static boolean byCantidad(String sortBy) {
+        return PageCursor.SORT_CANTIDAD.equals(PageCursor.normalizeSortBy(sortBy));
+    }
+
+    // Orden descendente = lista ascendente recorrida desde el final, igual que en Mongo
+    private static <T> List<T> page(List<T> ascending, String order, int page, int size) {
+        int total = ascending.size();
+        long from = (long) page * size;
+        if (from >= total || size <= 0) {
+            return List.of();
+        }
+        int to = (int) Math.min(total, from + size);
+
+        if (!PageCursor.isDescending(order)) {
+            return ascending.subList((int) from, to);
+        }
+
+        List<T> result = new ArrayList<>(to - (int) from);
+        for (int i = (int) from; i < to; i++) {
+            result.add(ascending.get(total - 1 - i));
+        }
+        return result;
+    }
+
+    // El cursor se ubica por búsqueda binaria aunque su fila ya no exista
+    private static <T> List<T> after(List<T> ascending, T probe, Comparator<T> comparator, boolean descending,
+            int size) {
+        int index = Collections.binarySearch(ascending, probe, comparator);
+        int position = index >= 0 ? index : -index - 1;
+
+        if (!descending) {
+            int from = index >= 0 ? position + 1 : position;
+            return ascending.subList(Math.min(from, ascending.size()), Math.min(ascending.size(), from + size));
+        }
+
+        List<T> result = new ArrayList<>();
+        for (int i = position - 1; i >= 0 && result.size() < size; i--) {
+            result.add(ascending.get(i));
+        }
+        return result;
+    }
+
+    private static <T> Map<String, T> index(List<T> items, Function<T, String> idOf) {
+        Map<String, T> byId = new LinkedHashMap<>();
+        items.forEach(item -> byId.put(idOf.apply(item), item));
+        return Collections.unmodifiableMap(byId);
+    }
+
+    private static <T> Map<String, T> replace(Map<String, T> current, String id, T item) {
+        Map<String, T> copy = new LinkedHashMap<>(current);
+        if (item == null) {
+            copy.remove(id);
+        } else {
+            copy.put(id, item);
+        }
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static <T> List<T> sorted(List<T> items, Comparator<T> comparator) {
+        List<T> list = new ArrayList<>(items);
+        list.sort(comparator);
+        return Collections.unmodifiableList(list);
+    }
+
+    // Copia la lista y mueve un solo elemento: O(log n) comparaciones más la copia
+    private static <T> List<T> reposition(List<T> ascending, T previous, T item, Comparator<T> comparator) {
+        List<T> list = new ArrayList<>(ascending.size() + 1);
+        list.addAll(ascending);
+        if (previous != null) {
+            int index = Collections.binarySearch(list, previous, comparator);
+            if (index >= 0) {
+                list.remove(index);
+            }
+        }
+        if (item != null) {
+            int index = Collections.binarySearch(list, item, comparator);
+            if (index >= 0) {
+                list.set(index, item);
+            } else {
+                list.add(-index - 1, item);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+}
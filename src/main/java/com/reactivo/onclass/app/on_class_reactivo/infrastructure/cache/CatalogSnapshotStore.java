@@ -0,0 +1,242 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+// Mantiene la foto vigente del catálogo. Se carga completa al arrancar y luego
+// se actualiza documento a documento con lo que informa el bus de invalidación.
+// Mientras no haya foto (arranque o fallo de carga) las lecturas van a Mongo.
+// Los cambios que llegan durante una carga completa se anotan y se releen al
+// terminarla, porque la carga pudo leer el documento antes del cambio.
+@Slf4j
+public class CatalogSnapshotStore implements CatalogCache {
+
+    static final String TECHNOLOGIES = "technologies";
+    static final String CAPABILITIES = "capabilities";
+    static final String BOOTCAMPS = "bootcamps";
+
+    private final TechnologyRepository technologyRepository;
+    private final CapabilityRepository capabilityRepository;
+    private final BootcampRepository bootcampRepository;
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+    private final AtomicInteger loading = new AtomicInteger();
+    private final Set<Tuple2<String, String>> changedWhileLoading = ConcurrentHashMap.newKeySet();
+    // Una relectura a la vez por documento; true si llegó otro aviso mientras corría
+    private final Map<Tuple2<String, String>, Boolean> refreshing = new ConcurrentHashMap<>();
+
+    public CatalogSnapshotStore(TechnologyRepository technologyRepository,
+            CapabilityRepository capabilityRepository, BootcampRepository bootcampRepository) {
+        this.technologyRepository = technologyRepository;
+        this.capabilityRepository = capabilityRepository;
+        this.bootcampRepository = bootcampRepository;
+    }
+
+    public Mono<Void> reload() {
+        return Mono.defer(() -> {
+            loading.incrementAndGet();
+            return load().doFinally(signal -> {
+                loading.decrementAndGet();
+                replayChangedWhileLoading();
+            });
+        });
+    }
+
+    private Mono<Void> load() {
+        return Mono.zip(
+                technologyRepository.findAll().map(CatalogCopies::copy).collectList(),
+                capabilityRepository.findAll().map(CatalogCopies::copy).collectList(),
+                bootcampRepository.findAll().map(CatalogCopies::copy).collectList())
+                .doOnNext(all -> {
+                    current.set(CatalogSnapshot.of(all.getT1(), all.getT2(), all.getT3()));
+                    log.info("Foto del catálogo cargada: {} tecnologías, {} capacidades, {} bootcamps",
+                            all.getT1().size(), all.getT2().size(), all.getT3().size());
+                })
+                .then();
+    }
+
+    // null mientras la foto no esté cargada
+    CatalogSnapshot current() {
+        return current.get();
+    }
+
+    @Override
+    public boolean supports(String collection) {
+        return TECHNOLOGIES.equals(collection) || CAPABILITIES.equals(collection) || BOOTCAMPS.equals(collection);
+    }
+
+    @Override
+    public void evict(String collection, String id) {
+        Tuple2<String, String> key = Tuples.of(collection, id);
+        trackIfLoading(key);
+        scheduleRefresh(key);
+    }
+
+    // La primera carga la pide el bus de invalidación cuando ya está escuchando
+    @Override
+    public void resync() {
+        reload().subscribe(
+                null,
+                e -> log.error("No fue posible cargar la foto del catálogo, se leerá desde Mongo", e));
+    }
+
+    @Override
+    public void evictAll(String collection) {
+        reload().subscribe(
+                null,
+                e -> log.error("No fue posible recargar la foto del catálogo", e));
+    }
+
+    @Override
+    public boolean tracksCounters(String collection) {
+        return BOOTCAMPS.equals(collection);
+    }
+
+    // El contador de inscritos no ordena ningún listado: se corrige en la entrada
+    // vigente, sin releer el documento ni publicar otra foto
+    @Override
+    public void updateCounter(String collection, String id, String field, int value) {
+        Tuple2<String, String> key = Tuples.of(collection, id);
+        trackIfLoading(key);
+        // Una relectura en curso pudo leer el valor anterior: se repite al terminar
+        refreshing.computeIfPresent(key, (k, rerun) -> Boolean.TRUE);
+        CatalogSnapshot snapshot = current.get();
+        Bootcamp bootcamp = snapshot == null ? null : snapshot.bootcamp(id);
+        if (bootcamp != null && BOOTCAMPS.equals(collection) && "cantidadPersonasInscritas".equals(field)) {
+            bootcamp.setCantidadPersonasInscritas(value);
+        }
+    }
+
+    // Relee un documento y publica una foto nueva con él (o sin él si ya no existe)
+    Mono<Void> refresh(String collection, String id) {
+        return switch (collection) {
+            case TECHNOLOGIES -> technologyRepository.findById(id)
+                    .map(found -> Optional.of(CatalogCopies.copy(found)))
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnNext(found -> swap(snapshot -> snapshot.withTechnology(id, found.orElse(null))))
+                    .then();
+            case CAPABILITIES -> capabilityRepository.findById(id)
+                    .map(found -> Optional.of(CatalogCopies.copy(found)))
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnNext(found -> swap(snapshot -> snapshot.withCapability(id, found.orElse(null))))
+                    .then();
+            case BOOTCAMPS -> bootcampRepository.findById(id)
+                    .map(found -> Optional.of(CatalogCopies.copy(found)))
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnNext(found -> swap(snapshot -> snapshot.withBootcamp(id, found.orElse(null))))
+                    .then();
+            default -> Mono.empty();
+        };
+    }
+
+    private void scheduleRefresh(Tuple2<String, String> key) {
+        boolean running = refreshing.compute(key, (k, rerun) -> rerun != null);
+        if (!running) {
+            runRefresh(key);
+        }
+    }
+
+    private void runRefresh(Tuple2<String, String> key) {
+        refresh(key.getT1(), key.getT2())
+                .onErrorResume(e -> {
+                    log.warn("No fue posible refrescar {} {} en la foto del catálogo", key.getT1(), key.getT2(), e);
+                    return Mono.empty();
+                })
+                .doFinally(signal -> {
+                    // Los avisos recibidos mientras corría se resuelven con una sola relectura más
+                    if (refreshing.compute(key, (k, rerun) -> rerun ? Boolean.FALSE : null) != null) {
+                        runRefresh(key);
+                    }
+                })
+                .subscribe();
+    }
+
+    private void trackIfLoading(Tuple2<String, String> key) {
+        if (loading.get() > 0) {
+            changedWhileLoading.add(key);
+            // La carga pudo terminar justo antes de anotarlo
+            if (loading.get() == 0) {
+                replayChangedWhileLoading();
+            }
+        }
+    }
+
+    private void replayChangedWhileLoading() {
+        for (Tuple2<String, String> key : changedWhileLoading) {
+            if (changedWhileLoading.remove(key)) {
+                scheduleRefresh(key);
+            }
+        }
+    }
+
+    // Escrituras hechas por este mismo nodo: se aplican sin volver a leer.
+    // Dentro de una transacción el cambio espera a que se confirme; si se
+    // revierte la foto no cambia. Sin transacción se aplica de inmediato
+    Mono<Void> afterCommit(Runnable change) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .doOnNext(manager -> manager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCommit() {
+                        return Mono.fromRunnable(change);
+                    }
+                }))
+                .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+                .switchIfEmpty(Mono.fromRunnable(change))
+                .then();
+    }
+
+    void put(Technology technology) {
+        Technology copy = CatalogCopies.copy(technology);
+        apply(TECHNOLOGIES, copy.getId(), snapshot -> snapshot.withTechnology(copy.getId(), copy));
+    }
+
+    void put(Capability capability) {
+        Capability copy = CatalogCopies.copy(capability);
+        apply(CAPABILITIES, copy.getId(), snapshot -> snapshot.withCapability(copy.getId(), copy));
+    }
+
+    void put(Bootcamp bootcamp) {
+        Bootcamp copy = CatalogCopies.copy(bootcamp);
+        apply(BOOTCAMPS, copy.getId(), snapshot -> snapshot.withBootcamp(copy.getId(), copy));
+    }
+
+    void remove(String collection, String id) {
+        switch (collection) {
+            case TECHNOLOGIES -> apply(collection, id, snapshot -> snapshot.withTechnology(id, null));
+            case CAPABILITIES -> apply(collection, id, snapshot -> snapshot.withCapability(id, null));
+            case BOOTCAMPS -> apply(collection, id, snapshot -> snapshot.withBootcamp(id, null));
+            default -> {
+            }
+        }
+    }
+
+    private void apply(String collection, String id, UnaryOperator<CatalogSnapshot> change) {
+        trackIfLoading(Tuples.of(collection, id));
+        swap(change);
+    }
+
+    private void swap(UnaryOperator<CatalogSnapshot> change) {
+        current.updateAndGet(snapshot -> snapshot == null ? null : change.apply(snapshot));
+    }
+}
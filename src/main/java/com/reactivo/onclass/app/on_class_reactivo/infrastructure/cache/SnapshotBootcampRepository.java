@@ -0,0 +1,124 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampCascade;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas y listados del catálogo servidos desde la foto; las consultas por
+// fechas, los rankings de inscritos y las escrituras pasan al repositorio envuelto.
+// El valor nuevo del contador de inscritos llega a la foto por el bus de invalidación.
+public class SnapshotBootcampRepository implements BootcampRepository {
+
+    private final BootcampRepository delegate;
+    private final CatalogSnapshotStore store;
+
+    public SnapshotBootcampRepository(BootcampRepository delegate, CatalogSnapshotStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public Mono<Bootcamp> save(Bootcamp bootcamp) {
+        return delegate.save(bootcamp)
+                .flatMap(saved -> store.afterCommit(() -> store.put(saved)).thenReturn(saved));
+    }
+
+    @Override
+    public Flux<Bootcamp> findAll() {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findAll();
+        }
+        return Flux.fromIterable(snapshot.bootcamps()).map(CatalogCopies::copy);
+    }
+
+    @Override
+    public Flux<Bootcamp> findAllPaginated(String sortBy, String order, int page, int size) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findAllPaginated(sortBy, order, page, size);
+        }
+        return Flux.fromIterable(snapshot.bootcampPage(sortBy, order, page, size)).map(CatalogCopies::copy);
+    }
+
+    @Override
+    public Flux<Bootcamp> findAllAfter(String sortBy, String order, PageCursor cursor, int size) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findAllAfter(sortBy, order, cursor, size);
+        }
+        return Flux.fromIterable(snapshot.bootcampsAfter(sortBy, order, cursor, size)).map(CatalogCopies::copy);
+    }
+
+    @Override
+    public Flux<Bootcamp> findRunningBetween(LocalDate from, LocalDate to) {
+        return delegate.findRunningBetween(from, to);
+    }
+
+    @Override
+    public Flux<Bootcamp> findEndingFrom(LocalDate date) {
+        return delegate.findEndingFrom(date);
+    }
+
+    @Override
+    public Mono<Boolean> existsByNombre(String nombre) {
+        return delegate.existsByNombre(nombre);
+    }
+
+    @Override
+    public Mono<Bootcamp> findById(String id) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findById(id);
+        }
+        // Lo que falta en la foto puede ser de otro nodo y aún no haber llegado por el bus
+        return Mono.justOrEmpty(snapshot.bootcamp(id))
+                .map(CatalogCopies::copy)
+                .switchIfEmpty(Mono.defer(() -> delegate.findById(id)));
+    }
+
+    @Override
+    public Flux<Bootcamp> findAllById(Iterable<String> ids) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findAllById(ids);
+        }
+        List<String> missing = snapshot.missing(ids, snapshot::bootcamp);
+        Flux<Bootcamp> found = Flux.fromIterable(snapshot.resolve(ids, snapshot::bootcamp)).map(CatalogCopies::copy);
+        return missing.isEmpty() ? found : found.concatWith(delegate.findAllById(missing));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return delegate.deleteById(id)
+                .then(store.afterCommit(() -> store.remove(CatalogSnapshotStore.BOOTCAMPS, id)));
+    }
+
+    @Override
+    public Mono<BootcampCascade> findDeleteCascade(String bootcampId) {
+        return delegate.findDeleteCascade(bootcampId);
+    }
+
+    @Override
+    public Mono<Void> incrementCantidadPersonasInscritas(String bootcampId, int delta) {
+        return delegate.incrementCantidadPersonasInscritas(bootcampId, delta);
+    }
+
+    @Override
+    public Flux<Bootcamp> findTopByCantidadPersonasInscritas(int limit) {
+        return delegate.findTopByCantidadPersonasInscritas(limit);
+    }
+
+    @Override
+    public Mono<Long> reconcileCantidadPersonasInscritas(List<BootcampEnrollmentCount> counts) {
+        return delegate.reconcileCantidadPersonasInscritas(counts);
+    }
+}
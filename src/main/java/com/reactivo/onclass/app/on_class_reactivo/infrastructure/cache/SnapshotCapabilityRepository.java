@@ -0,0 +1,137 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas y listados servidos desde la foto del catálogo; los conteos y las
+// escrituras pasan al repositorio envuelto
+public class SnapshotCapabilityRepository implements CapabilityRepository {
+
+    private final CapabilityRepository delegate;
+    private final CatalogSnapshotStore store;
+
+    public SnapshotCapabilityRepository(CapabilityRepository delegate, CatalogSnapshotStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public Mono<Capability> save(Capability capability) {
+        return delegate.save(capability)
+                .flatMap(saved -> store.afterCommit(() -> store.put(saved)).thenReturn(saved));
+    }
+
+    @Override
+    public Flux<Capability> findAll() {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findAll();
+        }
+        return Flux.fromIterable(snapshot.capabilities()).map(CatalogCopies::copy);
+    }
+
+    @Override
+    public Flux<Capability> findAllPaginated(String sortBy, String order, int page, int size) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findAllPaginated(sortBy, order, page, size);
+        }
+        return Flux.fromIterable(snapshot.capabilityPage(sortBy, order, page, size)).map(CatalogCopies::copy);
+    }
+
+    @Override
+    public Flux<Capability> findAllAfter(String sortBy, String order, PageCursor cursor, int size) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findAllAfter(sortBy, order, cursor, size);
+        }
+        return Flux.fromIterable(snapshot.capabilitiesAfter(sortBy, order, cursor, size)).map(CatalogCopies::copy);
+    }
+
+    @Override
+    public Mono<Boolean> existsByNombre(String nombre) {
+        return delegate.existsByNombre(nombre);
+    }
+
+    @Override
+    public Mono<Capability> findById(String id) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findById(id);
+        }
+        // Lo que falta en la foto puede ser de otro nodo y aún no haber llegado por el bus
+        return Mono.justOrEmpty(snapshot.capability(id))
+                .map(CatalogCopies::copy)
+                .switchIfEmpty(Mono.defer(() -> delegate.findById(id)));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return delegate.deleteById(id)
+                .then(store.afterCommit(() -> store.remove(CatalogSnapshotStore.CAPABILITIES, id)));
+    }
+
+    // Suele ejecutarse dentro de una transacción: la foto se actualiza con el
+    // change stream cuando se confirma, no antes
+    @Override
+    public Mono<Void> deleteAllById(Collection<String> ids) {
+        return delegate.deleteAllById(ids);
+    }
+
+    @Override
+    public Flux<Capability> findAllById(Iterable<String> ids) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findAllById(ids);
+        }
+        List<String> missing = snapshot.missing(ids, snapshot::capability);
+        Flux<Capability> found = Flux.fromIterable(snapshot.resolve(ids, snapshot::capability)).map(CatalogCopies::copy);
+        return missing.isEmpty() ? found : found.concatWith(delegate.findAllById(missing));
+    }
+
+    // Las capacidades ya están en la foto: el conteo no necesita ir a Mongo
+    @Override
+    public Mono<Map<String, Integer>> countDistinctTechnologiesPerGroup(
+            Map<String, List<String>> capabilityIdsByGroup) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.countDistinctTechnologiesPerGroup(capabilityIdsByGroup);
+        }
+        Map<String, Integer> counts = new HashMap<>();
+        capabilityIdsByGroup.forEach((group, capabilityIds) -> {
+            Set<String> technologyIds = new HashSet<>();
+            snapshot.resolve(capabilityIds, snapshot::capability).stream()
+                    .filter(capability -> capability.getTechnologyIds() != null)
+                    .forEach(capability -> technologyIds.addAll(capability.getTechnologyIds()));
+            counts.put(group, technologyIds.size());
+        });
+        return Mono.just(counts);
+    }
+
+    @Override
+    public Flux<Integer> insertAll(List<Capability> capabilities) {
+        return Flux.defer(() -> {
+            Set<Integer> duplicates = new HashSet<>();
+            return delegate.insertAll(capabilities)
+                    .doOnNext(duplicates::add)
+                    .concatWith(store.afterCommit(() -> {
+                        for (int i = 0; i < capabilities.size(); i++) {
+                            if (!duplicates.contains(i)) {
+                                store.put(capabilities.get(i));
+                            }
+                        }
+                    }).then(Mono.empty()));
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecturas servidas desde la foto del catálogo; el resto pasa al repositorio envuelto
+public class SnapshotTechnologyRepository implements TechnologyRepository {
+
+    private final TechnologyRepository delegate;
+    private final CatalogSnapshotStore store;
+
+    public SnapshotTechnologyRepository(TechnologyRepository delegate, CatalogSnapshotStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public Mono<Technology> save(Technology technology) {
+        return delegate.save(technology)
+                .flatMap(saved -> store.afterCommit(() -> store.put(saved)).thenReturn(saved));
+    }
+
+    @Override
+    public Flux<Technology> findAll() {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findAll();
+        }
+        return Flux.fromIterable(snapshot.technologies()).map(CatalogCopies::copy);
+    }
+
+    @Override
+    public Mono<Boolean> existsByNombre(String nombre) {
+        return delegate.existsByNombre(nombre);
+    }
+
+    @Override
+    public Mono<Technology> findById(String id) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findById(id);
+        }
+        // Lo que falta en la foto puede ser de otro nodo y aún no haber llegado por el bus
+        return Mono.justOrEmpty(snapshot.technology(id))
+                .map(CatalogCopies::copy)
+                .switchIfEmpty(Mono.defer(() -> delegate.findById(id)));
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+        return delegate.deleteById(id)
+                .then(store.afterCommit(() -> store.remove(CatalogSnapshotStore.TECHNOLOGIES, id)));
+    }
+
+    // Suele ejecutarse dentro de una transacción: la foto se actualiza con el
+    // change stream cuando se confirma, no antes
+    @Override
+    public Mono<Void> deleteAllById(Collection<String> ids) {
+        return delegate.deleteAllById(ids);
+    }
+
+    @Override
+    public Flux<Technology> findAllById(Iterable<String> ids) {
+        CatalogSnapshot snapshot = store.current();
+        if (snapshot == null) {
+            return delegate.findAllById(ids);
+        }
+        List<String> missing = snapshot.missing(ids, snapshot::technology);
+        Flux<Technology> found = Flux.fromIterable(snapshot.resolve(ids, snapshot::technology)).map(CatalogCopies::copy);
+        return missing.isEmpty() ? found : found.concatWith(delegate.findAllById(missing));
+    }
+
+    @Override
+    public Flux<Integer> insertAll(List<Technology> technologies) {
+        return Flux.defer(() -> {
+            Set<Integer> duplicates = new HashSet<>();
+            return delegate.insertAll(technologies)
+                    .doOnNext(duplicates::add)
+                    .concatWith(store.afterCommit(() -> {
+                        for (int i = 0; i < technologies.size(); i++) {
+                            if (!duplicates.contains(i)) {
+                                store.put(technologies.get(i));
+                            }
+                        }
+                    }).then(Mono.empty()));
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.metrics;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AbstractAdvisingBeanPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.ClassUtils;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.TechnologyUseCase;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Envuelve los beans que implementan un puerto de repositorio (adaptadores de Mongo
+// y decoradores de caché por igual) y los casos de uso con MeteredMethodInterceptor.
+// Con el tag implementation se distingue cuánto tiempo se va en Mongo y cuánto en la caché.
+public class DomainMetricsPostProcessor extends AbstractAdvisingBeanPostProcessor {
+
+    private static final String PORTS_PACKAGE = TechnologyRepository.class.getPackageName();
+    private static final String USE_CASES_PACKAGE = TechnologyUseCase.class.getPackageName();
+
+    public DomainMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.advisor = new DefaultPointcutAdvisor(new DomainPointcut(), new MeteredMethodInterceptor(meterRegistry));
+        // Los adaptadores se inyectan por su clase concreta en UseCaseConfig
+        setProxyTargetClass(true);
+        setBeforeExistingAdvisors(true);
+    }
+
+    // Los @Primary de UseCaseConfig devuelven beans que ya pasaron por aquí (el decorador
+    // de caché o el adaptador); sin esta guarda cada llamada se mediría dos veces
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Advised advised
+                && Arrays.stream(advised.getAdvisors()).anyMatch(existing -> existing == this.advisor)) {
+            return bean;
+        }
+        return super.postProcessAfterInitialization(bean, beanName);
+    }
+
+    // Interfaz de repositorio del dominio que declara el método, o null
+    static Class<?> portOf(Class<?> targetClass, Method method) {
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            if (isPort(candidate)
+                    && ClassUtils.hasMethod(candidate, method.getName(), method.getParameterTypes())) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isPort(Class<?> type) {
+        return type.isInterface() && PORTS_PACKAGE.equals(type.getPackageName())
+                && type.getSimpleName().endsWith("Repository");
+    }
+
+    private static boolean isUseCase(Class<?> type) {
+        return USE_CASES_PACKAGE.equals(type.getPackageName()) && type.getSimpleName().endsWith("UseCase");
+    }
+
+    private static final class DomainPointcut extends StaticMethodMatcherPointcut {
+
+        DomainPointcut() {
+            setClassFilter((ClassFilter) type -> {
+                Class<?> userClass = ClassUtils.getUserClass(type);
+                return isUseCase(userClass) || ClassUtils.getAllInterfacesForClassAsSet(userClass).stream()
+                        .anyMatch(DomainMetricsPostProcessor::isPort);
+            });
+        }
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            Class<?> userClass = ClassUtils.getUserClass(targetClass);
+            if (isUseCase(userClass)) {
+                return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() == userClass;
+            }
+            return portOf(userClass, method) != null;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+// Mide cada llamada a un puerto o caso de uso. En los métodos reactivos el tiempo
+// corre desde la suscripción hasta la señal final, no mientras se arma el Mono.
+final class MeteredMethodInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> registryProvider;
+    private final Map<String, MethodMeters> meters = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    MeteredMethodInterceptor(ObjectProvider<MeterRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MethodMeters methodMeters = metersFor(invocation);
+        if (methodMeters == null) {
+            return invocation.proceed();
+        }
+
+        Timer.Sample sample = Timer.start(methodMeters.registry);
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            methodMeters.record(sample, SignalType.ON_ERROR, e, 0);
+            throw e;
+        }
+
+        if (result instanceof Mono<?> mono) {
+            return metered(mono, methodMeters);
+        }
+        if (result instanceof Flux<?> flux) {
+            return metered(flux, methodMeters);
+        }
+        methodMeters.record(sample, SignalType.ON_COMPLETE, null, result == null ? 0 : 1);
+        return result;
+    }
+
+    private static <T> Mono<T> metered(Mono<T> source, MethodMeters methodMeters) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(methodMeters.registry);
+            AtomicLong elements = new AtomicLong();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            return source
+                    .doOnNext(value -> elements.incrementAndGet())
+                    .doOnError(failure::set)
+                    .doFinally(signal -> methodMeters.record(sample, signal, failure.get(), elements.get()));
+        });
+    }
+
+    private static <T> Flux<T> metered(Flux<T> source, MethodMeters methodMeters) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(methodMeters.registry);
+            AtomicLong elements = new AtomicLong();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            return source
+                    .doOnNext(value -> elements.incrementAndGet())
+                    .doOnError(failure::set)
+                    .doFinally(signal -> methodMeters.record(sample, signal, failure.get(), elements.get()));
+        });
+    }
+
+    // null mientras no haya registro de métricas disponible
+    private MethodMeters metersFor(MethodInvocation invocation) {
+        MeterRegistry current = registry;
+        if (current == null) {
+            current = registryProvider.getIfAvailable();
+            if (current == null) {
+                return null;
+            }
+            registry = current;
+        }
+
+        Class<?> targetClass = AopUtils.getTargetClass(invocation.getThis());
+        Method method = invocation.getMethod();
+        MeterRegistry meterRegistry = current;
+        return meters.computeIfAbsent(targetClass.getName() + "#" + method.getName(),
+                key -> MethodMeters.of(meterRegistry, targetClass, method));
+    }
+
+    private static final class MethodMeters {
+
+        private final MeterRegistry registry;
+        private final String name;
+        private final Tags tags;
+        private final Timer success;
+        private final Timer error;
+        private final Timer cancelled;
+        private final DistributionSummary elements;
+
+        private MethodMeters(MeterRegistry registry, String name, Tags tags) {
+            this.registry = registry;
+            this.name = name;
+            this.tags = tags;
+            this.success = timer("success");
+            this.error = timer("error");
+            this.cancelled = timer("cancelled");
+            this.elements = DistributionSummary.builder(name + ".elements")
+                    .description("Elementos emitidos por llamada")
+                    .tags(tags)
+                    .register(registry);
+        }
+
+        static MethodMeters of(MeterRegistry registry, Class<?> targetClass, Method method) {
+            Class<?> port = DomainMetricsPostProcessor.portOf(targetClass, method);
+            if (port != null) {
+                return new MethodMeters(registry, "onclass.repository", Tags.of(
+                        "port", port.getSimpleName(),
+                        "implementation", targetClass.getSimpleName(),
+                        "method", method.getName()));
+            }
+            return new MethodMeters(registry, "onclass.usecase", Tags.of(
+                    "usecase", targetClass.getSimpleName(),
+                    "method", method.getName()));
+        }
+
+        private Timer timer(String outcome) {
+            return Timer.builder(name)
+                    .tags(tags)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+
+        void record(Timer.Sample sample, SignalType signal, Throwable failure, long emitted) {
+            if (signal == SignalType.ON_ERROR) {
+                sample.stop(error);
+                Counter.builder(name + ".errors")
+                        .tags(tags)
+                        .tag("exception", failure == null ? "unknown" : failure.getClass().getSimpleName())
+                        .register(registry)
+                        .increment();
+            } else if (signal == SignalType.CANCEL) {
+                sample.stop(cancelled);
+            } else {
+                sample.stop(success);
+            }
+            elements.record(emitted);
+        }
+    }
+}
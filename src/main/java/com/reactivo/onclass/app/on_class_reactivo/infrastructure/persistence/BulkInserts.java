@@ -0,0 +1,60 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+
+import reactor.core.publisher.Flux;
+
+final class BulkInserts {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private BulkInserts() {
+    }
+
+    // insertMany sin orden: un duplicado no detiene al resto del bloque. Los ids se
+    // asignan antes de insertar para poder devolverlos sin releer.
+    static <T> Flux<Integer> insertUnordered(ReactiveMongoTemplate mongoTemplate, List<T> documents,
+            Class<T> type, Function<T, String> idOf, Consumer<T> assignId) {
+        documents.stream()
+                .filter(document -> idOf.apply(document) == null)
+                .forEach(assignId);
+
+        return mongoTemplate.bulkOps(BulkMode.UNORDERED, type)
+                .insert(documents)
+                .execute()
+                .thenMany(Flux.<Integer>empty())
+                .onErrorResume(BulkInserts::isBulkWriteError, e -> {
+                    List<BulkWriteError> errors = bulkWriteError(e).getWriteErrors();
+                    if (errors.stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                        return Flux.error(e);
+                    }
+                    return Flux.fromIterable(errors).map(BulkWriteError::getIndex);
+                });
+    }
+
+    static String newId() {
+        return new ObjectId().toHexString();
+    }
+
+    private static boolean isBulkWriteError(Throwable error) {
+        return bulkWriteError(error) != null;
+    }
+
+    private static MongoBulkWriteException bulkWriteError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkError) {
+                return bulkError;
+            }
+        }
+        return null;
+    }
+}
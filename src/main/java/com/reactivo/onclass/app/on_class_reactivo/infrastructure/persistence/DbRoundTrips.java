@@ -0,0 +1,33 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+// Idas y vueltas a Mongo de una petición. Viaja en el Context de Reactor y lo
+// incrementa RoundTripCommandListener por cada comando que el driver envía,
+// incluidos los getMore de cursores largos.
+public final class DbRoundTrips {
+
+    private static final Object CONTEXT_KEY = DbRoundTrips.class;
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    public Function<Context, Context> attach() {
+        return context -> context.put(CONTEXT_KEY, this);
+    }
+
+    public int count() {
+        return count.get();
+    }
+
+    static DbRoundTrips from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    void increment() {
+        count.incrementAndGet();
+    }
+}
@@ -0,0 +1,111 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import java.time.Duration;
+
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import com.mongodb.client.model.changestream.OperationType;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampLeaderboard;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+// Mantiene BootcampLeaderboard al día a partir del change stream de enrollments.
+// Cada (re)conexión vuelve a sembrar los conteos, así un corte no deja deriva.
+@Slf4j
+@Component
+public class EnrollmentChangeStreamListener {
+
+    private static final String COLLECTION = "enrollments";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final BootcampLeaderboard leaderboard;
+    private Disposable subscription;
+
+    public EnrollmentChangeStreamListener(ReactiveMongoTemplate mongoTemplate, BootcampLeaderboard leaderboard) {
+        this.mongoTemplate = mongoTemplate;
+        this.leaderboard = leaderboard;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        subscription = enablePreImages()
+                .thenMany(Flux.defer(() -> seed().flatMapMany(this::changesAfter)))
+                .doOnNext(this::apply)
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofMinutes(1))
+                        .doBeforeRetry(signal -> log.warn("Change stream de inscripciones interrumpido, reintentando",
+                                signal.failure())))
+                .subscribe();
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    // Los conteos se leen en una sesión snapshot y el stream arranca justo después del
+    // instante que vio esa lectura: cada inscripción se cuenta exactamente una vez
+    private Mono<BsonTimestamp> seed() {
+        return Mono.usingWhen(
+                mongoTemplate.getMongoDatabaseFactory().getSession(ClientSessionOptions.builder()
+                        .snapshot(true)
+                        .build()),
+                session -> MongoEnrollmentRepositoryAdapter.countGroupedByBootcamp(mongoTemplate.withSession(session))
+                        .collectList()
+                        .doOnNext(leaderboard::reset)
+                        .then(Mono.fromSupplier(() -> session.getSnapshotTimestamp() != null
+                                ? session.getSnapshotTimestamp()
+                                : session.getOperationTime())),
+                session -> Mono.fromRunnable(session::close));
+    }
+
+    private Flux<ChangeStreamEvent<Document>> changesAfter(BsonTimestamp seededAt) {
+        ChangeStreamOptions options = ChangeStreamOptions.builder()
+                .filter(Aggregation.newAggregation(Aggregation.match(
+                        Criteria.where("operationType").in("insert", "delete"))))
+                .fullDocumentBeforeChangeLookup(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                // startAtOperationTime es inclusivo y la siembra ya contó las escrituras de ese instante
+                .resumeAt(new BsonTimestamp(seededAt.getTime(), seededAt.getInc() + 1))
+                .build();
+
+        return mongoTemplate.changeStream(COLLECTION, options, Document.class);
+    }
+
+    private void apply(ChangeStreamEvent<Document> event) {
+        if (event.getOperationType() == OperationType.INSERT && event.getBody() != null) {
+            leaderboard.apply(event.getBody().getString("bootcampId"), 1);
+        } else if (event.getOperationType() == OperationType.DELETE && event.getRaw() != null
+                && event.getRaw().getFullDocumentBeforeChange() != null) {
+            leaderboard.apply(event.getRaw().getFullDocumentBeforeChange().getString("bootcampId"), -1);
+        }
+    }
+
+    // Las pre-imágenes permiten conocer el bootcampId de una inscripción eliminada
+    private Mono<Void> enablePreImages() {
+        return mongoTemplate.executeCommand(new Document("collMod", COLLECTION)
+                .append("changeStreamPreAndPostImages", new Document("enabled", true)))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("No fue posible habilitar pre-imágenes en {}", COLLECTION, e);
+                    return Mono.empty();
+                });
+    }
+}
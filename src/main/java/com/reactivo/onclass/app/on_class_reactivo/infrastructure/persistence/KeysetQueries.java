@@ -0,0 +1,33 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+
+final class KeysetQueries {
+
+    private KeysetQueries() {
+    }
+
+    // Rango (campo, _id) > (valor, id) en el sentido del orden: Mongo recorre
+    // el índice desde el cursor en vez de saltar documentos.
+    static Query after(String field, Object lastValue, PageCursor cursor, boolean descending, int size) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = new Query()
+                .with(Sort.by(direction, field, "id"))
+                .limit(size);
+
+        if (cursor != null) {
+            query.addCriteria(new Criteria().orOperator(
+                    descending ? Criteria.where(field).lt(lastValue) : Criteria.where(field).gt(lastValue),
+                    new Criteria().andOperator(
+                            Criteria.where(field).is(lastValue),
+                            descending ? Criteria.where("id").lt(cursor.getLastId())
+                                    : Criteria.where("id").gt(cursor.getLastId()))));
+        }
+
+        return query;
+    }
+}
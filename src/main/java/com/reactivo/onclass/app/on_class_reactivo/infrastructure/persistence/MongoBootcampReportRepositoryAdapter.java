@@ -1,16 +1,26 @@
 package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
 
+import java.util.List;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.stereotype.Repository;
+
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampReport;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampReportRepository;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+@Repository
 public class MongoBootcampReportRepositoryAdapter implements BootcampReportRepository {
 
     private final MongoBootcampReportRepository reportRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
 
-    public MongoBootcampReportRepositoryAdapter(MongoBootcampReportRepository reportRepository) {
+    public MongoBootcampReportRepositoryAdapter(MongoBootcampReportRepository reportRepository,
+            ReactiveMongoTemplate mongoTemplate) {
         this.reportRepository = reportRepository;
+        this.mongoTemplate = mongoTemplate;
     }
 
     @Override
@@ -18,4 +28,13 @@ public class MongoBootcampReportRepositoryAdapter implements BootcampReportRepos
         return reportRepository.save(bootcamp);
     }
 
+    @Override
+    public Flux<Integer> insertAll(List<BootcampReport> reports) {
+        if (reports.isEmpty()) {
+            return Flux.empty();
+        }
+        return BulkInserts.insertUnordered(mongoTemplate, reports, BootcampReport.class, BootcampReport::getId,
+                report -> report.setId(BulkInserts.newId()));
+    }
+
 }
@@ -1,8 +1,28 @@
 package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
 
+import static com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoExpressions.objectIdOf;
+import static com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoExpressions.stage;
+import static com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoExpressions.toObjectIds;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampCascade;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
 
 import reactor.core.publisher.Flux;
@@ -12,9 +32,14 @@ import reactor.core.publisher.Mono;
 public class MongoBootcampRepositoryAdapter implements BootcampRepository {
 
     private final MongoBootcampRepository repository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int cursorBatchSize;
 
-    public MongoBootcampRepositoryAdapter(MongoBootcampRepository repository) {
+    public MongoBootcampRepositoryAdapter(MongoBootcampRepository repository, ReactiveMongoTemplate mongoTemplate,
+            @Value("${onclass.mongo.cursor-batch-size:256}") int cursorBatchSize) {
         this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.cursorBatchSize = cursorBatchSize;
     }
 
     @Override
@@ -24,7 +49,59 @@ public class MongoBootcampRepositoryAdapter implements BootcampRepository {
 
     @Override
     public Flux<Bootcamp> findAll() {
-        return repository.findAll();
+        // Lotes acotados: la demanda del cliente llega hasta el cursor de Mongo
+        return mongoTemplate.find(new Query().cursorBatchSize(cursorBatchSize), Bootcamp.class);
+    }
+
+    @Override
+    public Flux<Bootcamp> findAllPaginated(String sortBy, String order, int page, int size) {
+        Sort.Direction direction = "desc".equalsIgnoreCase(order) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        Query query = new Query()
+                .skip((long) page * size)
+                .limit(size);
+
+        if ("cantidad".equalsIgnoreCase(sortBy)) {
+            query.with(Sort.by(direction, "cantidadCapacidades", "id"));
+        } else {
+            // La collation debe coincidir con la del índice para que Mongo ordene por índice
+            query.with(Sort.by(direction, "nombre", "id")).collation(MongoIndexInitializer.NOMBRE_COLLATION);
+        }
+
+        return mongoTemplate.find(query, Bootcamp.class);
+    }
+
+    @Override
+    public Flux<Bootcamp> findAllAfter(String sortBy, String order, PageCursor cursor, int size) {
+        boolean descending = PageCursor.isDescending(order);
+
+        if (PageCursor.SORT_CANTIDAD.equals(PageCursor.normalizeSortBy(sortBy))) {
+            Integer lastValue = cursor == null ? null : Integer.valueOf(cursor.getLastValue());
+            return mongoTemplate.find(
+                    KeysetQueries.after("cantidadCapacidades", lastValue, cursor, descending, size), Bootcamp.class);
+        }
+
+        Query query = KeysetQueries.after("nombre", cursor == null ? null : cursor.getLastValue(), cursor,
+                descending, size)
+                .collation(MongoIndexInitializer.NOMBRE_COLLATION);
+        return mongoTemplate.find(query, Bootcamp.class);
+    }
+
+    @Override
+    public Flux<Bootcamp> findRunningBetween(LocalDate from, LocalDate to) {
+        // Un periodo se cruza con la ventana si empieza antes de que termine y termina después de que empieza
+        Query query = Query.query(Criteria.where("fechaLanzamiento").lte(to).and("fechaFin").gte(from))
+                .with(Sort.by("fechaLanzamiento", "id"));
+
+        return mongoTemplate.find(query, Bootcamp.class);
+    }
+
+    @Override
+    public Flux<Bootcamp> findEndingFrom(LocalDate date) {
+        Query query = Query.query(Criteria.where("fechaFin").gte(date))
+                .with(Sort.by("fechaLanzamiento", "id"));
+
+        return mongoTemplate.find(query, Bootcamp.class);
     }
 
     @Override
@@ -37,14 +114,128 @@ public class MongoBootcampRepositoryAdapter implements BootcampRepository {
         return repository.findById(id);
     }
 
+    @Override
+    public Flux<Bootcamp> findAllById(Iterable<String> ids) {
+        return repository.findAllById(ids);
+    }
+
     @Override
     public Mono<Void> deleteById(String id) {
         return repository.deleteById(id);
     }
 
     @Override
-    public Mono<Long> countByCapabilityIdsContains(String capabilityId) {
-        return repository.countByCapabilityIdsContains(capabilityId);
+    public Mono<BootcampCascade> findDeleteCascade(String bootcampId) {
+
+        // Capacidades del bootcamp, marcadas si algún otro bootcamp también las usa.
+        // Las uniones van por localField/foreignField para usar los índices de
+        // _id y los multikey de capabilityIds y technologyIds
+        Document otherBootcampsLookup = new Document("$lookup", new Document("from", "bootcamps")
+                .append("localField", "capabilityId")
+                .append("foreignField", "capabilityIds")
+                .append("let", new Document("bootcampId", "$$bootcampId"))
+                .append("pipeline", List.of(
+                        new Document("$match", new Document("$expr",
+                                new Document("$ne", List.of("$_id", "$$bootcampId")))),
+                        new Document("$limit", 1),
+                        new Document("$project", new Document("_id", 1))))
+                .append("as", "otherBootcamps"));
+
+        Document capabilitiesLookup = new Document("$lookup", new Document("from", "capabilities")
+                .append("localField", "capabilityObjectIds")
+                .append("foreignField", "_id")
+                .append("let", new Document("bootcampId", "$_id"))
+                .append("pipeline", List.of(
+                        new Document("$set", new Document("capabilityId", new Document("$toString", "$_id"))),
+                        otherBootcampsLookup,
+                        new Document("$project", new Document("technologyIds", 1)
+                                .append("shared", new Document("$gt", List.of(
+                                        new Document("$size", "$otherBootcamps"), 0))))))
+                .append("as", "capabilities"));
+
+        Document orphans = new Document("$filter", new Document("input", "$capabilities")
+                .append("cond", new Document("$not", List.of("$$this.shared"))));
+
+        Document candidates = new Document("$addFields", new Document()
+                .append("orphanCapabilityIds", new Document("$map", new Document("input", orphans)
+                        .append("in", new Document("$toString", "$$this._id"))))
+                .append("candidateTechnologyIds", unionOf(orphans, "technologyIds")));
+
+        // Tecnologías candidatas que siguen en uso por capacidades que no se eliminan
+        Document sharingLookup = new Document("$lookup", new Document("from", "capabilities")
+                .append("localField", "candidateTechnologyIds")
+                .append("foreignField", "technologyIds")
+                .append("let", new Document("orphanIds", toObjectIds("$orphanCapabilityIds")))
+                .append("pipeline", List.of(
+                        new Document("$match", new Document("$expr",
+                                new Document("$not", List.of(new Document("$in", List.of("$_id", "$$orphanIds")))))),
+                        new Document("$project", new Document("technologyIds", 1))))
+                .append("as", "sharing"));
+
+        Document result = new Document("$project", new Document()
+                .append("orphanCapabilityIds", 1)
+                .append("orphanTechnologyIds", new Document("$setDifference", List.of(
+                        "$candidateTechnologyIds", unionOf("$sharing", "technologyIds")))));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").is(objectIdOf(bootcampId))),
+                stage(new Document("$set", new Document("capabilityObjectIds", toObjectIds("$capabilityIds")))),
+                stage(capabilitiesLookup),
+                stage(candidates),
+                stage(sharingLookup),
+                stage(result));
+
+        return mongoTemplate.aggregate(aggregation, "bootcamps", Document.class)
+                .next()
+                .map(document -> new BootcampCascade(
+                        bootcampId,
+                        document.getList("orphanCapabilityIds", String.class, List.of()),
+                        document.getList("orphanTechnologyIds", String.class, List.of())));
+    }
+
+    // Unión sin repetidos del arreglo "field" de cada elemento de "input"
+    private static Document unionOf(Object input, String field) {
+        return new Document("$reduce", new Document("input", input)
+                .append("initialValue", List.of())
+                .append("in", new Document("$setUnion", List.of("$$value",
+                        new Document("$ifNull", List.of("$$this." + field, List.of()))))));
+    }
+
+    @Override
+    public Mono<Void> incrementCantidadPersonasInscritas(String bootcampId, int delta) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(bootcampId)),
+                new Update().inc("cantidadPersonasInscritas", delta),
+                Bootcamp.class)
+                .then();
+    }
+
+    @Override
+    public Flux<Bootcamp> findTopByCantidadPersonasInscritas(int limit) {
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.DESC, "cantidadPersonasInscritas").and(Sort.by("id")))
+                .limit(limit);
+
+        return mongoTemplate.find(query, Bootcamp.class);
+    }
+
+    @Override
+    public Mono<Long> reconcileCantidadPersonasInscritas(List<BootcampEnrollmentCount> counts) {
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Bootcamp.class);
+
+        // Solo se escriben los documentos cuyo contador difiere del real
+        counts.forEach(count -> bulk.updateOne(
+                Query.query(Criteria.where("id").is(count.getBootcampId())
+                        .and("cantidadPersonasInscritas").ne(count.getCantidad())),
+                new Update().set("cantidadPersonasInscritas", count.getCantidad())));
+
+        List<String> withEnrollments = counts.stream().map(BootcampEnrollmentCount::getBootcampId).toList();
+        bulk.updateMulti(
+                Query.query(Criteria.where("id").nin(withEnrollments)
+                        .and("cantidadPersonasInscritas").ne(0)),
+                new Update().set("cantidadPersonasInscritas", 0));
+
+        return bulk.execute().map(result -> (long) result.getModifiedCount());
     }
 
 }
@@ -11,7 +11,5 @@ public interface MongoCapabilityRepository extends ReactiveMongoRepository<Capab
 
     Mono<Boolean> existsByNombre(String nombre);
 
-    Mono<Long> countByTechnologyIdsContains(String technologyId);
-
     Flux<Capability> findAllById(Iterable<String> ids);
 }
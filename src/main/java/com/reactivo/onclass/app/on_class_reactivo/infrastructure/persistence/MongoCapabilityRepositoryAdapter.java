@@ -1,8 +1,26 @@
 package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
 
+import static com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoExpressions.stage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
 
 import reactor.core.publisher.Flux;
@@ -12,9 +30,14 @@ import reactor.core.publisher.Mono;
 public class MongoCapabilityRepositoryAdapter implements CapabilityRepository {
 
     private final MongoCapabilityRepository repository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int cursorBatchSize;
 
-    public MongoCapabilityRepositoryAdapter(MongoCapabilityRepository repository) {
+    public MongoCapabilityRepositoryAdapter(MongoCapabilityRepository repository, ReactiveMongoTemplate mongoTemplate,
+            @Value("${onclass.mongo.cursor-batch-size:256}") int cursorBatchSize) {
         this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.cursorBatchSize = cursorBatchSize;
     }
 
     @Override
@@ -24,7 +47,41 @@ public class MongoCapabilityRepositoryAdapter implements CapabilityRepository {
 
     @Override
     public Flux<Capability> findAll() {
-        return repository.findAll();
+        // Lotes acotados: la demanda del cliente llega hasta el cursor de Mongo
+        return mongoTemplate.find(new Query().cursorBatchSize(cursorBatchSize), Capability.class);
+    }
+
+    @Override
+    public Flux<Capability> findAllPaginated(String sortBy, String order, int page, int size) {
+        Sort.Direction direction = "desc".equalsIgnoreCase(order) ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        Query query = new Query()
+                .skip((long) page * size)
+                .limit(size);
+
+        if ("cantidad".equalsIgnoreCase(sortBy)) {
+            query.with(Sort.by(direction, "cantidadTecnologias", "id"));
+        } else {
+            query.with(Sort.by(direction, "nombre", "id")).collation(MongoIndexInitializer.NOMBRE_COLLATION);
+        }
+
+        return mongoTemplate.find(query, Capability.class);
+    }
+
+    @Override
+    public Flux<Capability> findAllAfter(String sortBy, String order, PageCursor cursor, int size) {
+        boolean descending = PageCursor.isDescending(order);
+
+        if (PageCursor.SORT_CANTIDAD.equals(PageCursor.normalizeSortBy(sortBy))) {
+            Integer lastValue = cursor == null ? null : Integer.valueOf(cursor.getLastValue());
+            return mongoTemplate.find(
+                    KeysetQueries.after("cantidadTecnologias", lastValue, cursor, descending, size), Capability.class);
+        }
+
+        Query query = KeysetQueries.after("nombre", cursor == null ? null : cursor.getLastValue(), cursor,
+                descending, size)
+                .collation(MongoIndexInitializer.NOMBRE_COLLATION);
+        return mongoTemplate.find(query, Capability.class);
     }
 
     @Override
@@ -37,11 +94,6 @@ public class MongoCapabilityRepositoryAdapter implements CapabilityRepository {
         return repository.findById(id);
     }
 
-    @Override
-    public Mono<Long> countByTechnologyIdsContains(String technologyId) {
-        return repository.countByTechnologyIdsContains(technologyId);
-    }
-
     @Override
     public Mono<Void> deleteById(String id) {
         return repository.deleteById(id);
@@ -51,4 +103,57 @@ public class MongoCapabilityRepositoryAdapter implements CapabilityRepository {
     public Flux<Capability> findAllById(Iterable<String> ids) {
         return repository.findAllById(ids);
     }
+
+    @Override
+    public Mono<Map<String, Integer>> countDistinctTechnologiesPerGroup(
+            Map<String, List<String>> capabilityIdsByGroup) {
+        Map<String, Integer> counts = new HashMap<>();
+        capabilityIdsByGroup.keySet().forEach(group -> counts.put(group, 0));
+
+        Set<Object> capabilityIds = new HashSet<>();
+        List<Document> groups = new ArrayList<>();
+        capabilityIdsByGroup.forEach((group, ids) -> {
+            List<Object> objectIds = ids.stream().map(MongoExpressions::objectIdOf).toList();
+            capabilityIds.addAll(objectIds);
+            groups.add(new Document("group", group).append("ids", objectIds));
+        });
+        if (capabilityIds.isEmpty()) {
+            return Mono.just(counts);
+        }
+
+        // Cada capacidad se repite en los grupos que la incluyen y una tecnología
+        // compartida por varias capacidades del mismo grupo cuenta una sola vez
+        Document groupsOf = new Document("$map", new Document("input", new Document("$filter",
+                new Document("input", new Document("$literal", groups))
+                        .append("cond", new Document("$in", List.of("$_id", "$$this.ids")))))
+                .append("in", "$$this.group"));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id").in(capabilityIds)),
+                stage(new Document("$project", new Document("technologyIds", 1).append("groups", groupsOf))),
+                stage(new Document("$unwind", "$groups")),
+                stage(new Document("$unwind", "$technologyIds")),
+                stage(new Document("$group", new Document("_id", "$groups")
+                        .append("technologyIds", new Document("$addToSet", "$technologyIds")))),
+                stage(new Document("$project", new Document("cantidad", new Document("$size", "$technologyIds")))));
+
+        return mongoTemplate.aggregate(aggregation, "capabilities", Document.class)
+                .doOnNext(result -> counts.put(result.getString("_id"),
+                        result.get("cantidad", Number.class).intValue()))
+                .then(Mono.fromSupplier(() -> counts));
+    }
+
+    @Override
+    public Flux<Integer> insertAll(List<Capability> capabilities) {
+        return BulkInserts.insertUnordered(mongoTemplate, capabilities, Capability.class, Capability::getId,
+                capability -> capability.setId(BulkInserts.newId()));
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), Capability.class).then();
+    }
 }
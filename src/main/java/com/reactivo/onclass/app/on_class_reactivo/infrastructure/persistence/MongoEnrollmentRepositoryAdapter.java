@@ -1,8 +1,36 @@
 package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
 
+import static com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoExpressions.lookupByIds;
+import static com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoExpressions.stage;
+import static com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoExpressions.toObjectId;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.EnrolledBootcamp;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PersonEnrollments;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.EnrollmentRepository;
 
 import reactor.core.publisher.Flux;
@@ -12,9 +40,14 @@ import reactor.core.publisher.Mono;
 public class MongoEnrollmentRepositoryAdapter implements EnrollmentRepository {
 
     private final MongoEnrollmentRepository repository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final TransactionalOperator transactionalOperator;
 
-    public MongoEnrollmentRepositoryAdapter(MongoEnrollmentRepository repository) {
+    public MongoEnrollmentRepositoryAdapter(MongoEnrollmentRepository repository,
+            ReactiveMongoTemplate mongoTemplate, ReactiveTransactionManager transactionManager) {
         this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
     }
 
     @Override
@@ -47,4 +80,142 @@ public class MongoEnrollmentRepositoryAdapter implements EnrollmentRepository {
         return repository.findByBootcampId(bootcampId);
     }
 
+    @Override
+    public Mono<Bootcamp> findBootcampWithMostEnrollments() {
+
+        // capabilities -> technologies, anidado dentro del $lookup del bootcamp
+        List<Document> capabilitiesLookup = lookupByIds("capabilities", "capabilityIds", "capabilities",
+                lookupByIds("technologies", "technologyIds", "technologies"));
+
+        Document bootcampLookup = new Document("$lookup", new Document("from", "bootcamps")
+                .append("localField", "bootcampObjectId")
+                .append("foreignField", "_id")
+                .append("pipeline", capabilitiesLookup)
+                .append("as", "bootcamp"));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("bootcampId").count().as("cantidad"),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "cantidad").and(Sort.by("_id"))),
+                Aggregation.limit(1),
+                stage(new Document("$set", new Document("bootcampObjectId", toObjectId("$_id")))),
+                stage(bootcampLookup),
+                Aggregation.unwind("bootcamp"));
+
+        return mongoTemplate.aggregate(aggregation, "enrollments", Document.class)
+                .next()
+                .map(result -> readBootcamp(result.get("bootcamp", Document.class)));
+    }
+
+    @Override
+    public Flux<BootcampEnrollmentCount> countGroupedByBootcamp() {
+        return countGroupedByBootcamp(mongoTemplate);
+    }
+
+    // También lo usa EnrollmentChangeStreamListener, con operaciones ligadas a una sesión snapshot
+    static Flux<BootcampEnrollmentCount> countGroupedByBootcamp(ReactiveMongoOperations operations) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group("bootcampId").count().as("cantidad"));
+
+        return operations.aggregate(aggregation, "enrollments", Document.class)
+                .map(result -> new BootcampEnrollmentCount(
+                        result.getString("_id"),
+                        result.get("cantidad", Number.class).longValue()));
+    }
+
+    @Override
+    public Mono<Enrollment> admit(Enrollment enrollment, EnrolledBootcamp bootcamp, int maxBootcamps) {
+
+        // Las tres reglas de negocio se evalúan en el filtro de una única actualización
+        Query query = Query.query(Criteria.where("id").is(enrollment.getPersonId())
+                .and("bootcamps.bootcampId").ne(bootcamp.getBootcampId())
+                .and("bootcamps." + (maxBootcamps - 1)).exists(false)
+                .and("bootcamps").not().elemMatch(Criteria.where("fechaInicio").lte(bootcamp.getFechaFin())
+                        .and("fechaFin").gte(bootcamp.getFechaInicio())));
+
+        Update update = new Update()
+                .push("bootcamps", bootcamp)
+                .inc("version", 1);
+
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), PersonEnrollments.class)
+                // Si el resumen existe pero no cumple el filtro, el upsert choca con su _id
+                .onErrorMap(DuplicateKeyException.class, e -> new AdmissionRejectedException())
+                .flatMap(summary -> mongoTemplate.insert(enrollment))
+                .as(transactionalOperator::transactional)
+                .onErrorResume(AdmissionRejectedException.class, e -> Mono.empty());
+    }
+
+    @Override
+    public Mono<PersonEnrollments> findSummaryByPersonId(String personId) {
+        return mongoTemplate.findById(personId, PersonEnrollments.class);
+    }
+
+    @Override
+    public Flux<PersonEnrollments> findSummariesByPersonIds(Collection<String> personIds) {
+        return mongoTemplate.find(Query.query(Criteria.where("id").in(personIds)), PersonEnrollments.class);
+    }
+
+    @Override
+    public Flux<Enrollment> admitAll(List<PersonEnrollments> summaries, List<Enrollment> enrollments) {
+        return Flux.fromIterable(summaries)
+                .concatMap(this::replaceSummary)
+                .thenMany(mongoTemplate.insert(enrollments, Enrollment.class))
+                .as(transactionalOperator::transactional);
+    }
+
+    @Override
+    public Mono<Void> removeBootcamp(String bootcampId) {
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("bootcamps.bootcampId").is(bootcampId)),
+                new Update()
+                        .pull("bootcamps", new Document("bootcampId", bootcampId))
+                        .inc("version", 1),
+                PersonEnrollments.class)
+                .then(mongoTemplate.remove(Query.query(Criteria.where("bootcampId").is(bootcampId)), Enrollment.class))
+                .then();
+    }
+
+    // Reemplazo condicionado a la versión leída; los resúmenes del backfill no la tienen
+    private Mono<Void> replaceSummary(PersonEnrollments summary) {
+        Long expected = summary.getVersion();
+        if (expected == null) {
+            return mongoTemplate.insert(new PersonEnrollments(summary.getId(), summary.getBootcamps(), 1L)).then();
+        }
+
+        Query query = Query.query(Criteria.where("id").is(summary.getId())
+                .and("version").in(expected == 0 ? Arrays.asList(0L, null) : List.of(expected)));
+        Update update = new Update()
+                .set("bootcamps", summary.getBootcamps())
+                .set("version", expected + 1);
+
+        return mongoTemplate.updateFirst(query, update, PersonEnrollments.class)
+                .flatMap(result -> result.getMatchedCount() == 1
+                        ? Mono.<Void>empty()
+                        : Mono.error(new OptimisticLockingFailureException(
+                                "El resumen de la persona " + summary.getId() + " cambió")));
+    }
+
+    private Bootcamp readBootcamp(Document document) {
+        MongoConverter converter = mongoTemplate.getConverter();
+
+        Bootcamp bootcamp = converter.read(Bootcamp.class, document);
+        bootcamp.setCapabilities(document.getList("capabilities", Document.class, List.of()).stream()
+                .map(capDoc -> {
+                    Capability capability = converter.read(Capability.class, capDoc);
+                    capability.setTechnologies(capDoc.getList("technologies", Document.class, List.of()).stream()
+                            .map(techDoc -> converter.read(Technology.class, techDoc))
+                            .toList());
+                    return capability;
+                })
+                .toList());
+
+        return bootcamp;
+    }
+
+    private static final class AdmissionRejectedException extends RuntimeException {
+
+        AdmissionRejectedException() {
+            super(null, null, false, false);
+        }
+    }
 }
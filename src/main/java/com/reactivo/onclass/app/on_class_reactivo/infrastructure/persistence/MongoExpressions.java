@@ -0,0 +1,61 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+
+// Expresiones de agregación que Spring Data no expone con tipos.
+// Las referencias entre colecciones se guardan como String y los _id como
+// ObjectId, por eso las uniones convierten antes de comparar.
+final class MongoExpressions {
+
+    private MongoExpressions() {
+    }
+
+    // Si el valor no es un ObjectId válido se deja tal cual (ids de texto)
+    static Document toObjectId(Object expression) {
+        return new Document("$convert", new Document("input", expression)
+                .append("to", "objectId")
+                .append("onError", expression)
+                .append("onNull", expression));
+    }
+
+    // Lo mismo que toObjectId, del lado de la aplicación, para filtros que usan índice
+    static Object objectIdOf(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    static Document toObjectIds(String arrayField) {
+        return new Document("$map", new Document("input", new Document("$ifNull", List.of(arrayField, List.of())))
+                .append("in", toObjectId("$$this")));
+    }
+
+    // $lookup de los documentos de "from" cuyo _id está en el arreglo "idsField".
+    // Los ids se convierten antes en un campo temporal para que la unión use
+    // localField/foreignField (y con ello el índice de _id) en lugar de $expr $in
+    static List<Document> lookupByIds(String from, String idsField, String as) {
+        return lookupByIds(from, idsField, as, List.of());
+    }
+
+    static List<Document> lookupByIds(String from, String idsField, String as, List<Document> subPipeline) {
+        String objectIds = as + "ObjectIds";
+
+        Document lookup = new Document("from", from)
+                .append("localField", objectIds)
+                .append("foreignField", "_id");
+        if (!subPipeline.isEmpty()) {
+            lookup.append("pipeline", subPipeline);
+        }
+
+        return List.of(
+                new Document("$set", new Document(objectIds, toObjectIds("$" + idsField))),
+                new Document("$lookup", lookup.append("as", as)),
+                new Document("$unset", objectIds));
+    }
+
+    static AggregationOperation stage(Document stage) {
+        return context -> stage;
+    }
+}
@@ -0,0 +1,373 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import static com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoExpressions.stage;
+import static com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.MongoExpressions.toObjectId;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.ReactiveIndexOperations;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoException;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PersonEnrollments;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.ReportTask;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Crea índices y corre las migraciones de datos antes de que arranque el servidor web:
+// sin los índices únicos la aplicación no debe recibir tráfico, así que si alguno no
+// se puede crear (por ejemplo, hay duplicados) el arranque falla.
+@Slf4j
+@Component
+public class MongoIndexInitializer implements SmartInitializingSingleton {
+
+    // Orden por nombre sin distinguir mayúsculas/minúsculas
+    static final Collation NOMBRE_COLLATION = Collation.of("es")
+            .strength(Collation.ComparisonLevel.secondary());
+
+    // IndexOptionsConflict e IndexKeySpecsConflict: ya existe un índice con otra definición
+    private static final List<Integer> INDEX_CONFLICT_CODES = List.of(85, 86);
+
+    // Migraciones que solo deben aplicarse una vez quedan registradas aquí
+    private static final String MIGRATIONS_COLLECTION = "migrations";
+    private static final String PERSON_ENROLLMENTS_MIGRATION = "person_enrollments_backfill";
+    private static final String SUMMARY_FECHA_FIN_MIGRATION = "person_enrollments_fecha_fin";
+    private static final String CHANGE_STREAM_TOKENS_MIGRATION = "drop_change_stream_tokens";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final boolean onStartup;
+    private final Duration timeout;
+    private final boolean replaceConflictingIndexes;
+
+    public MongoIndexInitializer(ReactiveMongoTemplate mongoTemplate,
+            @Value("${onclass.mongo.initialize-on-startup:true}") boolean onStartup,
+            @Value("${onclass.mongo.initialize-timeout:PT10M}") Duration timeout,
+            @Value("${onclass.mongo.replace-conflicting-indexes:false}") boolean replaceConflictingIndexes) {
+        this.mongoTemplate = mongoTemplate;
+        this.onStartup = onStartup;
+        this.timeout = timeout;
+        this.replaceConflictingIndexes = replaceConflictingIndexes;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!onStartup) {
+            return;
+        }
+        initialize().block(timeout);
+        log.info("Índices de MongoDB verificados");
+    }
+
+    // Índices y migraciones corren por separado: un índice que falla no deja las
+    // migraciones sin aplicar. El error se informa cuando ambas partes terminan.
+    public Mono<Void> initialize() {
+        return Mono.whenDelayError(indexes(), migrations());
+    }
+
+    private Mono<Void> indexes() {
+        return Flux.concat(bootcampIndexes(), capabilityIndexes(), technologyIndexes(), enrollmentIndexes(),
+                personEnrollmentIndexes(), reportTaskIndexes())
+                .then();
+    }
+
+    private Mono<Void> migrations() {
+        return backfillCantidadCapacidades()
+                .then(backfillCantidadTecnologias())
+                .then(backfillFechaFin())
+                .then(runOnce(PERSON_ENROLLMENTS_MIGRATION, backfillPersonEnrollments()))
+                .then(runOnce(SUMMARY_FECHA_FIN_MIGRATION, repairSummaryFechaFin()))
+                .then(runOnce(CHANGE_STREAM_TOKENS_MIGRATION, dropChangeStreamTokens()));
+    }
+
+    private Flux<String> bootcampIndexes() {
+        var indexOps = mongoTemplate.indexOps(Bootcamp.class);
+        return Flux.concat(
+                createIndex(indexOps, new Index()
+                        .on("nombre", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .collation(NOMBRE_COLLATION)
+                        .named("nombre_ci_id")),
+                createIndex(indexOps, new Index()
+                        .on("cantidadCapacidades", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named("cantidadCapacidades_id")),
+                createIndex(indexOps, new Index()
+                        .on("cantidadPersonasInscritas", Sort.Direction.DESC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named("cantidadPersonasInscritas_id")),
+                // Único y sin collation: nombres que solo difieren en mayúsculas siguen siendo distintos
+                createIndex(indexOps, new Index()
+                        .on("nombre", Sort.Direction.ASC)
+                        .unique()
+                        .named("nombre")),
+                // Multikey: findDeleteCascade busca otros bootcamps con la misma capacidad
+                createIndex(indexOps, new Index()
+                        .on("capabilityIds", Sort.Direction.ASC)
+                        .named("capabilityIds")),
+                // Consultas por rango de fechas
+                createIndex(indexOps, new Index()
+                        .on("fechaLanzamiento", Sort.Direction.ASC)
+                        .on("fechaFin", Sort.Direction.ASC)
+                        .named("fechaLanzamiento_fechaFin")),
+                // Bootcamps que aún no terminan (elegibles para inscripción)
+                createIndex(indexOps, new Index()
+                        .on("fechaFin", Sort.Direction.ASC)
+                        .named("fechaFin")),
+                // findEndingFrom y findRunningBetween ordenan por lanzamiento: el índice entrega
+                // ese orden y fechaFin se filtra sobre sus claves, sin ordenar en memoria
+                createIndex(indexOps, new Index()
+                        .on("fechaLanzamiento", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .on("fechaFin", Sort.Direction.ASC)
+                        .named("fechaLanzamiento_id_fechaFin")));
+    }
+
+    private Flux<String> capabilityIndexes() {
+        var indexOps = mongoTemplate.indexOps(Capability.class);
+        return Flux.concat(
+                createIndex(indexOps, new Index()
+                        .on("nombre", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .collation(NOMBRE_COLLATION)
+                        .named("nombre_ci_id")),
+                createIndex(indexOps, new Index()
+                        .on("cantidadTecnologias", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC)
+                        .named("cantidadTecnologias_id")),
+                createIndex(indexOps, new Index()
+                        .on("nombre", Sort.Direction.ASC)
+                        .unique()
+                        .named("nombre")),
+                // Multikey: findDeleteCascade busca capacidades que comparten tecnologías
+                createIndex(indexOps, new Index()
+                        .on("technologyIds", Sort.Direction.ASC)
+                        .named("technologyIds")));
+    }
+
+    private Flux<String> technologyIndexes() {
+        return Flux.from(createIndex(mongoTemplate.indexOps(Technology.class), new Index()
+                .on("nombre", Sort.Direction.ASC)
+                .unique()
+                .named("nombre")));
+    }
+
+    private Flux<String> enrollmentIndexes() {
+        var indexOps = mongoTemplate.indexOps(Enrollment.class);
+        return Flux.concat(
+                // Una persona solo puede inscribirse una vez por bootcamp; por prefijo
+                // cubre también findByPersonId y countByPersonId
+                createIndex(indexOps, new Index()
+                        .on("personId", Sort.Direction.ASC)
+                        .on("bootcampId", Sort.Direction.ASC)
+                        .unique()
+                        .named("personId_bootcampId")),
+                createIndex(indexOps, new Index()
+                        .on("bootcampId", Sort.Direction.ASC)
+                        .named("bootcampId")));
+    }
+
+    private Flux<String> personEnrollmentIndexes() {
+        // Multikey: resúmenes que incluyen un bootcamp, para retirarlo al eliminarlo
+        return Flux.from(createIndex(mongoTemplate.indexOps(PersonEnrollments.class), new Index()
+                .on("bootcamps.bootcampId", Sort.Direction.ASC)
+                .named("bootcamps_bootcampId")));
+    }
+
+    private Flux<String> reportTaskIndexes() {
+        var indexOps = mongoTemplate.indexOps(ReportTask.class);
+        return Flux.concat(
+                // Tareas vencidas en orden de antigüedad
+                createIndex(indexOps, new Index()
+                        .on("nextAttemptAt", Sort.Direction.ASC)
+                        .named("nextAttemptAt")),
+                createIndex(indexOps, new Index()
+                        .on("claim", Sort.Direction.ASC)
+                        .sparse()
+                        .named("claim")),
+                // Antigüedad de la tarea más vieja (retraso de la cola)
+                createIndex(indexOps, new Index()
+                        .on("createdAt", Sort.Direction.ASC)
+                        .named("createdAt")));
+    }
+
+    // Si ya hay un índice con el mismo nombre o los mismos campos pero otra definición
+    // (p. ej. el antiguo "nombre" no único) el arranque falla: reemplazarlo deja la
+    // colección sin ese índice mientras se reconstruye y, con varios nodos arrancando,
+    // cada uno lo borraría al del otro. El reemplazo se pide explícitamente con
+    // onclass.mongo.replace-conflicting-indexes=true en un único nodo.
+    private Mono<String> createIndex(ReactiveIndexOperations indexOps, Index index) {
+        String name = index.getIndexOptions().getString("name");
+        List<String> fields = List.copyOf(index.getIndexKeys().keySet());
+
+        return indexOps.createIndex(index)
+                .onErrorResume(e -> isIndexConflict(e), e -> {
+                    if (!replaceConflictingIndexes) {
+                        return Mono.error(new IllegalStateException("El índice " + name + " ya existe con otra "
+                                + "definición; reemplácelo a mano o arranque un nodo con "
+                                + "onclass.mongo.replace-conflicting-indexes=true", e));
+                    }
+                    return indexOps.getIndexInfo()
+                            .filter(existing -> existing.getName().equals(name) || fields.equals(
+                                    existing.getIndexFields().stream().map(IndexField::getKey).toList()))
+                            .filter(existing -> !"_id_".equals(existing.getName()))
+                            .concatMap(existing -> {
+                                log.warn("Índice {} con otra definición, se reemplaza por {}", existing.getName(),
+                                        name);
+                                return indexOps.dropIndex(existing.getName());
+                            })
+                            .then(indexOps.createIndex(index));
+                })
+                .onErrorMap(e -> !(e instanceof IllegalStateException),
+                        e -> new IllegalStateException("No fue posible crear el índice " + name, e));
+    }
+
+    private static boolean isIndexConflict(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoError && INDEX_CONFLICT_CODES.contains(mongoError.getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Bootcamps creados antes de existir el campo cantidadCapacidades
+    private Mono<Void> backfillCantidadCapacidades() {
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("cantidadCapacidades").exists(false)),
+                AggregationUpdate.update()
+                        .set("cantidadCapacidades")
+                        .toValue(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("capabilityIds").then(List.of()))),
+                Bootcamp.class)
+                .then();
+    }
+
+    // Capacidades creadas antes de existir el campo cantidadTecnologias
+    private Mono<Void> backfillCantidadTecnologias() {
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("cantidadTecnologias").exists(false)),
+                AggregationUpdate.update()
+                        .set("cantidadTecnologias")
+                        .toValue(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("technologyIds").then(List.of()))),
+                Capability.class)
+                .then();
+    }
+
+    // Bootcamps creados antes de existir duracionSemanas y fechaFin. También repara los que
+    // quedaron con fechaFin null: si la duración no se puede interpretar, el periodo se reduce
+    // al día de lanzamiento y duracionSemanas queda null para poder corregirlos a mano.
+    private Mono<Void> backfillFechaFin() {
+        Document duracionSemanas = new Document("$convert", new Document("input",
+                new Document("$arrayElemAt", List.of(new Document("$split", List.of("$duracion", " ")), 0)))
+                .append("to", "int")
+                .append("onError", null)
+                .append("onNull", null));
+
+        Document fechaFin = new Document("$dateAdd", new Document("startDate", "$fechaLanzamiento")
+                .append("unit", "week")
+                .append("amount", new Document("$ifNull", List.of("$duracionSemanas", 0))));
+
+        Query sinDuracion = Query.query(Criteria.where("duracionSemanas").is(null)
+                .and("fechaLanzamiento").ne(null));
+
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("fechaFin").is(null)),
+                AggregationUpdate.from(List.of(
+                        stage(new Document("$set", new Document("duracionSemanas", duracionSemanas))),
+                        stage(new Document("$set", new Document("fechaFin", fechaFin))))),
+                Bootcamp.class)
+                .filter(result -> result.getModifiedCount() > 0)
+                .flatMap(result -> mongoTemplate.count(sinDuracion, Bootcamp.class))
+                .filter(count -> count > 0)
+                .doOnNext(count -> log.warn("{} bootcamps con duración no interpretable; su fechaFin es la de "
+                        + "lanzamiento", count))
+                .then();
+    }
+
+    // Entradas de resúmenes copiadas con fechaFin null antes de la reparación anterior
+    private Mono<Void> repairSummaryFechaFin() {
+        Document conFechaFin = new Document("$mergeObjects", List.of("$$this", new Document("fechaFin",
+                new Document("$ifNull", List.of("$$this.fechaFin", "$$this.fechaInicio")))));
+
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("bootcamps").elemMatch(Criteria.where("fechaFin").is(null))),
+                AggregationUpdate.from(List.of(stage(new Document("$set", new Document("bootcamps",
+                        new Document("$map", new Document("input", "$bootcamps").append("in", conFechaFin))))))),
+                PersonEnrollments.class)
+                .then();
+    }
+
+    // Resume tokens que el bus de invalidación guardaba por nodo; ya no se persisten y
+    // los de nodos que no volvieron quedaban huérfanos
+    private Mono<Void> dropChangeStreamTokens() {
+        return mongoTemplate.dropCollection("change_stream_tokens");
+    }
+
+    private Mono<Void> runOnce(String migration, Mono<Void> step) {
+        Query marker = Query.query(Criteria.where("_id").is(migration));
+
+        return mongoTemplate.exists(marker, MIGRATIONS_COLLECTION)
+                .filter(applied -> !applied)
+                .flatMap(pending -> step
+                        .then(mongoTemplate.upsert(marker, Update.update("aplicadaEn", new Date()),
+                                MIGRATIONS_COLLECTION))
+                        .doOnSuccess(result -> log.info("Migración {} aplicada", migration)))
+                .then();
+    }
+
+    // Resúmenes de inscripción a partir de enrollments. Si la persona ya tiene resumen
+    // (inscripciones atendidas por otro nodo mientras esta migración corría) se agregan
+    // solo los bootcamps que le falten; nunca se descarta lo que ya tiene.
+    private Mono<Void> backfillPersonEnrollments() {
+        Document missingBootcamps = new Document("$filter", new Document("input", "$$new.bootcamps")
+                .append("cond", new Document("$not", List.of(new Document("$in", List.of(
+                        "$$this.bootcampId",
+                        new Document("$ifNull", List.of("$bootcamps.bootcampId", List.of()))))))));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                stage(new Document("$set", new Document("bootcampObjectId", toObjectId("$bootcampId")))),
+                Aggregation.lookup("bootcamps", "bootcampObjectId", "_id", "bootcamp"),
+                Aggregation.unwind("bootcamp"),
+                stage(new Document("$group", new Document("_id", "$personId")
+                        .append("bootcamps", new Document("$push", new Document("bootcampId", "$bootcampId")
+                                .append("nombre", "$bootcamp.nombre")
+                                .append("fechaInicio", "$bootcamp.fechaLanzamiento")
+                                .append("fechaFin", "$bootcamp.fechaFin")))
+                        .append("version", new Document("$sum", 1)))),
+                stage(new Document("$merge", new Document("into", "person_enrollments")
+                        .append("on", "_id")
+                        .append("whenMatched", List.of(new Document("$set", new Document()
+                                .append("bootcamps", new Document("$concatArrays", List.of(
+                                        new Document("$ifNull", List.of("$bootcamps", List.of())),
+                                        missingBootcamps)))
+                                .append("version", new Document("$add", List.of(
+                                        new Document("$ifNull", List.of("$version", 0L)), 1L))))))
+                        .append("whenNotMatched", "insert"))));
+
+        return mongoTemplate.aggregate(aggregation, "enrollments", Document.class).then();
+    }
+}
@@ -0,0 +1,9 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Person;
+
+public interface MongoPersonRepository extends ReactiveMongoRepository<Person, String> {
+
+}
@@ -0,0 +1,29 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import org.springframework.stereotype.Repository;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Person;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.PersonRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class MongoPersonRepositoryAdapter implements PersonRepository {
+
+    private final MongoPersonRepository repository;
+
+    public MongoPersonRepositoryAdapter(MongoPersonRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Mono<Person> findById(String id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Flux<Person> findAllById(Iterable<String> ids) {
+        return repository.findAllById(ids);
+    }
+}
@@ -0,0 +1,88 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.ReportTask;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.ReportTaskRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class MongoReportTaskRepositoryAdapter implements ReportTaskRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public MongoReportTaskRepositoryAdapter(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<ReportTask> save(ReportTask task) {
+        return mongoTemplate.save(task);
+    }
+
+    @Override
+    public Flux<ReportTask> claimDue(Instant now, Duration lease, int limit) {
+        Query due = Query.query(Criteria.where("nextAttemptAt").lte(now))
+                .with(Sort.by("nextAttemptAt"))
+                .limit(limit);
+        due.fields().include("_id");
+
+        // Se marca con un claim propio y se vuelve a filtrar por vencimiento:
+        // si otro nodo se adelantó, esas tareas simplemente no se actualizan
+        String claim = UUID.randomUUID().toString();
+        return mongoTemplate.find(due, ReportTask.class)
+                .map(ReportTask::getId)
+                .collectList()
+                .filter(ids -> !ids.isEmpty())
+                .flatMap(ids -> mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("id").in(ids).and("nextAttemptAt").lte(now)),
+                        new Update().set("nextAttemptAt", now.plus(lease)).set("claim", claim),
+                        ReportTask.class))
+                .filter(result -> result.getModifiedCount() > 0)
+                .flatMapMany(result -> mongoTemplate.find(
+                        Query.query(Criteria.where("claim").is(claim)), ReportTask.class));
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), ReportTask.class).then();
+    }
+
+    @Override
+    public Mono<Void> reschedule(String id, Instant nextAttemptAt, String error) {
+        return mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(id)),
+                new Update()
+                        .set("nextAttemptAt", nextAttemptAt)
+                        .set("lastError", error)
+                        .inc("attempts", 1)
+                        .unset("claim"),
+                ReportTask.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return mongoTemplate.estimatedCount(ReportTask.class);
+    }
+
+    @Override
+    public Mono<ReportTask> findOldest() {
+        return mongoTemplate.findOne(new Query().with(Sort.by("createdAt")).limit(1), ReportTask.class);
+    }
+}
@@ -1,5 +1,12 @@
 package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Repository;
 
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
@@ -12,9 +19,14 @@ import reactor.core.publisher.Mono;
 public class MongoTechnologyRepositoryAdapter implements TechnologyRepository {
 
     private final MongoTechnologyRepository repository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final int cursorBatchSize;
 
-    public MongoTechnologyRepositoryAdapter(MongoTechnologyRepository repository) {
+    public MongoTechnologyRepositoryAdapter(MongoTechnologyRepository repository, ReactiveMongoTemplate mongoTemplate,
+            @Value("${onclass.mongo.cursor-batch-size:256}") int cursorBatchSize) {
         this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.cursorBatchSize = cursorBatchSize;
     }
 
     @Override
@@ -24,7 +36,8 @@ public class MongoTechnologyRepositoryAdapter implements TechnologyRepository {
 
     @Override
     public Flux<Technology> findAll() {
-        return repository.findAll();
+        // Lotes acotados: la demanda del cliente llega hasta el cursor de Mongo
+        return mongoTemplate.find(new Query().cursorBatchSize(cursorBatchSize), Technology.class);
     }
 
     @Override
@@ -46,4 +59,18 @@ public class MongoTechnologyRepositoryAdapter implements TechnologyRepository {
     public Flux<Technology> findAllById(Iterable<String> ids) {
         return repository.findAllById(ids);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Flux<Integer> insertAll(List<Technology> technologies) {
+        return BulkInserts.insertUnordered(mongoTemplate, technologies, Technology.class, Technology::getId,
+                technology -> technology.setId(BulkInserts.newId()));
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return mongoTemplate.remove(Query.query(Criteria.where("id").in(ids)), Technology.class).then();
+    }
+}
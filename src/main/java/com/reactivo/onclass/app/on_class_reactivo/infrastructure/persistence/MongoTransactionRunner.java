@@ -0,0 +1,45 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import java.time.Duration;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.mongodb.MongoException;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TransactionRunner;
+
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+@Component
+public class MongoTransactionRunner implements TransactionRunner {
+
+    // Reintentos ante conflictos de escritura con otra transacción; la unidad completa se repite
+    private static final int MAX_RETRIES = 3;
+
+    private final TransactionalOperator transactionalOperator;
+
+    public MongoTransactionRunner(ReactiveTransactionManager transactionManager) {
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    @Override
+    public <T> Mono<T> inTransaction(Mono<T> operation) {
+        return operation.as(transactionalOperator::transactional)
+                .retryWhen(Retry.backoff(MAX_RETRIES, Duration.ofMillis(20))
+                        .filter(MongoTransactionRunner::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    // WriteConflict y similares: el servidor marca la transacción para repetirla
+    static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoException mongoError
+                    && mongoError.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
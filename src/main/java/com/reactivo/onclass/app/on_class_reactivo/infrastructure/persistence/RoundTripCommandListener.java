@@ -0,0 +1,92 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.reactivestreams.Subscriber;
+
+import com.mongodb.RequestContext;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.reactivestreams.client.ReactiveContextProvider;
+
+import reactor.core.CoreSubscriber;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+// Cuenta los comandos enviados a Mongo en el DbRoundTrips de la petición. El driver
+// reactivo entrega el Context del suscriptor a través del ContextProvider; sin él los
+// eventos llegan sin contexto y no se cuenta nada.
+public class RoundTripCommandListener implements CommandListener {
+
+    private static final ReactiveContextProvider CONTEXT_PROVIDER = RoundTripCommandListener::contextOf;
+
+    public static ReactiveContextProvider contextProvider() {
+        return CONTEXT_PROVIDER;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (event.getRequestContext() instanceof ReactorRequestContext context) {
+            DbRoundTrips roundTrips = DbRoundTrips.from(context.view());
+            if (roundTrips != null) {
+                roundTrips.increment();
+            }
+        }
+    }
+
+    private static RequestContext contextOf(Subscriber<?> subscriber) {
+        return subscriber instanceof CoreSubscriber<?> core
+                ? new ReactorRequestContext(core.currentContext())
+                : new ReactorRequestContext(Context.empty());
+    }
+
+    // Vista de solo lectura del Context de Reactor
+    private static final class ReactorRequestContext implements RequestContext {
+
+        private final ContextView view;
+
+        ReactorRequestContext(ContextView view) {
+            this.view = view;
+        }
+
+        ContextView view() {
+            return view;
+        }
+
+        @Override
+        public <T> T get(Object key) {
+            return view.getOrDefault(key, null);
+        }
+
+        @Override
+        public boolean hasKey(Object key) {
+            return view.hasKey(key);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return view.isEmpty();
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            throw new UnsupportedOperationException("El contexto de la petición es de solo lectura");
+        }
+
+        @Override
+        public void delete(Object key) {
+            throw new UnsupportedOperationException("El contexto de la petición es de solo lectura");
+        }
+
+        @Override
+        public int size() {
+            return view.size();
+        }
+
+        @Override
+        public Stream<Map.Entry<Object, Object>> stream() {
+            return view.stream();
+        }
+    }
+}
@@ -3,7 +3,8 @@ package com.reactivo.onclass.app.on_class_reactivo;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Sin mongod en esta prueba: índices y migraciones se verifican en MongoIndexInitializerTest
+@SpringBootTest(properties = "onclass.mongo.initialize-on-startup=false")
 class OnClassReactivoApplicationTests {
 
 	@Test
@@ -0,0 +1,147 @@
+package com.reactivo.onclass.app.on_class_reactivo.application.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.reactivo.onclass.app.on_class_reactivo.application.handler.BootcampHandler;
+import com.reactivo.onclass.app.on_class_reactivo.application.router.BootCampRouter;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.EnrollmentRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.ReportTaskRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TransactionRunner;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampLeaderboard;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampUseCase;
+import com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence.RoundTripCommandListener;
+import com.reactivo.onclass.app.on_class_reactivo.support.RoundTripBudget;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+
+class DbRoundTripsWebFilterTest {
+
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final RoundTripCommandListener listener = new RoundTripCommandListener();
+    private SimpleMeterRegistry registry;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        RouterFunction<ServerResponse> routes = RouterFunctions
+                .route(GET("/bootcamps/{id}"), request -> command()
+                        .then(command())
+                        .then(command())
+                        .then(ServerResponse.ok().bodyValue("ok")))
+                .andRoute(GET("/health"), request -> ServerResponse.ok().bodyValue("ok"));
+
+        client = WebTestClient.bindToRouterFunction(routes)
+                .webFilter(new DbRoundTripsWebFilter(registry))
+                .build();
+    }
+
+    @Test
+    void filter_ShouldReportCommandsSentDuringTheRequest() {
+        WebTestClient.ResponseSpec response = client.get().uri("/bootcamps/b1").exchange();
+
+        response.expectStatus().isOk()
+                .expectHeader().valueEquals(DbRoundTripsWebFilter.HEADER, "3");
+        RoundTripBudget.assertWithin(response, 3);
+
+        DistributionSummary histogram = registry.get("onclass.db.roundtrips")
+                .tag("uri", "/bootcamps/{id}")
+                .summary();
+        assertEquals(1, histogram.count());
+        assertEquals(3.0, histogram.totalAmount());
+    }
+
+    @Test
+    void filter_ShouldReportZeroWithoutDatabaseAccess() {
+        client.get().uri("/health").exchange()
+                .expectHeader().valueEquals(DbRoundTripsWebFilter.HEADER, "0");
+    }
+
+    // Ruta real: router, handler y caso de uso, con repositorios que cuentan una ida a Mongo por llamada
+    @Test
+    void bootcampsRoute_ShouldStayWithinRoundTripBudget() {
+        BootcampRepository repository = Mockito.mock(BootcampRepository.class);
+        CapabilityRepository capabilityRepository = Mockito.mock(CapabilityRepository.class);
+        TechnologyRepository technologyRepository = Mockito.mock(TechnologyRepository.class);
+        BootcampUseCase useCase = new BootcampUseCase(repository, capabilityRepository, technologyRepository,
+                Mockito.mock(EnrollmentRepository.class), Mockito.mock(ReportTaskRepository.class),
+                Mockito.mock(TransactionRunner.class));
+
+        List<Bootcamp> bootcamps = IntStream.range(0, 5)
+                .mapToObj(i -> Bootcamp.builder().id("b" + i).nombre("Bootcamp " + i)
+                        .capabilityIds(List.of("c" + i, "c" + (i + 1))).build())
+                .toList();
+        List<Capability> capabilities = IntStream.range(0, 6)
+                .mapToObj(i -> Capability.builder().id("c" + i).nombre("Capacidad " + i)
+                        .technologyIds(List.of("t" + i)).build())
+                .toList();
+        List<Technology> technologies = IntStream.range(0, 6)
+                .mapToObj(i -> Technology.builder().id("t" + i).nombre("Tecnología " + i).build())
+                .toList();
+        when(repository.findAllPaginated("nombre", "asc", 0, 5))
+                .thenReturn(command().thenMany(Flux.fromIterable(bootcamps)));
+        when(capabilityRepository.findAllById(any()))
+                .thenReturn(command().thenMany(Flux.fromIterable(capabilities)));
+        when(technologyRepository.findAllById(any()))
+                .thenReturn(command().thenMany(Flux.fromIterable(technologies)));
+
+        BootcampHandler handler = new BootcampHandler(useCase, Mockito.mock(Validator.class),
+                new BootcampLeaderboard(10));
+        WebTestClient routeClient = WebTestClient.bindToRouterFunction(new BootCampRouter().bootcampRoutes(handler))
+                .webFilter(new DbRoundTripsWebFilter(registry))
+                .build();
+
+        WebTestClient.ResponseSpec response = routeClient.get().uri("/bootcamps?page=0&size=5")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+
+        response.expectStatus().isOk()
+                .expectBodyList(Bootcamp.class).hasSize(5);
+        // Página, capacidades y tecnologías: no crece con el tamaño de la página
+        RoundTripBudget.assertWithin(response, 3);
+    }
+
+    // Simula un publisher del driver: obtiene el contexto del suscriptor y emite el evento
+    private Mono<Void> command() {
+        return Mono.from(subscriber -> {
+            listener.commandStarted(new CommandStartedEvent(
+                    RoundTripCommandListener.contextProvider().getContext(subscriber),
+                    1L, 1, CONNECTION, "onclass", "find", new BsonDocument()));
+            Operators.complete(subscriber);
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.reactivo.onclass.app.on_class_reactivo.application.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampLeaderboard;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.BootcampUseCase;
+
+import jakarta.validation.Validator;
+
+class BootcampHandlerTest {
+
+    private BootcampHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        BootcampLeaderboard leaderboard = new BootcampLeaderboard(10);
+        leaderboard.reset(List.of(new BootcampEnrollmentCount("b1", 3)));
+        handler = new BootcampHandler(Mockito.mock(BootcampUseCase.class), Mockito.mock(Validator.class),
+                leaderboard);
+    }
+
+    @Test
+    void findTop_ShouldReturnRanking() {
+        assertEquals(HttpStatus.OK, statusFor("5"));
+    }
+
+    @Test
+    void findTop_ShouldRejectKOutOfRange() {
+        assertEquals(HttpStatus.BAD_REQUEST, statusFor("0"));
+        assertEquals(HttpStatus.BAD_REQUEST, statusFor("11"));
+    }
+
+    @Test
+    void findTop_ShouldRejectNonNumericK() {
+        assertEquals(HttpStatus.BAD_REQUEST, statusFor("diez"));
+    }
+
+    @Test
+    void findAllPaginated_ShouldRejectInvalidPageOrSize() {
+        assertEquals(HttpStatus.BAD_REQUEST, pageStatusFor("0", "0"));
+        assertEquals(HttpStatus.BAD_REQUEST, pageStatusFor("-1", "5"));
+        assertEquals(HttpStatus.BAD_REQUEST, pageStatusFor("0", "cinco"));
+    }
+
+    private HttpStatus pageStatusFor(String page, String size) {
+        MockServerRequest request = MockServerRequest.builder()
+                .queryParam("page", page)
+                .queryParam("size", size)
+                .queryParam("cursor", "")
+                .build();
+
+        return HttpStatus.valueOf(handler.findAllPaginated(request).block().statusCode().value());
+    }
+
+    private HttpStatus statusFor(String k) {
+        MockServerRequest request = MockServerRequest.builder()
+                .queryParam("k", k)
+                .build();
+
+        return HttpStatus.valueOf(handler.findTop(request).block().statusCode().value());
+    }
+}
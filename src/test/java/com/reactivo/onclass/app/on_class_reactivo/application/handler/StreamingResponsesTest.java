@@ -0,0 +1,40 @@
+package com.reactivo.onclass.app.on_class_reactivo.application.handler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.reactive.function.server.MockServerRequest;
+
+import reactor.core.publisher.Flux;
+
+class StreamingResponsesTest {
+
+    @Test
+    void ok_ShouldStreamNdjsonWhenRequested() {
+        assertEquals(MediaType.APPLICATION_NDJSON, negotiated("application/x-ndjson"));
+    }
+
+    @Test
+    void ok_ShouldStreamEventsWhenRequested() {
+        assertEquals(MediaType.TEXT_EVENT_STREAM, negotiated("text/event-stream, application/json;q=0.5"));
+    }
+
+    @Test
+    void ok_ShouldKeepJsonArrayByDefault() {
+        assertEquals(MediaType.APPLICATION_JSON, negotiated("*/*"));
+        assertEquals(MediaType.APPLICATION_JSON, negotiated("application/json, application/x-ndjson"));
+    }
+
+    private static MediaType negotiated(String accept) {
+        MockServerRequest request = MockServerRequest.builder()
+                .header(HttpHeaders.ACCEPT, accept)
+                .build();
+
+        return StreamingResponses.ok(request, Flux.just("a", "b"), String.class)
+                .block()
+                .headers()
+                .getContentType();
+    }
+}
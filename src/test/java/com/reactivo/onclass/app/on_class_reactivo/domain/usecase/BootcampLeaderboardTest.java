@@ -0,0 +1,62 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
+
+class BootcampLeaderboardTest {
+
+    private BootcampLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new BootcampLeaderboard(2);
+        leaderboard.reset(List.of(
+                new BootcampEnrollmentCount("b1", 3),
+                new BootcampEnrollmentCount("b2", 5),
+                new BootcampEnrollmentCount("b3", 3)));
+    }
+
+    @Test
+    void top_ShouldRankByEnrollmentsAndCapAtCapacity() {
+        List<BootcampEnrollmentCount> top = leaderboard.top(10);
+
+        assertEquals(2, top.size());
+        assertEquals("b2", top.get(0).getBootcampId());
+        // En empate desempata por id
+        assertEquals("b1", top.get(1).getBootcampId());
+    }
+
+    @Test
+    void apply_ShouldReorderWhenCountsChange() {
+        leaderboard.apply("b3", 3);
+
+        List<BootcampEnrollmentCount> top = leaderboard.top(2);
+
+        assertEquals("b3", top.get(0).getBootcampId());
+        assertEquals(6, top.get(0).getCantidad());
+        assertEquals("b2", top.get(1).getBootcampId());
+    }
+
+    @Test
+    void apply_ShouldDropBootcampWhenCountReachesZero() {
+        leaderboard.apply("b2", -5);
+
+        List<BootcampEnrollmentCount> top = leaderboard.top(2);
+
+        assertEquals(List.of("b1", "b3"), top.stream().map(BootcampEnrollmentCount::getBootcampId).toList());
+    }
+
+    @Test
+    void top_ShouldReturnEmpty_WhenNoEnrollments() {
+        leaderboard.reset(List.of());
+
+        assertTrue(leaderboard.top(5).isEmpty());
+    }
+}
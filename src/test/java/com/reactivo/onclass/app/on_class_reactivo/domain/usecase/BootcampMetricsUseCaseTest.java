@@ -1,6 +1,5 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
 
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -11,7 +10,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import com.reactivo.onclass.app.on_class_reactivo.application.dto.CapabilityDetailDTO;
+import com.reactivo.onclass.app.on_class_reactivo.application.dto.PersonDTO;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampEnrollmentCount;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Person;
@@ -21,6 +22,7 @@ import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRe
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.EnrollmentRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.PersonRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+import com.reactivo.onclass.app.on_class_reactivo.support.RoundTripBudget;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -52,27 +54,9 @@ public class BootcampMetricsUseCaseTest {
     @Test
     void shouldReturnBootcampWithMostEnrollments() {
 
-        // ---------- BOOTCAMPS ----------
-        Bootcamp boot1 = Bootcamp.builder()
-                .id("b1")
-                .nombre("Backend")
-                .descripcion("desc")
-                .capabilityIds(List.of("c1"))
-                .build();
-
-        Bootcamp boot2 = Bootcamp.builder()
-                .id("b2")
-                .nombre("Frontend")
-                .descripcion("desc")
-                .capabilityIds(List.of("c1", "c2"))
-                .build();
-
-        when(bootcampRepository.findAll())
-                .thenReturn(Flux.just(boot1, boot2));
-
-        // ---------- ENROLLMENT COUNTS ----------
-        when(enrollmentRepository.countByBootcampId("b1")).thenReturn(Mono.just(10L));
-        when(enrollmentRepository.countByBootcampId("b2")).thenReturn(Mono.just(15L));
+        // ---------- TECHNOLOGIES ----------
+        Technology t1 = Technology.builder().id("t1").nombre("Spring").descripcion("d").build();
+        Technology t2 = Technology.builder().id("t2").nombre("JavaScript").descripcion("d").build();
 
         // ---------- CAPABILITIES OF BOOT2 ----------
         Capability cap1 = Capability.builder()
@@ -80,6 +64,7 @@ public class BootcampMetricsUseCaseTest {
                 .nombre("Java")
                 .descripcion("desc")
                 .technologyIds(List.of("t1"))
+                .technologies(List.of(t1))
                 .build();
 
         Capability cap2 = Capability.builder()
@@ -87,25 +72,20 @@ public class BootcampMetricsUseCaseTest {
                 .nombre("React")
                 .descripcion("desc")
                 .technologyIds(List.of("t2"))
+                .technologies(List.of(t2))
                 .build();
 
-        when(capabilityRepository.findAllById(List.of("c1", "c2")))
-                .thenReturn(Flux.just(cap1, cap2));
-
-        // fallback matcher (evita errores si el iterable difiere)
-        when(capabilityRepository.findAllById(anyList()))
-                .thenReturn(Flux.just(cap1, cap2));
-
-        // ---------- TECHNOLOGIES ----------
-        Technology t1 = Technology.builder().id("t1").nombre("Spring").descripcion("d").build();
-        Technology t2 = Technology.builder().id("t2").nombre("JavaScript").descripcion("d").build();
-
-        when(technologyRepository.findAllById(List.of("t1"))).thenReturn(Flux.just(t1));
-        when(technologyRepository.findAllById(List.of("t2"))).thenReturn(Flux.just(t2));
+        // ---------- BOOTCAMP CON MÁS INSCRITOS (resuelto por la agregación) ----------
+        Bootcamp boot2 = Bootcamp.builder()
+                .id("b2")
+                .nombre("Frontend")
+                .descripcion("desc")
+                .capabilityIds(List.of("c1", "c2"))
+                .capabilities(List.of(cap1, cap2))
+                .build();
 
-        // fallback matcher
-        when(technologyRepository.findAllById(anyList()))
-                .thenReturn(Flux.just(t1, t2));
+        when(enrollmentRepository.findBootcampWithMostEnrollments())
+                .thenReturn(Mono.just(boot2));
 
         // ---------- ENROLLMENTS FOR BOOT2 ----------
         Enrollment e1 = Enrollment.builder().personId("p1").bootcampId("b2").build();
@@ -115,31 +95,145 @@ public class BootcampMetricsUseCaseTest {
                 .thenReturn(Flux.just(e1, e2));
 
         // ---------- PERSONS ----------
-        when(personRepository.findById("p1"))
-                .thenReturn(Mono.just(new Person("p1", "Carlos", "carlos@mail.com")));
-        when(personRepository.findById("p2"))
-                .thenReturn(Mono.just(new Person("p2", "Maria", "maria@mail.com")));
+        when(personRepository.findAllById(List.of("p1", "p2")))
+                .thenReturn(Flux.just(
+                        new Person("p2", "Maria", "maria@mail.com"),
+                        new Person("p1", "Carlos", "carlos@mail.com")));
 
         // ---------- EXECUTE ----------
         StepVerifier.create(useCase.getBootcampWithMostEnrollments())
                 .assertNext(result -> {
                     Assertions.assertEquals("b2", result.getId());
-                    Assertions.assertEquals(2, result.getPersonasInscritas().size());
+                    Assertions.assertEquals(List.of("Carlos", "Maria"), result.getPersonasInscritas().stream()
+                            .map(PersonDTO::getNombre)
+                            .toList());
                     Assertions.assertEquals(2, result.getCapacidades().size());
 
                     CapabilityDetailDTO capDto = result.getCapacidades().get(0);
                     Assertions.assertNotNull(capDto.getId());
+                    Assertions.assertEquals("Spring", capDto.getTecnologias().get(0).getNombre());
+                })
+                .verifyComplete();
+
+        // Sin conteos por bootcamp ni cargas adicionales del catálogo
+        Mockito.verifyNoInteractions(bootcampRepository, capabilityRepository, technologyRepository);
+        Mockito.verify(enrollmentRepository, Mockito.never()).countByBootcampId(Mockito.anyString());
+        // Agregación, inscripciones y una lectura de personas para todas
+        RoundTripBudget.assertPortCallsWithin(3, bootcampRepository, enrollmentRepository, capabilityRepository,
+                technologyRepository, personRepository);
+    }
+
+    @Test
+    void shouldReturnBootcampWithoutPersons_WhenThereAreNoEnrollments() {
+        Bootcamp boot = Bootcamp.builder().id("b1").nombre("Backend").capabilityIds(List.of()).build();
+
+        when(enrollmentRepository.findBootcampWithMostEnrollments()).thenReturn(Mono.empty());
+        when(bootcampRepository.findTopByCantidadPersonasInscritas(1)).thenReturn(Flux.just(boot));
+        when(capabilityRepository.findAllById(List.of())).thenReturn(Flux.empty());
+        when(technologyRepository.findAllById(List.of())).thenReturn(Flux.empty());
+        when(enrollmentRepository.findByBootcampId("b1")).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.getBootcampWithMostEnrollments())
+                .assertNext(result -> {
+                    Assertions.assertEquals("b1", result.getId());
+                    Assertions.assertEquals(List.of(), result.getPersonasInscritas());
                 })
                 .verifyComplete();
     }
 
     @Test
     void shouldFail_WhenNoBootcampsExist() {
-        when(bootcampRepository.findAll()).thenReturn(Flux.empty());
+        when(enrollmentRepository.findBootcampWithMostEnrollments()).thenReturn(Mono.empty());
+        when(bootcampRepository.findTopByCantidadPersonasInscritas(1)).thenReturn(Flux.empty());
 
         StepVerifier.create(useCase.getBootcampWithMostEnrollments())
                 .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
                         e.getMessage().contains("No existen bootcamps"))
                 .verify();
     }
+
+    @Test
+    void mostPopularBootcamp_ShouldBeEmpty_WhenThereAreNoBootcamps() {
+        when(bootcampRepository.findTopByCantidadPersonasInscritas(1)).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.getMostPopularBootcamp())
+                .verifyComplete();
+    }
+
+    @Test
+    void mostPopularBootcamp_ShouldReadMaterializedCounter() {
+        Bootcamp boot = Bootcamp.builder()
+                .id("b1")
+                .nombre("Backend")
+                .capabilityIds(List.of("c1"))
+                .cantidadPersonasInscritas(42)
+                .build();
+
+        Capability cap = Capability.builder()
+                .id("c1")
+                .nombre("Java")
+                .technologyIds(List.of("t1"))
+                .build();
+
+        Technology tech = Technology.builder().id("t1").nombre("Spring").descripcion("d").build();
+
+        when(bootcampRepository.findTopByCantidadPersonasInscritas(1)).thenReturn(Flux.just(boot));
+        when(capabilityRepository.findAllById(List.of("c1"))).thenReturn(Flux.just(cap));
+        when(technologyRepository.findAllById(List.of("t1"))).thenReturn(Flux.just(tech));
+        when(enrollmentRepository.findByBootcampId("b1")).thenReturn(Flux.just(
+                Enrollment.builder().personId("p1").bootcampId("b1").build(),
+                Enrollment.builder().personId("p2").bootcampId("b1").build()));
+        when(personRepository.findAllById(List.of("p1", "p2"))).thenReturn(Flux.just(
+                new Person("p1", "Carlos", "carlos@mail.com"),
+                new Person("p2", "Maria", "maria@mail.com")));
+
+        StepVerifier.create(useCase.getMostPopularBootcamp())
+                .assertNext(result -> {
+                    Assertions.assertEquals("b1", result.getId());
+                    Assertions.assertEquals("d", result.getCapacidades().get(0).getTecnologias().get(0).getDescripcion());
+                    Assertions.assertEquals(2, result.getPersonasInscritas().size());
+                })
+                .verifyComplete();
+
+        Mockito.verify(enrollmentRepository, Mockito.never()).countByBootcampId(Mockito.anyString());
+        // Bootcamp, capacidades, tecnologías, inscripciones y personas: una ida por colección
+        RoundTripBudget.assertPortCallsWithin(5, bootcampRepository, enrollmentRepository, capabilityRepository,
+                technologyRepository, personRepository);
+    }
+
+    @Test
+    void mostPopularBootcamp_ShouldTolerateLegacyDocumentsWithoutIdLists() {
+        Bootcamp sinCapacidades = Bootcamp.builder().id("b1").nombre("Legado").build();
+        Capability sinTecnologias = Capability.builder().id("c1").nombre("Java").build();
+        Bootcamp conCapacidad = Bootcamp.builder().id("b2").nombre("Backend").capabilityIds(List.of("c1")).build();
+
+        when(bootcampRepository.findTopByCantidadPersonasInscritas(1))
+                .thenReturn(Flux.just(sinCapacidades), Flux.just(conCapacidad));
+        when(capabilityRepository.findAllById(List.of())).thenReturn(Flux.empty());
+        when(capabilityRepository.findAllById(List.of("c1"))).thenReturn(Flux.just(sinTecnologias));
+        when(technologyRepository.findAllById(List.of())).thenReturn(Flux.empty());
+        when(enrollmentRepository.findByBootcampId(Mockito.anyString())).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.getMostPopularBootcamp())
+                .assertNext(result -> Assertions.assertEquals(List.of(), result.getCapacidades()))
+                .verifyComplete();
+        StepVerifier.create(useCase.getMostPopularBootcamp())
+                .assertNext(result -> Assertions.assertEquals(List.of(),
+                        result.getCapacidades().get(0).getTecnologias()))
+                .verifyComplete();
+    }
+
+    @Test
+    void reconcileEnrollmentCounts_ShouldApplyCountsFromEnrollments() {
+        List<BootcampEnrollmentCount> counts = List.of(
+                new BootcampEnrollmentCount("b1", 3),
+                new BootcampEnrollmentCount("b2", 1));
+
+        when(enrollmentRepository.countGroupedByBootcamp()).thenReturn(Flux.fromIterable(counts));
+        when(bootcampRepository.reconcileCantidadPersonasInscritas(counts)).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(useCase.reconcileEnrollmentCounts())
+                .expectNext(1L)
+                .verifyComplete();
+    }
 }
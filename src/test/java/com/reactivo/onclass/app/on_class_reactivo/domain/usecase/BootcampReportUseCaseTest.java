@@ -0,0 +1,133 @@
+package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampReport;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.ReportTask;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampReportRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.ReportTaskRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class BootcampReportUseCaseTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    private ReportTaskRepository taskRepository;
+    private BootcampRepository bootcampRepository;
+    private CapabilityRepository capabilityRepository;
+    private BootcampReportRepository reportRepository;
+    private BootcampReportUseCase useCase;
+
+    private final ReportTask webTask = task("r1", "b1", 0);
+    private final ReportTask datosTask = task("r2", "b2", 2);
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = Mockito.mock(ReportTaskRepository.class);
+        bootcampRepository = Mockito.mock(BootcampRepository.class);
+        capabilityRepository = Mockito.mock(CapabilityRepository.class);
+        reportRepository = Mockito.mock(BootcampReportRepository.class);
+        useCase = new BootcampReportUseCase(taskRepository, bootcampRepository, capabilityRepository,
+                reportRepository);
+
+        when(taskRepository.claimDue(any(), eq(LEASE), anyInt())).thenReturn(Flux.just(webTask, datosTask));
+        when(taskRepository.deleteAllById(anyCollection())).thenReturn(Mono.empty());
+        when(taskRepository.reschedule(any(), any(), any())).thenReturn(Mono.empty());
+
+        when(bootcampRepository.findAllById(Set.of("b1", "b2"))).thenReturn(Flux.just(
+                Bootcamp.builder().id("b1").nombre("Web").capabilityIds(List.of("c1", "c2")).build(),
+                Bootcamp.builder().id("b2").nombre("Datos").capabilityIds(List.of("c2"))
+                        .cantidadPersonasInscritas(3).build()));
+        when(capabilityRepository.countDistinctTechnologiesPerGroup(
+                Map.of("b1", List.of("c1", "c2"), "b2", List.of("c2"))))
+                .thenReturn(Mono.just(Map.of("b1", 3, "b2", 2)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processPendingReports_ShouldWriteWholeBatchWithOneInsert() {
+        when(reportRepository.insertAll(any())).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.processPendingReports(10, LEASE))
+                .expectNext(2)
+                .verifyComplete();
+
+        ArgumentCaptor<List<BootcampReport>> reports = ArgumentCaptor.forClass(List.class);
+        verify(reportRepository).insertAll(reports.capture());
+        assertEquals(List.of("r1", "r2"), reports.getValue().stream().map(BootcampReport::getId).toList());
+        assertEquals(3, reports.getValue().get(0).getCantidadTecnologias());
+        assertEquals(2, reports.getValue().get(1).getCantidadTecnologias());
+        assertEquals(3, reports.getValue().get(1).getCantidadPersonasInscritas());
+
+        verify(taskRepository).deleteAllById(List.of("r1", "r2"));
+        verify(capabilityRepository).countDistinctTechnologiesPerGroup(any());
+        verify(capabilityRepository, never()).findAllById(any());
+        verify(reportRepository, never()).save(any());
+    }
+
+    @Test
+    void processPendingReports_ShouldRescheduleWithBackoffWhenWriteFails() {
+        when(reportRepository.insertAll(any())).thenReturn(Flux.error(new IllegalStateException("sin conexión")));
+
+        StepVerifier.create(useCase.processPendingReports(10, LEASE))
+                .expectErrorMessage("sin conexión")
+                .verify();
+
+        ArgumentCaptor<Instant> first = ArgumentCaptor.forClass(Instant.class);
+        ArgumentCaptor<Instant> third = ArgumentCaptor.forClass(Instant.class);
+        verify(taskRepository).reschedule(eq("r1"), first.capture(), eq("sin conexión"));
+        verify(taskRepository).reschedule(eq("r2"), third.capture(), eq("sin conexión"));
+        assertEquals(Duration.ofSeconds(15), Duration.between(first.getValue(), third.getValue()));
+        verify(taskRepository, never()).deleteAllById(anyCollection());
+    }
+
+    @Test
+    void processPendingReports_ShouldReturnZeroWhenQueueIsEmpty() {
+        when(taskRepository.claimDue(any(), eq(LEASE), anyInt())).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.processPendingReports(10, LEASE))
+                .expectNext(0)
+                .verifyComplete();
+
+        verify(bootcampRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void backoff_ShouldDoubleUpToOneHour() {
+        assertEquals(Duration.ofSeconds(5), BootcampReportUseCase.backoff(0));
+        assertEquals(Duration.ofSeconds(20), BootcampReportUseCase.backoff(2));
+        assertEquals(Duration.ofHours(1), BootcampReportUseCase.backoff(15));
+        assertEquals(Duration.ofHours(1), BootcampReportUseCase.backoff(60));
+    }
+
+    private static ReportTask task(String id, String bootcampId, int attempts) {
+        ReportTask task = ReportTask.forBootcamp(bootcampId, Instant.now());
+        task.setId(id);
+        task.setAttempts(attempts);
+        return task;
+    }
+}
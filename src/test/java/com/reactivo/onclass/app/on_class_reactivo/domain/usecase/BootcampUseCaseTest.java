@@ -2,30 +2,39 @@ package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
 
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
-import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampReport;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampCascade;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.CursorPage;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.ReportTask;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
-import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampReportRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.EnrollmentRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.ReportTaskRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TransactionRunner;
+import com.reactivo.onclass.app.on_class_reactivo.support.RoundTripBudget;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyIterable;
 import static org.mockito.ArgumentMatchers.anyString;
 import reactor.test.StepVerifier;
 
@@ -34,7 +43,9 @@ public class BootcampUseCaseTest {
     private BootcampRepository repository;
     private CapabilityRepository capabilityRepository;
     private TechnologyRepository technologyRepository;
-    private BootcampReportRepository reportRepository;
+    private EnrollmentRepository enrollmentRepository;
+    private ReportTaskRepository reportTaskRepository;
+    private TransactionRunner transactionRunner;
     private BootcampUseCase useCase;
 
     @BeforeEach
@@ -42,8 +53,14 @@ public class BootcampUseCaseTest {
         repository = Mockito.mock(BootcampRepository.class);
         capabilityRepository = Mockito.mock(CapabilityRepository.class);
         technologyRepository = Mockito.mock(TechnologyRepository.class);
-        reportRepository = Mockito.mock(BootcampReportRepository.class);
-        useCase = new BootcampUseCase(repository, capabilityRepository, technologyRepository, reportRepository);
+        enrollmentRepository = Mockito.mock(EnrollmentRepository.class);
+        when(enrollmentRepository.removeBootcamp(anyString())).thenReturn(Mono.empty());
+        reportTaskRepository = Mockito.mock(ReportTaskRepository.class);
+        when(reportTaskRepository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        transactionRunner = Mockito.mock(TransactionRunner.class);
+        when(transactionRunner.inTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        useCase = new BootcampUseCase(repository, capabilityRepository, technologyRepository, enrollmentRepository,
+                reportTaskRepository, transactionRunner);
     }
 
     @Test
@@ -59,12 +76,50 @@ public class BootcampUseCaseTest {
         Capability c1 = Capability.builder().id("c1").technologyIds(List.of("t1")).build();
 
         when(capabilityRepository.findAllById(List.of("c1"))).thenReturn(Flux.just(c1));
-        when(repository.existsByNombre("Full Stack")).thenReturn(Mono.just(false));
         when(repository.save(any(Bootcamp.class))).thenReturn(Mono.just(bootcamp));
 
         StepVerifier.create(useCase.createBootcamp(bootcamp))
                 .expectNext(bootcamp)
                 .verifyComplete();
+
+        assert bootcamp.getCantidadCapacidades() == 1;
+        assertEquals(10, bootcamp.getDuracionSemanas());
+        assertEquals(bootcamp.getFechaLanzamiento().plusWeeks(10), bootcamp.getFechaFin());
+    }
+
+    @Test
+    void registerBootcamp_WithInvalidDuration_Fails() {
+        Bootcamp bootcamp = Bootcamp.builder()
+                .nombre("Full Stack")
+                .fechaLanzamiento(LocalDate.now())
+                .duracion("diez semanas")
+                .capabilityIds(List.of("c1"))
+                .build();
+
+        StepVerifier.create(useCase.createBootcamp(bootcamp))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                        e.getMessage().equals("Formato de duración inválido: diez semanas"))
+                .verify();
+
+        verify(repository, Mockito.never()).save(any());
+    }
+
+    @Test
+    void registerBootcamp_WithDuplicateName_Fails() {
+        Bootcamp bootcamp = Bootcamp.builder()
+                .nombre("Full Stack")
+                .duracion("10 semanas")
+                .capabilityIds(List.of("c1"))
+                .build();
+
+        when(repository.save(any(Bootcamp.class))).thenReturn(Mono.error(new DuplicateKeyException("E11000")));
+
+        StepVerifier.create(useCase.createBootcamp(bootcamp))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                        e.getMessage().equals("El nombre del bootcamp ya existe."))
+                .verify();
+
+        verify(repository, Mockito.never()).existsByNombre(anyString());
     }
 
     @Test
@@ -117,16 +172,18 @@ public class BootcampUseCaseTest {
         Bootcamp b1 = bootcamp("1", "Angular Bootcamp", 1);
         Bootcamp b2 = bootcamp("2", "React Bootcamp", 1);
 
-        when(repository.findAll()).thenReturn(Flux.just(b2, b1));
+        when(repository.findAllPaginated("nombre", "asc", 0, 10)).thenReturn(Flux.just(b1, b2));
 
         // Capabilities enriquecidas (mock mínimo)
-        when(capabilityRepository.findById(anyString()))
-                .thenReturn(Mono.just(cap("capX", 0)));
+        when(capabilityRepository.findAllById(anyIterable()))
+                .thenReturn(Flux.just(cap("capX", 0)));
 
         StepVerifier.create(useCase.getAllBootcamp("nombre", "asc", 0, 10))
                 .expectNextMatches(b -> b.getNombre().equals("Angular Bootcamp"))
                 .expectNextMatches(b -> b.getNombre().equals("React Bootcamp"))
                 .verifyComplete();
+
+        verify(repository, Mockito.never()).findAll();
     }
 
     @Test
@@ -134,9 +191,9 @@ public class BootcampUseCaseTest {
         Bootcamp b1 = bootcamp("1", "Angular Bootcamp", 1);
         Bootcamp b2 = bootcamp("2", "React Bootcamp", 1);
 
-        when(repository.findAll()).thenReturn(Flux.just(b1, b2));
-        when(capabilityRepository.findById(anyString()))
-                .thenReturn(Mono.just(cap("capX", 0)));
+        when(repository.findAllPaginated("nombre", "desc", 0, 10)).thenReturn(Flux.just(b2, b1));
+        when(capabilityRepository.findAllById(anyIterable()))
+                .thenReturn(Flux.just(cap("capX", 0)));
 
         StepVerifier.create(useCase.getAllBootcamp("nombre", "desc", 0, 10))
                 .expectNextMatches(b -> b.getNombre().equals("React Bootcamp"))
@@ -150,9 +207,9 @@ public class BootcampUseCaseTest {
         Bootcamp b2 = bootcamp("2", "Bootcamp B", 2);
         Bootcamp b3 = bootcamp("3", "Bootcamp C", 3);
 
-        when(repository.findAll()).thenReturn(Flux.just(b1, b2, b3));
-        when(capabilityRepository.findById(anyString()))
-                .thenReturn(Mono.just(cap("capX", 0)));
+        when(repository.findAllPaginated("cantidad", "asc", 0, 10)).thenReturn(Flux.just(b1, b2, b3));
+        when(capabilityRepository.findAllById(anyIterable()))
+                .thenReturn(Flux.just(cap("capX", 0)));
 
         StepVerifier.create(useCase.getAllBootcamp("cantidad", "asc", 0, 10))
                 .expectNextMatches(b -> b.getCapabilityIds().size() == 1)
@@ -167,9 +224,9 @@ public class BootcampUseCaseTest {
         Bootcamp b2 = bootcamp("2", "Bootcamp B", 2);
         Bootcamp b3 = bootcamp("3", "Bootcamp C", 3);
 
-        when(repository.findAll()).thenReturn(Flux.just(b3, b2, b1));
-        when(capabilityRepository.findById(anyString()))
-                .thenReturn(Mono.just(cap("capX", 0)));
+        when(repository.findAllPaginated("cantidad", "desc", 0, 10)).thenReturn(Flux.just(b3, b2, b1));
+        when(capabilityRepository.findAllById(anyIterable()))
+                .thenReturn(Flux.just(cap("capX", 0)));
 
         StepVerifier.create(useCase.getAllBootcamp("cantidad", "desc", 0, 10))
                 .expectNextMatches(b -> b.getCapabilityIds().size() == 3)
@@ -180,17 +237,72 @@ public class BootcampUseCaseTest {
 
     @Test
     void listBootcamps_Pagination() {
-        Bootcamp b1 = bootcamp("1", "Alpha", 1);
         Bootcamp b2 = bootcamp("2", "Beta", 1);
-        Bootcamp b3 = bootcamp("3", "Gamma", 1);
 
-        when(repository.findAll()).thenReturn(Flux.just(b1, b2, b3));
-        when(capabilityRepository.findById(anyString()))
-                .thenReturn(Mono.just(cap("capX", 0)));
+        when(repository.findAllPaginated("nombre", "asc", 1, 1)).thenReturn(Flux.just(b2));
+        when(capabilityRepository.findAllById(anyIterable()))
+                .thenReturn(Flux.just(cap("capX", 0)));
 
         StepVerifier.create(useCase.getAllBootcamp("nombre", "asc", 1, 1))
                 .expectNextMatches(b -> b.getNombre().equals("Beta"))
                 .verifyComplete();
+
+        verify(repository).findAllPaginated("nombre", "asc", 1, 1);
+    }
+
+    @Test
+    void listBootcampsAfter_ReturnsNextCursorAndResumesFromIt() {
+        Bootcamp b1 = bootcamp("1", "Alpha", 1);
+        Bootcamp b2 = bootcamp("2", "Beta", 1);
+        Bootcamp b3 = bootcamp("3", "Gamma", 1);
+
+        when(repository.findAllAfter("nombre", "asc", null, 3)).thenReturn(Flux.just(b1, b2, b3));
+        when(repository.findAllAfter(Mockito.eq("nombre"), Mockito.eq("asc"),
+                Mockito.argThat(c -> c != null && c.getLastId().equals("2") && c.getLastValue().equals("Beta")),
+                Mockito.eq(3)))
+                .thenReturn(Flux.just(b3));
+        when(capabilityRepository.findAllById(anyIterable()))
+                .thenReturn(Flux.just(cap("capX", 0)));
+
+        CursorPage<Bootcamp> first = useCase.getAllBootcampAfter("nombre", "asc", "", 2).block();
+
+        assert first.getItems().size() == 2;
+        assert first.getNextCursor() != null;
+
+        StepVerifier.create(useCase.getAllBootcampAfter("nombre", "asc", first.getNextCursor(), 2))
+                .assertNext(page -> {
+                    assert page.getItems().size() == 1;
+                    assert page.getItems().get(0).getNombre().equals("Gamma");
+                    assert page.getNextCursor() == null;
+                })
+                .verifyComplete();
+
+        verify(repository, Mockito.never()).findAllPaginated(anyString(), anyString(), Mockito.anyInt(),
+                Mockito.anyInt());
+    }
+
+    @Test
+    void listBootcampsAfter_FailsWhenCursorWasIssuedForAnotherOrder() {
+        String cursor = new PageCursor("nombre", false, "2", "Beta").encode();
+
+        StepVerifier.create(useCase.getAllBootcampAfter("cantidad", "asc", cursor, 2))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                        e.getMessage().equals("Cursor inválido"))
+                .verify();
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    void listBootcampsAfter_FailsWhenCursorValueIsNotANumber() {
+        String cursor = new PageCursor("cantidad", false, "2", "dos").encode();
+
+        StepVerifier.create(useCase.getAllBootcampAfter("cantidad", "asc", cursor, 2))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                        e.getMessage().equals("Cursor inválido"))
+                .verify();
+
+        Mockito.verifyNoInteractions(repository);
     }
 
     @Test
@@ -214,10 +326,9 @@ public class BootcampUseCaseTest {
         Technology tech1 = Technology.builder().id("t1").nombre("React").build();
         Technology tech2 = Technology.builder().id("t2").nombre("Angular").build();
 
-        when(repository.findAll()).thenReturn(Flux.just(b));
-        when(capabilityRepository.findById("cap1")).thenReturn(Mono.just(cap));
-        when(technologyRepository.findById("t1")).thenReturn(Mono.just(tech1));
-        when(technologyRepository.findById("t2")).thenReturn(Mono.just(tech2));
+        when(repository.findAllPaginated(null, null, 0, 10)).thenReturn(Flux.just(b));
+        when(capabilityRepository.findAllById(Set.of("cap1"))).thenReturn(Flux.just(cap));
+        when(technologyRepository.findAllById(Set.of("t1", "t2"))).thenReturn(Flux.just(tech2, tech1));
 
         StepVerifier.create(useCase.getAllBootcamp(null, null, 0, 10))
                 .assertNext(result -> {
@@ -232,221 +343,160 @@ public class BootcampUseCaseTest {
                     assert t.getNombre().equals("React");
                 })
                 .verifyComplete();
+
+        verify(capabilityRepository, Mockito.never()).findById(anyString());
+        verify(technologyRepository, Mockito.never()).findById(anyString());
     }
 
     @Test
-    void deleteBootcamp_shouldFail_whenBootcampNotFound() {
-        String id = "boot1";
-
-        Mockito.when(repository.findById(id))
-                .thenReturn(Mono.empty());
-
-        StepVerifier.create(useCase.deleteBootcamp(id))
-                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
-                        e.getMessage().equals("Bootcamp no encontrado"))
-                .verify();
+    void listBootcamps_LoadsSharedRelationsOncePerPage() {
+        Bootcamp b1 = bootcamp("1", "Alpha", 2);
+        Bootcamp b2 = bootcamp("2", "Beta", 3);
+
+        Capability cap0 = cap("cap0", 2);
+        Capability cap1 = cap("cap1", 3);
+        Capability cap2 = cap("cap2", 1);
+
+        when(repository.findAllPaginated("nombre", "asc", 0, 5)).thenReturn(Flux.just(b1, b2));
+        when(capabilityRepository.findAllById(anyIterable())).thenReturn(Flux.just(cap0, cap1, cap2));
+        when(technologyRepository.findAllById(anyIterable())).thenReturn(Flux.just(
+                Technology.builder().id("t0").nombre("Java").build(),
+                Technology.builder().id("t1").nombre("Go").build(),
+                Technology.builder().id("t2").nombre("Rust").build()));
+
+        StepVerifier.create(useCase.getAllBootcamp("nombre", "asc", 0, 5))
+                .assertNext(b -> assertEquals(List.of("cap0", "cap1"),
+                        b.getCapabilities().stream().map(Capability::getId).toList()))
+                .assertNext(b -> assertEquals(3, b.getCapabilities().size()))
+                .verifyComplete();
 
-        Mockito.verify(repository).findById(id);
+        // Ids compartidos entre bootcamps y capacidades se piden una sola vez
+        verify(capabilityRepository).findAllById(Set.of("cap0", "cap1", "cap2"));
+        verify(technologyRepository).findAllById(Set.of("t0", "t1", "t2"));
         Mockito.verifyNoMoreInteractions(capabilityRepository, technologyRepository);
     }
 
     @Test
-    void deleteBootcamp_shouldDeleteCapabilitiesNotUsedByOthers() {
-
-        String bootcampId = "boot1";
-        String capId = "cap1";
-
-        Bootcamp b = Bootcamp.builder()
-                .id(bootcampId)
-                .nombre("FullStack")
-                .capabilityIds(List.of(capId))
-                .build();
-
-        Capability cap = Capability.builder()
-                .id(capId)
-                .nombre("Frontend")
-                .technologyIds(List.of())
-                .build();
-
-        Mockito.when(repository.findById(bootcampId))
-                .thenReturn(Mono.just(b));
-
-        Mockito.when(repository.countByCapabilityIdsContains(capId))
-                .thenReturn(Mono.just(1L));
-
-        Mockito.when(capabilityRepository.findById(capId))
-                .thenReturn(Mono.just(cap));
-
-        Mockito.when(capabilityRepository.deleteById(capId))
-                .thenReturn(Mono.empty());
+    void listBootcamps_StaysWithinRoundTripBudgetForAnyPageSize() {
+        List<Bootcamp> page = IntStream.range(0, 20)
+                .mapToObj(i -> Bootcamp.builder().id("b" + i).nombre("Bootcamp " + i)
+                        .capabilityIds(List.of("cap" + i, "cap" + (i + 1))).build())
+                .toList();
+        List<Capability> capabilities = IntStream.range(0, 21)
+                .mapToObj(i -> Capability.builder().id("cap" + i).technologyIds(List.of("t" + i)).build())
+                .toList();
 
-        Mockito.when(repository.deleteById(bootcampId))
-                .thenReturn(Mono.empty());
+        when(repository.findAllPaginated("nombre", "asc", 0, 20)).thenReturn(Flux.fromIterable(page));
+        when(capabilityRepository.findAllById(anyIterable())).thenReturn(Flux.fromIterable(capabilities));
+        when(technologyRepository.findAllById(anyIterable())).thenReturn(Flux.empty());
 
-        StepVerifier.create(useCase.deleteBootcamp(bootcampId))
+        StepVerifier.create(useCase.getAllBootcamp("nombre", "asc", 0, 20))
+                .expectNextCount(20)
                 .verifyComplete();
 
-        Mockito.verify(capabilityRepository).deleteById(capId);
-        Mockito.verify(repository).deleteById(bootcampId);
+        // Página, capacidades y tecnologías: no crece con el tamaño de la página
+        RoundTripBudget.assertPortCallsWithin(3, repository, capabilityRepository, technologyRepository);
     }
 
     @Test
-    void deleteBootcamp_shouldNotDeleteCapabilityUsedByOthers() {
-
-        String bootcampId = "boot1";
-        String capId = "cap1";
-
-        Bootcamp b = Bootcamp.builder()
-                .id(bootcampId)
-                .nombre("FullStack")
-                .capabilityIds(List.of(capId))
-                .build();
-
-        Capability cap = Capability.builder()
-                .id(capId)
-                .nombre("Frontend")
-                .technologyIds(List.of("t1"))
-                .build();
-
-        Mockito.when(repository.findById(bootcampId))
-                .thenReturn(Mono.just(b));
-
-        Mockito.when(repository.countByCapabilityIdsContains(capId))
-                .thenReturn(Mono.just(2L));
-
-        Mockito.when(capabilityRepository.findById(capId))
-                .thenReturn(Mono.just(cap));
+    void deleteBootcamp_shouldFail_whenBootcampNotFound() {
+        String id = "boot1";
 
-        Mockito.when(repository.deleteById(bootcampId))
+        Mockito.when(repository.findDeleteCascade(id))
                 .thenReturn(Mono.empty());
 
-        StepVerifier.create(useCase.deleteBootcamp(bootcampId))
-                .verifyComplete();
+        StepVerifier.create(useCase.deleteBootcamp(id))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                        e.getMessage().equals("Bootcamp no encontrado"))
+                .verify();
 
-        Mockito.verify(capabilityRepository, Mockito.never()).deleteById(capId);
-        Mockito.verify(technologyRepository, Mockito.never()).deleteById(Mockito.any());
+        Mockito.verify(repository, Mockito.never()).deleteById(id);
+        Mockito.verifyNoInteractions(capabilityRepository, technologyRepository, enrollmentRepository);
     }
 
     @Test
-    void deleteBootcamp_shouldDeleteTechnologiesNotUsedByOthers() {
+    void deleteBootcamp_shouldDeleteOrphansWithOneCallPerCollection() {
 
         String bootcampId = "boot1";
-        String capId = "cap1";
-        String techId = "t1";
 
-        Bootcamp b = Bootcamp.builder()
-                .id(bootcampId)
-                .capabilityIds(List.of(capId))
-                .build();
-
-        Capability cap = Capability.builder()
-                .id(capId)
-                .technologyIds(List.of(techId))
-                .build();
-
-        Mockito.when(repository.findById(bootcampId))
-                .thenReturn(Mono.just(b));
-
-        Mockito.when(capabilityRepository.findById(capId))
-                .thenReturn(Mono.just(cap));
-
-        Mockito.when(repository.countByCapabilityIdsContains(capId))
-                .thenReturn(Mono.just(1L));
-
-        Mockito.when(capabilityRepository.countByTechnologyIdsContains(techId))
-                .thenReturn(Mono.just(1L));
-
-        Mockito.when(technologyRepository.deleteById(techId))
+        Mockito.when(repository.findDeleteCascade(bootcampId))
+                .thenReturn(Mono.just(new BootcampCascade(bootcampId, List.of("cap1", "cap2"), List.of("t1"))));
+        Mockito.when(technologyRepository.deleteAllById(List.of("t1")))
                 .thenReturn(Mono.empty());
-
-        Mockito.when(capabilityRepository.deleteById(capId))
+        Mockito.when(capabilityRepository.deleteAllById(List.of("cap1", "cap2")))
                 .thenReturn(Mono.empty());
-
         Mockito.when(repository.deleteById(bootcampId))
                 .thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.deleteBootcamp(bootcampId))
                 .verifyComplete();
 
-        Mockito.verify(technologyRepository).deleteById(techId);
-        Mockito.verify(capabilityRepository).deleteById(capId);
+        Mockito.verify(technologyRepository).deleteAllById(List.of("t1"));
+        Mockito.verify(capabilityRepository).deleteAllById(List.of("cap1", "cap2"));
+        Mockito.verify(enrollmentRepository).removeBootcamp(bootcampId);
         Mockito.verify(repository).deleteById(bootcampId);
+        Mockito.verify(transactionRunner).inTransaction(Mockito.any());
+        RoundTripBudget.assertPortCallsWithin(5, repository, capabilityRepository, technologyRepository,
+                enrollmentRepository);
     }
 
     @Test
-    void deleteBootcamp_shouldNotDeleteTechnologyUsedByOthers() {
+    void deleteBootcamp_shouldOnlyDeleteBootcampWhenNothingIsOrphaned() {
 
         String bootcampId = "boot1";
-        String capId = "cap1";
-        String techId = "t1";
-
-        Bootcamp b = Bootcamp.builder()
-                .id(bootcampId)
-                .capabilityIds(List.of(capId))
-                .build();
-
-        Capability cap = Capability.builder()
-                .id(capId)
-                .technologyIds(List.of(techId))
-                .build();
-
-        Mockito.when(repository.findById(bootcampId))
-                .thenReturn(Mono.just(b));
-
-        Mockito.when(capabilityRepository.findById(capId))
-                .thenReturn(Mono.just(cap));
 
-        Mockito.when(repository.countByCapabilityIdsContains(capId))
-                .thenReturn(Mono.just(1L));
-
-        Mockito.when(capabilityRepository.countByTechnologyIdsContains(techId))
-                .thenReturn(Mono.just(3L));
-
-        Mockito.when(capabilityRepository.deleteById(capId))
+        Mockito.when(repository.findDeleteCascade(bootcampId))
+                .thenReturn(Mono.just(new BootcampCascade(bootcampId, List.of(), List.of())));
+        Mockito.when(technologyRepository.deleteAllById(List.of()))
+                .thenReturn(Mono.empty());
+        Mockito.when(capabilityRepository.deleteAllById(List.of()))
                 .thenReturn(Mono.empty());
-
         Mockito.when(repository.deleteById(bootcampId))
                 .thenReturn(Mono.empty());
 
         StepVerifier.create(useCase.deleteBootcamp(bootcampId))
                 .verifyComplete();
 
-        Mockito.verify(technologyRepository, Mockito.never()).deleteById(techId);
-        Mockito.verify(capabilityRepository).deleteById(capId);
+        Mockito.verify(capabilityRepository, Mockito.never()).deleteById(Mockito.any());
+        Mockito.verify(technologyRepository, Mockito.never()).deleteById(Mockito.any());
+        Mockito.verify(repository).deleteById(bootcampId);
     }
 
     @Test
-    void createBootcamp_ShouldCreateReportAsync() {
+    void createBootcamp_ShouldEnqueueReportTaskInSameTransaction() {
 
         Bootcamp bootcamp = Bootcamp.builder()
                 .id("b1")
                 .nombre("Bootcamp Web")
+                .duracion("6 semanas")
                 .capabilityIds(List.of("c1", "c2"))
                 .build();
 
-        Capability c1 = Capability.builder().id("c1").technologyIds(List.of("t1")).build();
-        Capability c2 = Capability.builder().id("c2").technologyIds(List.of("t2", "t3")).build();
-
-        Technology t1 = Technology.builder().id("t1").build();
-        Technology t2 = Technology.builder().id("t2").build();
-        Technology t3 = Technology.builder().id("t3").build();
-
-        when(repository.existsByNombre("Bootcamp Web")).thenReturn(Mono.just(false));
         when(repository.save(any())).thenReturn(Mono.just(bootcamp));
 
-        when(capabilityRepository.findAllById(List.of("c1", "c2")))
-                .thenReturn(Flux.just(c1, c2));
-
-        when(technologyRepository.findAllById(anyList()))
-                .thenReturn(Flux.just(t1, t2, t3));
-
-        when(reportRepository.save(any())).thenReturn(Mono.just(new BootcampReport()));
-
         StepVerifier.create(useCase.createBootcamp(bootcamp))
                 .expectNext(bootcamp)
                 .verifyComplete();
 
-        verify(reportRepository, timeout(500).times(1)).save(any());
+        verify(transactionRunner).inTransaction(any());
+        verify(reportTaskRepository).save(Mockito.argThat((ReportTask task) -> "b1".equals(task.getBootcampId())
+                && task.getNextAttemptAt() != null && task.getAttempts() == 0));
+        // El reporte ya no se calcula durante la creación
+        verify(capabilityRepository, Mockito.never()).findAllById(anyList());
     }
 
+    @Test
+    void getCalendar_ShouldStreamBootcampsOverlappingWindow() {
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 6, 30);
+
+        Bootcamp b1 = Bootcamp.builder().id("b1").fechaLanzamiento(LocalDate.of(2025, 2, 1)).build();
+        Bootcamp b2 = Bootcamp.builder().id("b2").fechaLanzamiento(LocalDate.of(2025, 5, 1)).build();
+
+        when(repository.findRunningBetween(from, to)).thenReturn(Flux.just(b1, b2));
+
+        StepVerifier.create(useCase.getCalendar(from, to))
+                .expectNext(b1, b2)
+                .verifyComplete();
+    }
 }
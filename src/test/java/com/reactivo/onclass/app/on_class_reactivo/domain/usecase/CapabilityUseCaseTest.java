@@ -3,11 +3,15 @@ package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
 import java.util.List;
 import java.util.stream.IntStream;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
 
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BulkItemResult;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
 
@@ -39,15 +43,15 @@ class CapabilityUseCaseTest {
                 .technologyIds(ids)
                 .build();
 
-        Mockito.when(repository.existsByNombre("Backend avanzado")).thenReturn(Mono.just(false));
         Mockito.when(repository.save(capability)).thenReturn(Mono.just(capability));
 
         StepVerifier.create(useCase.createCapability(capability))
                 .expectNext(capability)
                 .verifyComplete();
 
-        Mockito.verify(repository).existsByNombre("Backend avanzado");
+        Mockito.verify(repository, Mockito.never()).existsByNombre(Mockito.any());
         Mockito.verify(repository).save(capability);
+        Assertions.assertEquals(3, capability.getCantidadTecnologias());
     }
 
     @Test
@@ -118,26 +122,25 @@ class CapabilityUseCaseTest {
                 .technologyIds(ids)
                 .build();
 
-        Mockito.when(repository.existsByNombre("Backend avanzado"))
-                .thenReturn(Mono.just(true));
+        Mockito.when(repository.save(capability))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000")));
 
         StepVerifier.create(useCase.createCapability(capability))
                 .expectErrorMatches(error -> error instanceof IllegalArgumentException &&
                         error.getMessage().equals("El nombre de la capacidad ya existe"))
                 .verify();
 
-        Mockito.verify(repository).existsByNombre("Backend avanzado");
-        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(repository).save(capability);
     }
 
     @Test
     void getAllCapabilities_shouldReturnFluxOfCapabilities() {
-        var cap1 = new Capability("1", "Backend", "Capacidad backend", List.of(), List.of());
-        var cap2 = new Capability("2", "Frontend", "Capacidad frontend", List.of(), List.of());
+        var cap1 = new Capability("1", "Backend", "Capacidad backend", List.of(), 0, List.of());
+        var cap2 = new Capability("2", "Frontend", "Capacidad frontend", List.of(), 0, List.of());
 
-        Mockito.when(repository.findAll()).thenReturn(Flux.just(cap1, cap2));
-        Mockito.when(technologyRepository.findById(Mockito.anyString()))
-                .thenReturn(Mono.empty()); // no tecnologías
+        Mockito.when(repository.findAllPaginated("nombre", "asc", 0, 10)).thenReturn(Flux.just(cap1, cap2));
+        Mockito.when(technologyRepository.findAllById(Mockito.anyIterable()))
+                .thenReturn(Flux.empty()); // no tecnologías
 
         StepVerifier.create(useCase.getAllCapabilities("nombre", "asc", 0, 10))
                 .expectNextCount(2)
@@ -151,8 +154,8 @@ class CapabilityUseCaseTest {
         var cap2 = Capability.builder()
                 .id("2").nombre("Frontend").technologyIds(List.of()).build();
 
-        Mockito.when(repository.findAll()).thenReturn(Flux.just(cap2, cap1));
-        Mockito.when(technologyRepository.findById(Mockito.anyString())).thenReturn(Mono.empty());
+        Mockito.when(repository.findAllPaginated("nombre", "asc", 0, 10)).thenReturn(Flux.just(cap1, cap2));
+        Mockito.when(technologyRepository.findAllById(Mockito.anyIterable())).thenReturn(Flux.empty());
 
         StepVerifier.create(useCase.getAllCapabilities("nombre", "asc", 0, 10))
                 .expectNextMatches(cap -> cap.getNombre().equals("Backend"))
@@ -163,12 +166,12 @@ class CapabilityUseCaseTest {
     @Test
     void getAllCapabilities_shouldSortByTechCountDescending() {
         var cap1 = Capability.builder()
-                .id("1").nombre("A").technologyIds(List.of("1", "2")).build();
+                .id("1").nombre("A").technologyIds(List.of("1", "2")).cantidadTecnologias(2).build();
         var cap2 = Capability.builder()
-                .id("2").nombre("B").technologyIds(List.of("3", "4", "5")).build();
+                .id("2").nombre("B").technologyIds(List.of("3", "4", "5")).cantidadTecnologias(3).build();
 
-        Mockito.when(repository.findAll()).thenReturn(Flux.just(cap1, cap2));
-        Mockito.when(technologyRepository.findById(Mockito.anyString())).thenReturn(Mono.empty());
+        Mockito.when(repository.findAllPaginated("cantidad", "desc", 0, 10)).thenReturn(Flux.just(cap2, cap1));
+        Mockito.when(technologyRepository.findAllById(Mockito.anyIterable())).thenReturn(Flux.empty());
 
         StepVerifier.create(useCase.getAllCapabilities("cantidad", "desc", 0, 10))
                 .expectNextMatches(cap -> cap.getNombre().equals("B"))
@@ -178,7 +181,7 @@ class CapabilityUseCaseTest {
 
     @Test
     void getAllCapabilities_shouldPaginateCorrectly() {
-        var caps = IntStream.range(0, 6)
+        var caps = IntStream.range(2, 4)
                 .mapToObj(i -> Capability.builder()
                         .id(String.valueOf(i))
                         .nombre("Cap" + i)
@@ -186,13 +189,81 @@ class CapabilityUseCaseTest {
                         .build())
                 .toList();
 
-        Mockito.when(repository.findAll()).thenReturn(Flux.fromIterable(caps));
-        Mockito.when(technologyRepository.findById(Mockito.anyString())).thenReturn(Mono.empty());
+        Mockito.when(repository.findAllPaginated("nombre", "asc", 1, 2)).thenReturn(Flux.fromIterable(caps));
+        Mockito.when(technologyRepository.findAllById(Mockito.anyIterable())).thenReturn(Flux.empty());
 
         StepVerifier.create(useCase.getAllCapabilities("nombre", "asc", 1, 2))
                 .expectNextMatches(cap -> cap.getNombre().equals("Cap2"))
                 .expectNextMatches(cap -> cap.getNombre().equals("Cap3"))
                 .verifyComplete();
+
+        Mockito.verify(repository, Mockito.never()).findAll();
     }
 
+    @Test
+    void getAllCapabilitiesAfter_shouldUseTechCountAsCursorKey() {
+        var cap1 = Capability.builder()
+                .id("1").nombre("B").technologyIds(List.of()).cantidadTecnologias(5).build();
+        var cap2 = Capability.builder()
+                .id("2").nombre("A").technologyIds(List.of()).cantidadTecnologias(4).build();
+
+        Mockito.when(repository.findAllAfter("cantidad", "desc", null, 2)).thenReturn(Flux.just(cap1, cap2));
+
+        StepVerifier.create(useCase.getAllCapabilitiesAfter("cantidad", "desc", null, 1))
+                .assertNext(page -> {
+                    Assertions.assertEquals(1, page.getItems().size());
+                    PageCursor next = PageCursor.decode(page.getNextCursor(), "cantidad", "desc");
+                    Assertions.assertEquals("1", next.getLastId());
+                    Assertions.assertEquals("5", next.getLastValue());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllCapabilitiesAfter_shouldOmitCursorOnLastPage() {
+        var cap1 = Capability.builder()
+                .id("1").nombre("Backend").technologyIds(List.of()).build();
+
+        Mockito.when(repository.findAllAfter("nombre", "asc", null, 6)).thenReturn(Flux.just(cap1));
+
+        StepVerifier.create(useCase.getAllCapabilitiesAfter("nombre", "asc", "", 5))
+                .assertNext(page -> {
+                    Assertions.assertEquals(1, page.getItems().size());
+                    Assertions.assertNull(page.getNextCursor());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void importCapabilities_shouldApplyDomainRulesPerRow() {
+        var valida = Capability.builder()
+                .nombre("Backend").descripcion("Capacidad").technologyIds(List.of("1", "2", "3")).build();
+        var pocas = Capability.builder()
+                .nombre("Frontend").descripcion("Capacidad").technologyIds(List.of("1")).build();
+
+        Mockito.when(repository.insertAll(List.of(valida))).thenAnswer(invocation -> {
+            valida.setId("c1");
+            return Flux.empty();
+        });
+
+        StepVerifier.create(useCase.importCapabilities(Flux.just(valida, pocas), capability -> null, 100))
+                .expectNext(BulkItemResult.inserted(0, "c1"))
+                .expectNext(BulkItemResult.rejected(1, "Debe tener al menos 3 tecnologías asociadas"))
+                .verifyComplete();
+
+        Assertions.assertEquals(3, valida.getCantidadTecnologias());
+    }
+
+    @Test
+    void importCapabilities_shouldRejectWholeChunkWhenInsertFails() {
+        var valida = Capability.builder()
+                .nombre("Backend").descripcion("Capacidad").technologyIds(List.of("1", "2", "3")).build();
+
+        Mockito.when(repository.insertAll(Mockito.anyList()))
+                .thenReturn(Flux.error(new IllegalStateException("Sin conexión")));
+
+        StepVerifier.create(useCase.importCapabilities(Flux.just(valida), capability -> null, 100))
+                .expectNext(BulkItemResult.rejected(0, "No fue posible procesar la fila, intente nuevamente"))
+                .verifyComplete();
+    }
 }
@@ -1,19 +1,31 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BulkItemResult;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.EnrolledBootcamp;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PersonEnrollments;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.EnrollmentRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TransactionRunner;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -23,23 +35,23 @@ public class EnrollmentUseCaseTest {
 
     private EnrollmentRepository enrollmentRepository;
     private BootcampRepository bootcampRepository;
+    private TransactionRunner transactionRunner;
     private EnrollmentUseCase useCase;
 
     @BeforeEach
     void setUp() {
         enrollmentRepository = Mockito.mock(EnrollmentRepository.class);
         bootcampRepository = Mockito.mock(BootcampRepository.class);
-        useCase = new EnrollmentUseCase(enrollmentRepository, bootcampRepository);
+        transactionRunner = Mockito.mock(TransactionRunner.class);
+        when(transactionRunner.inTransaction(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        useCase = new EnrollmentUseCase(enrollmentRepository, bootcampRepository, transactionRunner);
 
         // Defaults para evitar nulls
-        when(enrollmentRepository.existsByPersonIdAndBootcampId(anyString(), anyString()))
-                .thenReturn(Mono.just(false));
-
-        when(enrollmentRepository.countByPersonId(anyString()))
-                .thenReturn(Mono.just(0L));
+        when(enrollmentRepository.findSummaryByPersonId(anyString()))
+                .thenReturn(Mono.empty());
 
-        when(enrollmentRepository.findByPersonId(anyString()))
-                .thenReturn(Flux.empty());
+        when(bootcampRepository.incrementCantidadPersonasInscritas(anyString(), anyInt()))
+                .thenReturn(Mono.empty());
     }
 
     // Helper
@@ -48,10 +60,35 @@ public class EnrollmentUseCaseTest {
                 .id(id)
                 .nombre("Bootcamp " + id)
                 .duracion(semanas + " semanas")
+                .duracionSemanas(semanas)
                 .fechaLanzamiento(LocalDate.of(2025, 1, 1))
+                .fechaFin(LocalDate.of(2025, 1, 1).plusWeeks(semanas))
+                .build();
+    }
+
+    // Helper
+    private EnrolledBootcamp buildInscrito(String id, LocalDate inicio, int semanas) {
+        return EnrolledBootcamp.builder()
+                .bootcampId(id)
+                .nombre("Bootcamp " + id)
+                .fechaInicio(inicio)
+                .fechaFin(inicio.plusWeeks(semanas))
                 .build();
     }
 
+    // Helper: la actualización condicional rechaza y el resumen explica el motivo
+    private void rejectWithSummary(EnrolledBootcamp... inscritos) {
+        when(enrollmentRepository.admit(any(Enrollment.class), any(EnrolledBootcamp.class), anyInt()))
+                .thenReturn(Mono.empty());
+
+        when(enrollmentRepository.findSummaryByPersonId("p1"))
+                .thenReturn(Mono.just(PersonEnrollments.builder()
+                        .id("p1")
+                        .bootcamps(List.of(inscritos))
+                        .version((long) inscritos.length)
+                        .build()));
+    }
+
     // --------------------------------------------------------
     @Test
     void enrollPerson_Success() {
@@ -68,41 +105,66 @@ public class EnrollmentUseCaseTest {
                 .fechaInscripcion(LocalDate.now())
                 .build();
 
-        when(enrollmentRepository.save(any(Enrollment.class)))
+        ArgumentCaptor<EnrolledBootcamp> inscrito = ArgumentCaptor.forClass(EnrolledBootcamp.class);
+        when(enrollmentRepository.admit(any(Enrollment.class), inscrito.capture(), eq(5)))
                 .thenReturn(Mono.just(saved));
 
         StepVerifier.create(useCase.enrollPerson("p1", "b1"))
                 .expectNext(saved)
                 .verifyComplete();
+
+        assertEquals(LocalDate.of(2025, 3, 12), inscrito.getValue().getFechaFin());
+        Mockito.verify(bootcampRepository).incrementCantidadPersonasInscritas("b1", 1);
+        // Inscripción y contador en una sola transacción
+        Mockito.verify(transactionRunner).inTransaction(any());
+        // El camino feliz no lee el resumen ni las inscripciones previas
+        Mockito.verify(enrollmentRepository, Mockito.never()).findSummaryByPersonId(anyString());
+        Mockito.verify(enrollmentRepository, Mockito.never()).findByPersonId(anyString());
     }
 
     // --------------------------------------------------------
     @Test
     void enrollPerson_Fails_WhenAlreadyEnrolledInBootcamp() {
 
-        when(enrollmentRepository.existsByPersonIdAndBootcampId("p1", "b1"))
-                .thenReturn(Mono.just(true));
+        when(bootcampRepository.findById("b1"))
+                .thenReturn(Mono.just(buildBootcamp("b1", 10)));
+
+        rejectWithSummary(buildInscrito("b1", LocalDate.of(2025, 1, 1), 10));
+
+        StepVerifier.create(useCase.enrollPerson("p1", "b1"))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                        e.getMessage().equals("La persona ya está inscrita en este bootcamp"))
+                .verify();
+    }
+
+    // --------------------------------------------------------
+    @Test
+    void enrollPerson_Fails_WhenConcurrentDuplicateHitsUniqueIndex() {
 
-        // NECESARIO para evitar null
         when(bootcampRepository.findById("b1"))
-                .thenReturn(Mono.empty());
+                .thenReturn(Mono.just(buildBootcamp("b1", 10)));
+
+        when(enrollmentRepository.admit(any(Enrollment.class), any(EnrolledBootcamp.class), anyInt()))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000")));
 
         StepVerifier.create(useCase.enrollPerson("p1", "b1"))
                 .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
                         e.getMessage().equals("La persona ya está inscrita en este bootcamp"))
                 .verify();
+
+        Mockito.verify(bootcampRepository, Mockito.never()).incrementCantidadPersonasInscritas(anyString(), anyInt());
     }
 
     // --------------------------------------------------------
     @Test
     void enrollPerson_Fails_WhenMoreThanFiveBootcamps() {
 
-        when(enrollmentRepository.countByPersonId("p1"))
-                .thenReturn(Mono.just(5L));
-
-        // NECESARIO para evitar null
         when(bootcampRepository.findById("b1"))
-                .thenReturn(Mono.empty());
+                .thenReturn(Mono.just(buildBootcamp("b1", 10)));
+
+        rejectWithSummary(IntStream.range(0, 5)
+                .mapToObj(i -> buildInscrito("otro" + i, LocalDate.of(2024, 1, 1).plusWeeks(2L * i), 1))
+                .toArray(EnrolledBootcamp[]::new));
 
         StepVerifier.create(useCase.enrollPerson("p1", "b1"))
                 .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
@@ -121,6 +183,8 @@ public class EnrollmentUseCaseTest {
                 .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
                         e.getMessage().equals("Bootcamp no encontrado"))
                 .verify();
+
+        Mockito.verify(enrollmentRepository, Mockito.never()).admit(any(), any(), anyInt());
     }
 
     // --------------------------------------------------------
@@ -130,24 +194,31 @@ public class EnrollmentUseCaseTest {
         // Bootcamp nuevo (objetivo)
         Bootcamp bootNuevo = buildBootcamp("nuevo", 10);
 
-        // Bootcamp ya inscrito por la persona
-        Bootcamp bootExistente = buildBootcamp("existente", 10);
+        when(bootcampRepository.findById("nuevo"))
+                .thenReturn(Mono.just(bootNuevo));
 
-        // La persona ya tiene una inscripción
-        Enrollment e1 = Enrollment.builder()
-                .id("e1")
-                .personId("p1")
-                .bootcampId("existente")
-                .build();
+        // La persona ya tiene una inscripción en las mismas fechas
+        rejectWithSummary(buildInscrito("existente", LocalDate.of(2025, 1, 1), 10));
+
+        StepVerifier.create(useCase.enrollPerson("p1", "nuevo"))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                        e.getMessage().contains("Conflicto de fechas"))
+                .verify();
+
+        Mockito.verify(bootcampRepository, Mockito.never()).incrementCantidadPersonasInscritas(anyString(), anyInt());
+    }
 
-        when(enrollmentRepository.findByPersonId("p1"))
-                .thenReturn(Flux.just(e1));
+    // --------------------------------------------------------
+    @Test
+    void enrollPerson_Fails_WhenSummaryEntryHasNoFechaFin() {
 
         when(bootcampRepository.findById("nuevo"))
-                .thenReturn(Mono.just(bootNuevo));
+                .thenReturn(Mono.just(buildBootcamp("nuevo", 10)));
 
-        when(bootcampRepository.findById("existente"))
-                .thenReturn(Mono.just(bootExistente));
+        // Entrada antigua sin fechaFin: se toma como un bootcamp de un día
+        EnrolledBootcamp legado = buildInscrito("legado", LocalDate.of(2025, 1, 1), 0);
+        legado.setFechaFin(null);
+        rejectWithSummary(legado);
 
         StepVerifier.create(useCase.enrollPerson("p1", "nuevo"))
                 .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
@@ -155,4 +226,191 @@ public class EnrollmentUseCaseTest {
                 .verify();
     }
 
+    // --------------------------------------------------------
+    @Test
+    void enrollPerson_Fails_WhenBootcampHasNoFechaLanzamiento() {
+
+        Bootcamp sinFechas = buildBootcamp("b1", 10);
+        sinFechas.setFechaLanzamiento(null);
+        sinFechas.setFechaFin(null);
+
+        when(bootcampRepository.findById("b1"))
+                .thenReturn(Mono.just(sinFechas));
+
+        StepVerifier.create(useCase.enrollPerson("p1", "b1"))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                        e.getMessage().equals("El bootcamp no tiene fecha de lanzamiento"))
+                .verify();
+
+        Mockito.verify(enrollmentRepository, Mockito.never()).save(any());
+    }
+
+    // --------------------------------------------------------
+    @Test
+    void enrollPerson_Fails_WhenSummaryChangedConcurrently() {
+
+        when(bootcampRepository.findById("b1"))
+                .thenReturn(Mono.just(buildBootcamp("b1", 10)));
+
+        rejectWithSummary();
+
+        StepVerifier.create(useCase.enrollPerson("p1", "b1"))
+                .expectErrorMatches(e -> e instanceof IllegalArgumentException &&
+                        e.getMessage().equals("La inscripción no pudo completarse, intente nuevamente"))
+                .verify();
+    }
+
+    // --------------------------------------------------------
+    @Test
+    void getEligibleBootcamps_ExcludesEnrolledAndOverlapping() {
+
+        rejectWithSummary(buildInscrito("inscrito", LocalDate.of(2030, 1, 1), 4));
+
+        Bootcamp inscrito = buildBootcamp("inscrito", 4);
+        inscrito.setFechaLanzamiento(LocalDate.of(2030, 1, 1));
+        inscrito.setFechaFin(LocalDate.of(2030, 1, 29));
+
+        Bootcamp cruzado = buildBootcamp("cruzado", 4);
+        cruzado.setFechaLanzamiento(LocalDate.of(2030, 1, 15));
+        cruzado.setFechaFin(LocalDate.of(2030, 2, 12));
+
+        Bootcamp libre = buildBootcamp("libre", 4);
+        libre.setFechaLanzamiento(LocalDate.of(2030, 3, 1));
+        libre.setFechaFin(LocalDate.of(2030, 3, 29));
+
+        when(bootcampRepository.findEndingFrom(any(LocalDate.class)))
+                .thenReturn(Flux.just(inscrito, cruzado, libre));
+
+        StepVerifier.create(useCase.getEligibleBootcamps("p1"))
+                .expectNext(libre)
+                .verifyComplete();
+    }
+
+    // --------------------------------------------------------
+    @Test
+    void getEligibleBootcamps_IsEmpty_WhenPersonHasFiveBootcamps() {
+
+        rejectWithSummary(IntStream.range(0, 5)
+                .mapToObj(i -> buildInscrito("otro" + i, LocalDate.of(2024, 1, 1).plusWeeks(2L * i), 1))
+                .toArray(EnrolledBootcamp[]::new));
+
+        StepVerifier.create(useCase.getEligibleBootcamps("p1"))
+                .verifyComplete();
+
+        Mockito.verify(bootcampRepository, Mockito.never()).findEndingFrom(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void enrollAll_ShouldValidateInMemoryAndWriteChunkOnce() {
+
+        when(bootcampRepository.findAllById(any())).thenReturn(Flux.just(
+                buildBootcamp("b1", 4), buildBootcamp("b2", 4)));
+        when(enrollmentRepository.findSummariesByPersonIds(any())).thenReturn(Flux.just(
+                new PersonEnrollments("p2", List.of(), 3L)));
+        when(enrollmentRepository.admitAll(any(), any())).thenAnswer(invocation -> {
+            List<Enrollment> enrollments = invocation.getArgument(1);
+            return Flux.fromIterable(enrollments)
+                    .map(e -> Enrollment.builder().id("e-" + e.getPersonId()).personId(e.getPersonId())
+                            .bootcampId(e.getBootcampId()).build());
+        });
+
+        Flux<Enrollment> rows = Flux.just(
+                Enrollment.builder().personId("p1").bootcampId("b1").build(),
+                Enrollment.builder().personId("p1").bootcampId("b2").build(),
+                Enrollment.builder().personId("p2").bootcampId("b1").build(),
+                Enrollment.builder().personId("p3").bootcampId("b999").build());
+
+        StepVerifier.create(useCase.enrollAll(rows, 100))
+                .expectNext(BulkItemResult.inserted(0, "e-p1"))
+                .expectNext(BulkItemResult.rejected(1, "Conflicto de fechas con el bootcamp: Bootcamp b1"))
+                .expectNext(BulkItemResult.inserted(2, "e-p2"))
+                .expectNext(BulkItemResult.rejected(3, "Bootcamp no encontrado"))
+                .verifyComplete();
+
+        ArgumentCaptor<List<PersonEnrollments>> summaries = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(enrollmentRepository).admitAll(summaries.capture(), any());
+        assertEquals(List.of("p1", "p2"), summaries.getValue().stream().map(PersonEnrollments::getId).toList());
+        // p1 no tenía resumen; p2 se escribe contra la versión leída
+        assertEquals(null, summaries.getValue().get(0).getVersion());
+        assertEquals(3L, summaries.getValue().get(1).getVersion());
+
+        Mockito.verify(bootcampRepository).incrementCantidadPersonasInscritas("b1", 2);
+        Mockito.verify(enrollmentRepository, Mockito.never()).admit(any(), any(), anyInt());
+    }
+
+    @Test
+    void enrollAll_ShouldRetryRowByRowWhenSummaryChanged() {
+
+        Bootcamp bootcamp = buildBootcamp("b1", 4);
+        when(bootcampRepository.findAllById(any())).thenReturn(Flux.just(bootcamp));
+        when(bootcampRepository.findById("b1")).thenReturn(Mono.just(bootcamp));
+        when(enrollmentRepository.findSummariesByPersonIds(any())).thenReturn(Flux.empty());
+        when(enrollmentRepository.admitAll(any(), any()))
+                .thenReturn(Flux.error(new OptimisticLockingFailureException("cambió")));
+        when(enrollmentRepository.admit(any(), any(), anyInt())).thenReturn(Mono.just(
+                Enrollment.builder().id("e1").personId("p1").bootcampId("b1").build()));
+
+        StepVerifier.create(useCase.enrollAll(
+                        Flux.just(Enrollment.builder().personId("p1").bootcampId("b1").build()), 100))
+                .expectNext(BulkItemResult.inserted(0, "e1"))
+                .verifyComplete();
+
+        Mockito.verify(enrollmentRepository).admit(any(), any(), eq(5));
+    }
+
+    @Test
+    void enrollAll_ShouldNotExposeInfrastructureErrorsPerRow() {
+
+        Bootcamp bootcamp = buildBootcamp("b1", 4);
+        when(bootcampRepository.findAllById(any())).thenReturn(Flux.just(bootcamp));
+        when(bootcampRepository.findById("b1")).thenReturn(Mono.just(bootcamp));
+        when(enrollmentRepository.findSummariesByPersonIds(any())).thenReturn(Flux.empty());
+        when(enrollmentRepository.admitAll(any(), any()))
+                .thenReturn(Flux.error(new OptimisticLockingFailureException("cambió")));
+        when(enrollmentRepository.admit(any(), any(), anyInt()))
+                .thenReturn(Mono.error(new IllegalStateException("Timed out connecting to mongo-0:27017")));
+
+        StepVerifier.create(useCase.enrollAll(
+                        Flux.just(Enrollment.builder().personId("p1").bootcampId("b1").build()), 100))
+                .expectNext(BulkItemResult.rejected(0, "No fue posible procesar la fila, intente nuevamente"))
+                .verifyComplete();
+    }
+
+    @Test
+    void enrollAll_ShouldRejectChunkRowsWithoutEndingResponse_WhenWriteFails() {
+
+        when(bootcampRepository.findAllById(any())).thenReturn(Flux.just(buildBootcamp("b1", 4)));
+        when(enrollmentRepository.findSummariesByPersonIds(any())).thenReturn(Flux.empty());
+        when(enrollmentRepository.admitAll(any(), any()))
+                .thenReturn(Flux.error(new IllegalStateException("Timed out connecting to mongo-0:27017")));
+
+        Flux<Enrollment> rows = Flux.just(
+                Enrollment.builder().personId("p1").bootcampId("b1").build(),
+                Enrollment.builder().personId("p2").bootcampId("b999").build(),
+                Enrollment.builder().personId("p3").bootcampId("b1").build());
+
+        StepVerifier.create(useCase.enrollAll(rows, 2))
+                .expectNext(BulkItemResult.rejected(0, "No fue posible procesar la fila, intente nuevamente"))
+                .expectNext(BulkItemResult.rejected(1, "Bootcamp no encontrado"))
+                .expectNext(BulkItemResult.rejected(2, "No fue posible procesar la fila, intente nuevamente"))
+                .verifyComplete();
+
+        // Cada bloque escribe inscripciones y contadores en una sola transacción
+        Mockito.verify(transactionRunner, Mockito.times(2)).inTransaction(any());
+        Mockito.verify(bootcampRepository, Mockito.never()).incrementCantidadPersonasInscritas(anyString(), anyInt());
+    }
+
+    @Test
+    void enrollAll_ShouldRejectChunkRows_WhenChunkCannotBeRead() {
+
+        when(bootcampRepository.findAllById(any()))
+                .thenReturn(Flux.error(new IllegalStateException("Timed out connecting to mongo-0:27017")));
+        when(enrollmentRepository.findSummariesByPersonIds(any())).thenReturn(Flux.empty());
+
+        StepVerifier.create(useCase.enrollAll(
+                        Flux.just(Enrollment.builder().personId("p1").bootcampId("b1").build()), 100))
+                .expectNext(BulkItemResult.rejected(0, "No fue posible procesar la fila, intente nuevamente"))
+                .verifyComplete();
+    }
 }
@@ -1,9 +1,13 @@
 package com.reactivo.onclass.app.on_class_reactivo.domain.usecase;
 
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
 
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BulkItemResult;
 import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
 import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
 
@@ -31,7 +35,6 @@ class TechnologyUseCaseTest {
                 .build();
 
         // when
-        Mockito.when(repository.existsByNombre("Spring Boot")).thenReturn(Mono.just(false));
         Mockito.when(repository.save(tech)).thenReturn(Mono.just(tech));
 
         // then
@@ -40,7 +43,7 @@ class TechnologyUseCaseTest {
                 .verifyComplete();
 
         // verify repository interactions
-        Mockito.verify(repository).existsByNombre("Spring Boot");
+        Mockito.verify(repository, Mockito.never()).existsByNombre(Mockito.any());
         Mockito.verify(repository).save(tech);
     }
 
@@ -53,7 +56,7 @@ class TechnologyUseCaseTest {
                 .build();
 
         // when
-        Mockito.when(repository.existsByNombre("Spring Boot")).thenReturn(Mono.just(true));
+        Mockito.when(repository.save(tech)).thenReturn(Mono.error(new DuplicateKeyException("E11000")));
 
         // then
         StepVerifier.create(useCase.createTechnology(tech))
@@ -61,8 +64,7 @@ class TechnologyUseCaseTest {
                         error.getMessage().equals("El nombre de la tecnología ya existe"))
                 .verify();
 
-        Mockito.verify(repository).existsByNombre("Spring Boot");
-        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+        Mockito.verify(repository).save(tech);
     }
 
     @Test
@@ -82,4 +84,33 @@ class TechnologyUseCaseTest {
 
         Mockito.verify(repository).findAll();
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importTechnologies_shouldInsertValidRowsInChunks() {
+        // given
+        Technology java = new Technology(null, "Java", "Lenguaje");
+        Technology sinNombre = new Technology(null, "", "Sin nombre");
+        Technology repetida = new Technology(null, "Java", "Repetida");
+        Technology go = new Technology(null, "Go", "Lenguaje");
+
+        Mockito.when(repository.insertAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Technology> chunk = invocation.getArgument(0);
+            chunk.forEach(tech -> tech.setId("id-" + tech.getNombre()));
+            // La fila repetida llega en el segundo bloque, en la posición 0
+            return chunk.get(0) == repetida ? Flux.just(0) : Flux.empty();
+        });
+
+        // then
+        StepVerifier.create(useCase.importTechnologies(Flux.just(java, sinNombre, repetida, go),
+                        tech -> tech.getNombre().isBlank() ? "nombre: El nombre es obligatorio" : null, 2))
+                .expectNext(BulkItemResult.inserted(0, "id-Java"))
+                .expectNext(BulkItemResult.rejected(1, "nombre: El nombre es obligatorio"))
+                .expectNext(BulkItemResult.rejected(2, "El nombre de la tecnología ya existe"))
+                .expectNext(BulkItemResult.inserted(3, "id-Go"))
+                .verifyComplete();
+
+        Mockito.verify(repository, Mockito.times(2)).insertAll(Mockito.anyList());
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+    }
 }
@@ -0,0 +1,103 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class CachingTechnologyRepositoryTest {
+
+    private TechnologyRepository delegate;
+    private Cache<String, Technology> cache;
+    private CachingTechnologyRepository repository;
+
+    private final Technology java = Technology.builder().id("t1").nombre("Java").descripcion("Lenguaje").build();
+    private final Technology kotlin = Technology.builder().id("t2").nombre("Kotlin").descripcion("Lenguaje").build();
+
+    @BeforeEach
+    void setUp() {
+        delegate = Mockito.mock(TechnologyRepository.class);
+        cache = Caffeine.newBuilder().maximumSize(10).recordStats().build();
+        repository = new CachingTechnologyRepository(delegate, cache);
+    }
+
+    @Test
+    void findById_ShouldHitDatabaseOnlyOnce() {
+        when(delegate.findById("t1")).thenReturn(Mono.just(java));
+
+        StepVerifier.create(repository.findById("t1")).expectNext(java).verifyComplete();
+        StepVerifier.create(repository.findById("t1")).expectNext(java).verifyComplete();
+
+        verify(delegate, times(1)).findById("t1");
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    void findById_ShouldReturnCopies() {
+        cache.put("t1", java);
+
+        Technology found = repository.findById("t1").block();
+        found.setNombre("Modificado");
+
+        assertNotSame(java, found);
+        assertEquals("Java", cache.getIfPresent("t1").getNombre());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findAllById_ShouldOnlyQueryMisses() {
+        cache.put("t1", java);
+        when(delegate.findAllById(anyIterable())).thenReturn(Flux.just(kotlin));
+
+        StepVerifier.create(repository.findAllById(List.of("t1", "t2")))
+                .expectNext(java, kotlin)
+                .verifyComplete();
+
+        ArgumentCaptor<Iterable<String>> ids = ArgumentCaptor.forClass(Iterable.class);
+        verify(delegate).findAllById(ids.capture());
+        assertEquals(Set.of("t2"), ids.getValue());
+    }
+
+    @Test
+    void saveAndDelete_ShouldInvalidate() {
+        cache.put("t1", java);
+        cache.put("t2", kotlin);
+        when(delegate.save(java)).thenReturn(Mono.just(java));
+        when(delegate.deleteById("t2")).thenReturn(Mono.empty());
+
+        StepVerifier.create(repository.save(java)).expectNext(java).verifyComplete();
+        StepVerifier.create(repository.deleteById("t2")).verifyComplete();
+
+        assertEquals(0, cache.estimatedSize());
+    }
+
+    @Test
+    void evict_ShouldDropEntryChangedByAnotherNode() {
+        cache.put("t1", java);
+        when(delegate.findById("t1")).thenReturn(Mono.just(kotlin));
+
+        repository.evict("technologies", "t1");
+
+        StepVerifier.create(repository.findById("t1")).expectNext(kotlin).verifyComplete();
+        verify(delegate).findById("t1");
+    }
+}
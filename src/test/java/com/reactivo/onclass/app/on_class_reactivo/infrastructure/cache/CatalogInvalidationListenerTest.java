@@ -0,0 +1,160 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.reactivo.onclass.app.on_class_reactivo.support.MongoContainer;
+
+import reactor.core.publisher.Mono;
+
+@Testcontainers(disabledWithoutDocker = true)
+class CatalogInvalidationListenerTest {
+
+    private static final String DATABASE = "on_class_reactivo_invalidation_test";
+
+    private static MongoClient client;
+    private static ReactiveMongoTemplate mongoTemplate;
+
+    private CatalogInvalidationListener listener;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoContainer.client();
+        mongoTemplate = new ReactiveMongoTemplate(client, DATABASE);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @BeforeEach
+    void cleanDatabase() {
+        mongoTemplate.getMongoDatabase().flatMap(db -> Mono.from(db.drop())).block();
+        mongoTemplate.createCollection("bootcamps").block();
+    }
+
+    @AfterEach
+    void stopListener() {
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    @Test
+    void start_ShouldSkipCounterOnlyUpdates_WhenNoCacheTracksCounters() throws InterruptedException {
+        RecordingCache cache = start(false);
+        String contador = bootcamp();
+        String renombrado = bootcamp();
+        assertEquals("evict " + contador, cache.next());
+        assertEquals("evict " + renombrado, cache.next());
+
+        increment(contador);
+        rename(renombrado);
+
+        assertEquals("evict " + renombrado, cache.next());
+    }
+
+    @Test
+    void start_ShouldPassCounterValue_WhenCacheTracksCounters() throws InterruptedException {
+        RecordingCache cache = start(true);
+        String id = bootcamp();
+        assertEquals("evict " + id, cache.next());
+
+        increment(id);
+
+        assertEquals("counter " + id + " cantidadPersonasInscritas=1", cache.next());
+    }
+
+    private RecordingCache start(boolean tracksCounters) throws InterruptedException {
+        RecordingCache cache = new RecordingCache(tracksCounters);
+        listener = new CatalogInvalidationListener(mongoTemplate,
+                new StaticListableBeanFactory(Map.of("cache", cache)).getBeanProvider(CatalogCache.class));
+        listener.start();
+        // Lo escrito después de la recarga llega aunque el cursor abra más tarde
+        assertEquals("resync", cache.next());
+        return cache;
+    }
+
+    private static String bootcamp() {
+        ObjectId id = new ObjectId();
+        mongoTemplate.insert(new Document("_id", id).append("nombre", "B" + id)
+                .append("cantidadPersonasInscritas", 0), "bootcamps").block();
+        return id.toHexString();
+    }
+
+    private static void increment(String id) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(new ObjectId(id))),
+                new Update().inc("cantidadPersonasInscritas", 1), "bootcamps").block();
+    }
+
+    private static void rename(String id) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(new ObjectId(id))),
+                Update.update("nombre", "Otro " + id), "bootcamps").block();
+    }
+
+    private static class RecordingCache implements CatalogCache {
+
+        private final BlockingQueue<String> calls = new LinkedBlockingQueue<>();
+        private final boolean tracksCounters;
+
+        RecordingCache(boolean tracksCounters) {
+            this.tracksCounters = tracksCounters;
+        }
+
+        String next() throws InterruptedException {
+            return calls.poll(10, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public boolean supports(String collection) {
+            return "bootcamps".equals(collection);
+        }
+
+        @Override
+        public void evict(String collection, String id) {
+            calls.add("evict " + id);
+        }
+
+        @Override
+        public void evictAll(String collection) {
+            calls.add("evictAll");
+        }
+
+        @Override
+        public void resync() {
+            calls.add("resync");
+        }
+
+        @Override
+        public boolean tracksCounters(String collection) {
+            return tracksCounters;
+        }
+
+        @Override
+        public void updateCounter(String collection, String id, String field, int value) {
+            calls.add("counter " + id + " " + field + "=" + value);
+        }
+    }
+}
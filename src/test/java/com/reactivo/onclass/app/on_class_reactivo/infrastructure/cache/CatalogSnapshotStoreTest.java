@@ -0,0 +1,304 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PageCursor;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.BootcampRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.CapabilityRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class CatalogSnapshotStoreTest {
+
+    private TechnologyRepository technologyRepository;
+    private CapabilityRepository capabilityRepository;
+    private BootcampRepository bootcampRepository;
+    private CatalogSnapshotStore store;
+
+    private final Technology java = Technology.builder().id("t1").nombre("Java").descripcion("Lenguaje").build();
+    private final Technology kotlin = Technology.builder().id("t2").nombre("Kotlin").descripcion("Lenguaje").build();
+
+    private final Capability backend = capability("c1", "Backend", 3);
+    private final Capability arquitectura = capability("c2", "arquitectura", 5);
+    private final Capability datos = capability("c3", "Datos", 1);
+
+    @BeforeEach
+    void setUp() {
+        technologyRepository = Mockito.mock(TechnologyRepository.class);
+        capabilityRepository = Mockito.mock(CapabilityRepository.class);
+        bootcampRepository = Mockito.mock(BootcampRepository.class);
+        store = new CatalogSnapshotStore(technologyRepository, capabilityRepository, bootcampRepository);
+
+        when(technologyRepository.findAll()).thenReturn(Flux.just(java, kotlin));
+        when(capabilityRepository.findAll()).thenReturn(Flux.just(backend, arquitectura, datos));
+        when(bootcampRepository.findAll()).thenReturn(Flux.just(
+                Bootcamp.builder().id("b1").nombre("Full stack").cantidadCapacidades(2).build()));
+    }
+
+    @Test
+    void reads_ShouldFallBackToDelegateUntilLoaded() {
+        when(technologyRepository.findById("t1")).thenReturn(Mono.just(java));
+        SnapshotTechnologyRepository repository = new SnapshotTechnologyRepository(technologyRepository, store);
+
+        StepVerifier.create(repository.findById("t1")).expectNext(java).verifyComplete();
+
+        verify(technologyRepository).findById("t1");
+    }
+
+    @Test
+    void reads_ShouldBeServedFromSnapshotAsCopies() {
+        StepVerifier.create(store.reload()).verifyComplete();
+        SnapshotTechnologyRepository repository = new SnapshotTechnologyRepository(technologyRepository, store);
+
+        Technology found = repository.findById("t1").block();
+        found.setNombre("Modificado");
+
+        assertNotSame(java, found);
+        // Solo lo que no está en la foto se busca en Mongo
+        when(technologyRepository.findAllById(List.of("x"))).thenReturn(Flux.empty());
+        StepVerifier.create(repository.findAllById(List.of("t2", "x", "t1")))
+                .expectNext(kotlin, java)
+                .verifyComplete();
+        verify(technologyRepository, never()).findById(anyString());
+        verify(technologyRepository).findAllById(List.of("x"));
+    }
+
+    @Test
+    void findAllPaginated_ShouldSortLikeMongo() {
+        StepVerifier.create(store.reload()).verifyComplete();
+        SnapshotCapabilityRepository repository = new SnapshotCapabilityRepository(capabilityRepository, store);
+
+        // El nombre se compara sin distinguir mayúsculas, como la collation "es"
+        StepVerifier.create(repository.findAllPaginated("nombre", "asc", 0, 2).map(Capability::getId))
+                .expectNext("c2", "c1")
+                .verifyComplete();
+        StepVerifier.create(repository.findAllPaginated("cantidad", "desc", 0, 10).map(Capability::getId))
+                .expectNext("c2", "c1", "c3")
+                .verifyComplete();
+        StepVerifier.create(repository.findAllPaginated("nombre", "asc", 1, 2).map(Capability::getId))
+                .expectNext("c3")
+                .verifyComplete();
+        verify(capabilityRepository, never()).findAllPaginated(anyString(), anyString(), Mockito.anyInt(),
+                Mockito.anyInt());
+    }
+
+    @Test
+    void findAllAfter_ShouldContinueFromCursor() {
+        StepVerifier.create(store.reload()).verifyComplete();
+        SnapshotCapabilityRepository repository = new SnapshotCapabilityRepository(capabilityRepository, store);
+
+        PageCursor afterBackend = new PageCursor("nombre", false, "c1", "Backend");
+        StepVerifier.create(repository.findAllAfter("nombre", "asc", afterBackend, 10).map(Capability::getId))
+                .expectNext("c3")
+                .verifyComplete();
+
+        PageCursor afterBackendDesc = new PageCursor("cantidad", true, "c1", "3");
+        StepVerifier.create(repository.findAllAfter("cantidad", "desc", afterBackendDesc, 10)
+                .map(Capability::getId))
+                .expectNext("c3")
+                .verifyComplete();
+    }
+
+    @Test
+    void evict_ShouldRefreshSingleDocument() {
+        StepVerifier.create(store.reload()).verifyComplete();
+        Capability renombrada = capability("c3", "Analítica", 1);
+        when(capabilityRepository.findById("c3")).thenReturn(Mono.just(renombrada));
+        when(capabilityRepository.findById("c1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(store.refresh("capabilities", "c3")).verifyComplete();
+        StepVerifier.create(store.refresh("capabilities", "c1")).verifyComplete();
+
+        SnapshotCapabilityRepository repository = new SnapshotCapabilityRepository(capabilityRepository, store);
+        StepVerifier.create(repository.findAllPaginated("nombre", "asc", 0, 10).map(Capability::getNombre))
+                .expectNext("Analítica", "arquitectura")
+                .verifyComplete();
+        assertEquals(2, store.current().capabilities().size());
+    }
+
+    @Test
+    void evict_ShouldReplayChangesReceivedWhileLoading() {
+        Sinks.One<List<Capability>> capabilities = Sinks.one();
+        when(capabilityRepository.findAll()).thenReturn(capabilities.asMono().flatMapMany(Flux::fromIterable));
+        when(capabilityRepository.findById("c1")).thenReturn(Mono.just(capability("c1", "Backend", 7)));
+
+        StepVerifier.create(store.reload())
+                .then(() -> {
+                    // Aviso llega antes de que la carga termine, con datos que la carga no verá
+                    store.evict("capabilities", "c1");
+                    capabilities.tryEmitValue(List.of(backend, arquitectura, datos));
+                })
+                .verifyComplete();
+
+        assertEquals(7, store.current().capability("c1").getCantidadTecnologias());
+        SnapshotCapabilityRepository repository = new SnapshotCapabilityRepository(capabilityRepository, store);
+        StepVerifier.create(repository.findAllPaginated("cantidad", "desc", 0, 10).map(Capability::getId))
+                .expectNext("c1", "c2", "c3")
+                .verifyComplete();
+    }
+
+    @Test
+    void evict_ShouldRereadEachDocumentOneAtATime() {
+        StepVerifier.create(store.reload()).verifyComplete();
+        Sinks.One<Capability> firstRead = Sinks.one();
+        when(capabilityRepository.findById("c3"))
+                .thenReturn(firstRead.asMono())
+                .thenReturn(Mono.just(capability("c3", "Analítica", 4)));
+
+        store.evict("capabilities", "c3");
+        store.evict("capabilities", "c3");
+        store.evict("capabilities", "c3");
+        verify(capabilityRepository, times(1)).findById("c3");
+
+        // Al terminar la primera relectura los avisos pendientes se resuelven con una sola más
+        firstRead.tryEmitValue(capability("c3", "Datos", 2));
+        verify(capabilityRepository, times(2)).findById("c3");
+        assertEquals("Analítica", store.current().capability("c3").getNombre());
+    }
+
+    @Test
+    void updateCounter_ShouldPatchEntryWithoutRereading() {
+        StepVerifier.create(store.reload()).verifyComplete();
+        CatalogSnapshot before = store.current();
+
+        store.updateCounter("bootcamps", "b1", "cantidadPersonasInscritas", 4);
+
+        assertSame(before, store.current());
+        assertEquals(4, store.current().bootcamp("b1").getCantidadPersonasInscritas());
+        verify(bootcampRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void findById_ShouldFallBackToDelegate_WhenMissingFromSnapshot() {
+        StepVerifier.create(store.reload()).verifyComplete();
+        Bootcamp otroNodo = Bootcamp.builder().id("b2").nombre("Datos").build();
+        when(bootcampRepository.findById("b2")).thenReturn(Mono.just(otroNodo));
+        when(bootcampRepository.findAllById(List.of("b2"))).thenReturn(Flux.just(otroNodo));
+        SnapshotBootcampRepository repository = new SnapshotBootcampRepository(bootcampRepository, store);
+
+        StepVerifier.create(repository.findById("b2")).expectNext(otroNodo).verifyComplete();
+        StepVerifier.create(repository.findAllById(List.of("b1", "b2")).map(Bootcamp::getId))
+                .expectNext("b1", "b2")
+                .verifyComplete();
+        verify(bootcampRepository, never()).findById("b1");
+    }
+
+    @Test
+    void save_ShouldPublishNewSnapshotWithoutRereading() {
+        StepVerifier.create(store.reload()).verifyComplete();
+        Technology go = Technology.builder().id("t3").nombre("Go").descripcion("Lenguaje").build();
+        when(technologyRepository.save(go)).thenReturn(Mono.just(go));
+        when(technologyRepository.deleteById("t1")).thenReturn(Mono.empty());
+        SnapshotTechnologyRepository repository = new SnapshotTechnologyRepository(technologyRepository, store);
+
+        StepVerifier.create(repository.save(go)).expectNext(go).verifyComplete();
+        StepVerifier.create(repository.deleteById("t1")).verifyComplete();
+
+        StepVerifier.create(repository.findAll().map(Technology::getId))
+                .expectNext("t2", "t3")
+                .verifyComplete();
+        verify(technologyRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void save_ShouldReachSnapshotOnlyWhenTransactionCommits() {
+        StepVerifier.create(store.reload()).verifyComplete();
+        Bootcamp abortado = Bootcamp.builder().id("b2").nombre("Abortado").cantidadCapacidades(1).build();
+        Bootcamp confirmado = Bootcamp.builder().id("b3").nombre("Confirmado").cantidadCapacidades(1).build();
+        when(bootcampRepository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        SnapshotBootcampRepository repository = new SnapshotBootcampRepository(bootcampRepository, store);
+        TransactionalOperator transaction = TransactionalOperator.create(new NoOpTransactionManager());
+
+        StepVerifier.create(transaction.transactional(repository.save(abortado)
+                        .then(Mono.error(new IllegalStateException("rollback")))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(transaction.transactional(repository.save(confirmado)
+                        .doOnNext(saved -> assertNull(store.current().bootcamp("b3")))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertNull(store.current().bootcamp("b2"));
+        assertEquals("Confirmado", store.current().bootcamp("b3").getNombre());
+    }
+
+    @Test
+    void countDistinctTechnologiesPerGroup_ShouldCountSharedTechnologiesOnce() {
+        when(capabilityRepository.findAll()).thenReturn(Flux.just(
+                Capability.builder().id("c1").nombre("Backend").technologyIds(List.of("t1", "t2")).build(),
+                Capability.builder().id("c2").nombre("Móvil").technologyIds(List.of("t2", "t3")).build()));
+        StepVerifier.create(store.reload()).verifyComplete();
+        SnapshotCapabilityRepository repository = new SnapshotCapabilityRepository(capabilityRepository, store);
+
+        StepVerifier.create(repository.countDistinctTechnologiesPerGroup(
+                        Map.of("b1", List.of("c1", "c2", "x"), "b2", List.of("c2"), "b3", List.of())))
+                .expectNext(Map.of("b1", 3, "b2", 2, "b3", 0))
+                .verifyComplete();
+        verify(capabilityRepository, never()).countDistinctTechnologiesPerGroup(any());
+    }
+
+    private static Capability capability(String id, String nombre, int cantidad) {
+        return Capability.builder()
+                .id(id)
+                .nombre(nombre)
+                .descripcion("Capacidad")
+                .technologyIds(List.of())
+                .cantidadTecnologias(cantidad)
+                .build();
+    }
+
+    // Transacción sin recursos: solo ejecuta las sincronizaciones de commit y rollback
+    private static final class NoOpTransactionManager extends AbstractReactiveTransactionManager {
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                TransactionDefinition definition) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.domain.repository.TechnologyRepository;
+import com.reactivo.onclass.app.on_class_reactivo.domain.usecase.TechnologyUseCase;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class DomainMetricsPostProcessorTest {
+
+    private MeterRegistry registry;
+    private DomainMetricsPostProcessor postProcessor;
+    private TechnologyRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        postProcessor = new DomainMetricsPostProcessor(
+                new StaticListableBeanFactory(Map.of("meterRegistry", registry)).getBeanProvider(MeterRegistry.class));
+        repository = Mockito.mock(TechnologyRepository.class);
+    }
+
+    @Test
+    void repositoryCalls_ShouldBeTimedFromSubscriptionAndCountElements() {
+        when(repository.findAll()).thenReturn(Flux.just(
+                Technology.builder().id("t1").build(),
+                Technology.builder().id("t2").build()));
+        TechnologyRepository metered = (TechnologyRepository) postProcessor.postProcessAfterInitialization(
+                repository, "technologyRepository");
+
+        Flux<Technology> all = metered.findAll();
+        assertEquals(0, registry.get("onclass.repository").tag("outcome", "success").timer().count());
+
+        StepVerifier.create(all).expectNextCount(2).verifyComplete();
+
+        assertEquals(1, registry.get("onclass.repository")
+                .tag("port", "TechnologyRepository")
+                .tag("method", "findAll")
+                .tag("outcome", "success")
+                .timer().count());
+        assertEquals(2.0, registry.get("onclass.repository.elements")
+                .tag("method", "findAll")
+                .summary().totalAmount());
+    }
+
+    @Test
+    void repositoryErrors_ShouldBeCountedByException() {
+        when(repository.findById("t1")).thenReturn(Mono.error(new IllegalStateException("caído")));
+        TechnologyRepository metered = (TechnologyRepository) postProcessor.postProcessAfterInitialization(
+                repository, "technologyRepository");
+
+        StepVerifier.create(metered.findById("t1")).verifyError(IllegalStateException.class);
+
+        assertEquals(1.0, registry.get("onclass.repository.errors")
+                .tag("method", "findById")
+                .tag("exception", "IllegalStateException")
+                .counter().count());
+        assertEquals(1, registry.get("onclass.repository").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void useCases_ShouldBeTimedSeparatelyFromTheirPorts() {
+        when(repository.findAll()).thenReturn(Flux.empty());
+        TechnologyUseCase metered = (TechnologyUseCase) postProcessor.postProcessAfterInitialization(
+                new TechnologyUseCase(repository), "technologyUseCase");
+
+        StepVerifier.create(metered.getAllTechnologies()).verifyComplete();
+
+        assertEquals(1, registry.get("onclass.usecase")
+                .tag("usecase", "TechnologyUseCase")
+                .tag("method", "getAllTechnologies")
+                .timer().count());
+    }
+
+    @Test
+    void beansAlreadyMetered_ShouldNotBeAdvisedTwice() {
+        when(repository.findById("t1")).thenReturn(Mono.just(Technology.builder().id("t1").build()));
+        Object once = postProcessor.postProcessAfterInitialization(repository, "cachingTechnologyRepository");
+        TechnologyRepository twice = (TechnologyRepository) postProcessor.postProcessAfterInitialization(
+                once, "technologyRepository");
+
+        StepVerifier.create(twice.findById("t1")).expectNextCount(1).verifyComplete();
+
+        assertSame(once, twice);
+        assertEquals(1, registry.get("onclass.repository")
+                .tag("method", "findById")
+                .tag("outcome", "success")
+                .timer().count());
+        assertEquals(1, registry.get("onclass.repository.elements")
+                .tag("method", "findById")
+                .summary().count());
+    }
+
+    @Test
+    void otherBeans_ShouldNotBeProxied() {
+        Object bean = new Object();
+
+        assertSame(bean, postProcessor.postProcessAfterInitialization(bean, "other"));
+    }
+}
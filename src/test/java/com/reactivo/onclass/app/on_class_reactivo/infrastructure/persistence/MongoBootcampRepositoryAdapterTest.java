@@ -0,0 +1,109 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.BootcampCascade;
+import com.reactivo.onclass.app.on_class_reactivo.support.MongoContainer;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@Testcontainers(disabledWithoutDocker = true)
+class MongoBootcampRepositoryAdapterTest {
+
+    private static final String DATABASE = "on_class_reactivo_bootcamp_test";
+
+    private static MongoClient client;
+    private static ReactiveMongoTemplate mongoTemplate;
+    private static MongoBootcampRepositoryAdapter adapter;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoContainer.client();
+        mongoTemplate = new ReactiveMongoTemplate(client, DATABASE);
+        adapter = new MongoBootcampRepositoryAdapter(
+                new ReactiveMongoRepositoryFactory(mongoTemplate).getRepository(MongoBootcampRepository.class),
+                mongoTemplate, 256);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @BeforeEach
+    void cleanDatabase() {
+        mongoTemplate.getMongoDatabase().flatMap(db -> Mono.from(db.drop())).block();
+    }
+
+    @Test
+    void findDeleteCascade_ShouldKeepSharedCapabilitiesAndTechnologies() {
+        String t1 = technology();
+        String t2 = technology();
+        String t3 = technology();
+        String shared = capability(t2);
+        String orphan = capability(t1, t2);
+        String orphanToo = capability(t3);
+        // t3 sigue en uso por una capacidad de otro bootcamp
+        String other = capability(t3);
+        String target = bootcamp(shared, orphan, orphanToo);
+        bootcamp(shared, other);
+
+        BootcampCascade cascade = adapter.findDeleteCascade(target).block();
+
+        assertEquals(Set.of(orphan, orphanToo), Set.copyOf(cascade.getOrphanCapabilityIds()));
+        assertEquals(List.of(t1), cascade.getOrphanTechnologyIds());
+    }
+
+    @Test
+    void findDeleteCascade_ShouldReturnEmptyLists_WhenBootcampHasNoCapabilities() {
+        String target = bootcamp();
+
+        BootcampCascade cascade = adapter.findDeleteCascade(target).block();
+
+        assertEquals(List.of(), cascade.getOrphanCapabilityIds());
+        assertEquals(List.of(), cascade.getOrphanTechnologyIds());
+    }
+
+    @Test
+    void findDeleteCascade_ShouldBeEmpty_WhenBootcampDoesNotExist() {
+        StepVerifier.create(adapter.findDeleteCascade(new ObjectId().toHexString()))
+                .verifyComplete();
+    }
+
+    private static String technology() {
+        ObjectId id = new ObjectId();
+        mongoTemplate.insert(new Document("_id", id).append("nombre", "T" + id), "technologies").block();
+        return id.toHexString();
+    }
+
+    private static String capability(String... technologyIds) {
+        ObjectId id = new ObjectId();
+        mongoTemplate.insert(new Document("_id", id).append("nombre", "C" + id)
+                .append("technologyIds", List.of(technologyIds)), "capabilities").block();
+        return id.toHexString();
+    }
+
+    private static String bootcamp(String... capabilityIds) {
+        ObjectId id = new ObjectId();
+        mongoTemplate.insert(new Document("_id", id).append("nombre", "B" + id)
+                .append("capabilityIds", List.of(capabilityIds)), "bootcamps").block();
+        return id.toHexString();
+    }
+}
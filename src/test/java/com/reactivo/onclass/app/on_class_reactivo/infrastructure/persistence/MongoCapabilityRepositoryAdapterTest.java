@@ -0,0 +1,73 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.reactivo.onclass.app.on_class_reactivo.support.MongoContainer;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@Testcontainers(disabledWithoutDocker = true)
+class MongoCapabilityRepositoryAdapterTest {
+
+    private static final String DATABASE = "on_class_reactivo_capability_test";
+
+    private static MongoClient client;
+    private static ReactiveMongoTemplate mongoTemplate;
+    private static MongoCapabilityRepositoryAdapter adapter;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoContainer.client();
+        mongoTemplate = new ReactiveMongoTemplate(client, DATABASE);
+        adapter = new MongoCapabilityRepositoryAdapter(
+                new ReactiveMongoRepositoryFactory(mongoTemplate).getRepository(MongoCapabilityRepository.class),
+                mongoTemplate, 256);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @BeforeEach
+    void cleanDatabase() {
+        mongoTemplate.getMongoDatabase().flatMap(db -> Mono.from(db.drop())).block();
+    }
+
+    @Test
+    void countDistinctTechnologiesPerGroup_ShouldCountEachGroupInOneAggregation() {
+        String backend = capability("t1", "t2");
+        String datos = capability("t2", "t3");
+        String vacia = capability();
+
+        StepVerifier.create(adapter.countDistinctTechnologiesPerGroup(Map.of(
+                        "b1", List.of(backend, datos),
+                        "b2", List.of(datos),
+                        "b3", List.of(vacia, new ObjectId().toHexString()),
+                        "b4", List.of())))
+                .expectNext(Map.of("b1", 3, "b2", 2, "b3", 0, "b4", 0))
+                .verifyComplete();
+    }
+
+    private static String capability(String... technologyIds) {
+        ObjectId id = new ObjectId();
+        mongoTemplate.insert(new Document("_id", id).append("nombre", "C" + id)
+                .append("technologyIds", List.of(technologyIds)), "capabilities").block();
+        return id.toHexString();
+    }
+}
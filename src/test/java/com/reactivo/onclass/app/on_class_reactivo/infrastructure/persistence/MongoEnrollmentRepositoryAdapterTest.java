@@ -0,0 +1,133 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.ReactiveMongoTransactionManager;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Bootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Capability;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.EnrolledBootcamp;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Enrollment;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.PersonEnrollments;
+import com.reactivo.onclass.app.on_class_reactivo.domain.model.Technology;
+import com.reactivo.onclass.app.on_class_reactivo.support.MongoContainer;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@Testcontainers(disabledWithoutDocker = true)
+class MongoEnrollmentRepositoryAdapterTest {
+
+    private static final String DATABASE = "on_class_reactivo_enrollment_test";
+
+    private static MongoClient client;
+    private static ReactiveMongoTemplate mongoTemplate;
+    private static MongoEnrollmentRepositoryAdapter adapter;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoContainer.client();
+        SimpleReactiveMongoDatabaseFactory factory = new SimpleReactiveMongoDatabaseFactory(client, DATABASE);
+        mongoTemplate = new ReactiveMongoTemplate(factory);
+        adapter = new MongoEnrollmentRepositoryAdapter(
+                new ReactiveMongoRepositoryFactory(mongoTemplate).getRepository(MongoEnrollmentRepository.class),
+                mongoTemplate, new ReactiveMongoTransactionManager(factory));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @BeforeEach
+    void cleanDatabase() {
+        mongoTemplate.getMongoDatabase().flatMap(db -> Mono.from(db.drop())).block();
+    }
+
+    @Test
+    void removeBootcamp_ShouldPullItFromSummariesAndDeleteItsEnrollments() {
+        mongoTemplate.insert(new PersonEnrollments("p1", List.of(inscrito("b1"), inscrito("b2")), 2L)).block();
+        mongoTemplate.insert(new PersonEnrollments("p2", List.of(inscrito("b1")), 1L)).block();
+        mongoTemplate.insert(List.of(enrollment("p1", "b1"), enrollment("p1", "b2"), enrollment("p2", "b1")),
+                Enrollment.class).blockLast();
+
+        StepVerifier.create(adapter.removeBootcamp("b1")).verifyComplete();
+
+        PersonEnrollments p1 = mongoTemplate.findById("p1", PersonEnrollments.class).block();
+        assertEquals(List.of("b2"), p1.getBootcamps().stream().map(EnrolledBootcamp::getBootcampId).toList());
+        assertEquals(3L, p1.getVersion());
+        assertEquals(List.of(), mongoTemplate.findById("p2", PersonEnrollments.class).block().getBootcamps());
+        assertEquals(List.of("b2"), mongoTemplate.find(new Query(), Enrollment.class)
+                .map(Enrollment::getBootcampId)
+                .collectList()
+                .block());
+
+        // El cupo liberado admite una inscripción nueva con las mismas fechas
+        StepVerifier.create(adapter.admit(enrollment("p2", "b3"), inscrito("b3"), 1))
+                .expectNextCount(1)
+                .verifyComplete();
+        assertEquals(2L, mongoTemplate.count(new Query(), Enrollment.class).block());
+    }
+
+    @Test
+    void findBootcampWithMostEnrollments_ShouldLoadCapabilitiesAndTechnologies() {
+        ObjectId java = new ObjectId();
+        ObjectId spring = new ObjectId();
+        ObjectId backend = new ObjectId();
+        ObjectId top = new ObjectId();
+        ObjectId other = new ObjectId();
+        mongoTemplate.insert(new Document("_id", java).append("nombre", "Java"), "technologies").block();
+        mongoTemplate.insert(new Document("_id", spring).append("nombre", "Spring"), "technologies").block();
+        mongoTemplate.insert(new Document("_id", backend).append("nombre", "Backend")
+                .append("technologyIds", List.of(java.toHexString(), spring.toHexString())), "capabilities").block();
+        mongoTemplate.insert(new Document("_id", top).append("nombre", "Top")
+                .append("capabilityIds", List.of(backend.toHexString())), "bootcamps").block();
+        mongoTemplate.insert(new Document("_id", other).append("nombre", "Otro"), "bootcamps").block();
+        mongoTemplate.insert(List.of(enrollment("p1", top.toHexString()), enrollment("p2", top.toHexString()),
+                enrollment("p3", other.toHexString())), Enrollment.class).blockLast();
+
+        Bootcamp bootcamp = adapter.findBootcampWithMostEnrollments().block();
+
+        assertEquals("Top", bootcamp.getNombre());
+        assertEquals(List.of("Backend"), bootcamp.getCapabilities().stream().map(Capability::getNombre).toList());
+        assertEquals(Set.of("Java", "Spring"), bootcamp.getCapabilities().get(0).getTechnologies().stream()
+                .map(Technology::getNombre)
+                .collect(Collectors.toSet()));
+    }
+
+    private static EnrolledBootcamp inscrito(String bootcampId) {
+        return EnrolledBootcamp.builder()
+                .bootcampId(bootcampId)
+                .nombre("Bootcamp " + bootcampId)
+                .fechaInicio(LocalDate.of(2026, 3, 2))
+                .fechaFin(LocalDate.of(2026, 4, 27))
+                .build();
+    }
+
+    private static Enrollment enrollment(String personId, String bootcampId) {
+        return Enrollment.builder()
+                .personId(personId)
+                .bootcampId(bootcampId)
+                .fechaInscripcion(LocalDate.of(2026, 2, 1))
+                .build();
+    }
+}
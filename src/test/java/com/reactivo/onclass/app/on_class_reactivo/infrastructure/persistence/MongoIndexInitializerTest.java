@@ -0,0 +1,254 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.reactivo.onclass.app.on_class_reactivo.support.MongoContainer;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+// Verifica con explain() que cada consulta de los repositorios usa un índice
+@Testcontainers(disabledWithoutDocker = true)
+class MongoIndexInitializerTest {
+
+    private static final String DATABASE = "on_class_reactivo_index_test";
+
+    private static MongoClient client;
+    private static ReactiveMongoTemplate mongoTemplate;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoContainer.client();
+        mongoTemplate = new ReactiveMongoTemplate(client, DATABASE);
+
+        mongoTemplate.getMongoDatabase()
+                .flatMap(db -> Mono.from(db.drop()))
+                .block();
+
+        // Las colecciones deben existir para que explain() devuelva un plan
+        List.of("bootcamps", "capabilities", "technologies", "enrollments")
+                .forEach(collection -> mongoTemplate.insert(new Document("seed", true), collection).block());
+
+        initializer(mongoTemplate).initialize().block();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    @Test
+    void bootcampQueries_ShouldUseIndexes() {
+        assertUsesIndex(find("bootcamps", new Document("nombre", "Java")));
+        // Unión de findDeleteCascade: otros bootcamps con la misma capacidad
+        assertUsesIndex(find("bootcamps", new Document("capabilityIds", "c1")));
+        assertUsesIndex(find("bootcamps", new Document())
+                .append("sort", new Document("cantidadPersonasInscritas", -1).append("_id", 1)));
+        assertUsesIndex(find("bootcamps", new Document())
+                .append("sort", new Document("cantidadCapacidades", 1).append("_id", 1)));
+        assertUsesIndex(find("bootcamps", new Document("fechaLanzamiento", new Document("$lte", new Date()))
+                .append("fechaFin", new Document("$gte", new Date()))));
+        assertUsesIndex(find("bootcamps", new Document("fechaFin", new Document("$gte", new Date()))));
+        // findEndingFrom y findRunningBetween: filtro por fechas y orden de lanzamiento
+        assertSortedByIndex(find("bootcamps", new Document("fechaFin", new Document("$gte", new Date())))
+                .append("sort", new Document("fechaLanzamiento", 1).append("_id", 1)));
+        assertSortedByIndex(find("bootcamps", new Document("fechaLanzamiento", new Document("$lte", new Date()))
+                .append("fechaFin", new Document("$gte", new Date())))
+                .append("sort", new Document("fechaLanzamiento", 1).append("_id", 1)));
+    }
+
+    @Test
+    void capabilityQueries_ShouldUseIndexes() {
+        assertUsesIndex(find("capabilities", new Document("nombre", "Backend")));
+        // Unión de findDeleteCascade: capacidades que comparten alguna tecnología candidata
+        assertUsesIndex(find("capabilities", new Document("technologyIds", new Document("$in", List.of("t1", "t2")))));
+    }
+
+    @Test
+    void technologyQueries_ShouldUseIndexes() {
+        assertUsesIndex(find("technologies", new Document("nombre", "Java")));
+    }
+
+    @Test
+    void enrollmentQueries_ShouldUseIndexes() {
+        assertUsesIndex(find("enrollments", new Document("personId", "p1")));
+        assertUsesIndex(count("enrollments", new Document("personId", "p1")));
+        assertUsesIndex(find("enrollments", new Document("personId", "p1").append("bootcampId", "b1")));
+        assertUsesIndex(find("enrollments", new Document("bootcampId", "b1")));
+        assertUsesIndex(count("enrollments", new Document("bootcampId", "b1")));
+    }
+
+    @Test
+    void uniqueIndexes_ShouldRejectDuplicates() {
+        mongoTemplate.insert(new Document("nombre", "Duplicada"), "technologies").block();
+        mongoTemplate.insert(new Document("personId", "p1").append("bootcampId", "b1"), "enrollments").block();
+
+        StepVerifier.create(mongoTemplate.insert(new Document("nombre", "Duplicada"), "technologies"))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+        StepVerifier.create(mongoTemplate.insert(new Document("personId", "p1").append("bootcampId", "b1"),
+                "enrollments"))
+                .expectError(DuplicateKeyException.class)
+                .verify();
+    }
+
+    @Test
+    void initialize_ShouldFail_WhenIndexHasConflictingDefinition() {
+        ReactiveMongoTemplate template = freshDatabase("on_class_reactivo_index_conflict_test");
+        template.indexOps("bootcamps")
+                .createIndex(new Index().on("nombre", Sort.Direction.ASC).named("nombre"))
+                .block();
+
+        StepVerifier.create(initializer(template).initialize())
+                .expectErrorMatches(e -> e instanceof IllegalStateException
+                        && e.getMessage().contains("replace-conflicting-indexes"))
+                .verify();
+
+        // El índice existente queda intacto
+        IndexInfo nombre = template.indexOps("bootcamps").getIndexInfo()
+                .filter(index -> index.getName().equals("nombre"))
+                .blockFirst();
+        assertFalse(nombre.isUnique());
+    }
+
+    @Test
+    void initialize_ShouldReplaceIndexWithConflictingDefinition_WhenReplacementIsRequested() {
+        ReactiveMongoTemplate template = freshDatabase("on_class_reactivo_index_replace_test");
+        template.indexOps("bootcamps")
+                .createIndex(new Index().on("nombre", Sort.Direction.ASC).named("nombre"))
+                .block();
+
+        new MongoIndexInitializer(template, false, Duration.ofMinutes(1), true).initialize().block();
+
+        IndexInfo nombre = template.indexOps("bootcamps").getIndexInfo()
+                .filter(index -> index.getName().equals("nombre"))
+                .blockFirst();
+        assertTrue(nombre.isUnique());
+    }
+
+    @Test
+    void initialize_ShouldFail_WhenDuplicatesPreventUniqueIndex() {
+        ReactiveMongoTemplate template = freshDatabase("on_class_reactivo_index_duplicates_test");
+        template.insert(new Document("nombre", "Java"), "technologies").block();
+        template.insert(new Document("nombre", "Java"), "technologies").block();
+
+        StepVerifier.create(initializer(template).initialize())
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void backfillPersonEnrollments_ShouldMergeIntoExistingSummariesOnce() {
+        ReactiveMongoTemplate template = freshDatabase("on_class_reactivo_backfill_test");
+        ObjectId b1 = new ObjectId();
+        ObjectId b2 = new ObjectId();
+        template.insert(bootcamp(b1, "Java"), "bootcamps").block();
+        template.insert(bootcamp(b2, "Kotlin"), "bootcamps").block();
+        template.insert(new Document("personId", "p1").append("bootcampId", b1.toHexString()), "enrollments")
+                .block();
+        template.insert(new Document("personId", "p1").append("bootcampId", b2.toHexString()), "enrollments")
+                .block();
+        // Resumen parcial: la inscripción a b2 se atendió antes de la migración
+        template.insert(new Document("_id", "p1").append("version", 1L).append("bootcamps", List.of(
+                new Document("bootcampId", b2.toHexString()).append("nombre", "Kotlin"))), "person_enrollments")
+                .block();
+
+        initializer(template).initialize().block();
+
+        Document summary = template.findById("p1", Document.class, "person_enrollments").block();
+        assertEquals(List.of(b2.toHexString(), b1.toHexString()), summary.getList("bootcamps", Document.class)
+                .stream().map(entry -> entry.getString("bootcampId")).toList());
+        assertEquals(2L, summary.get("version", Number.class).longValue());
+
+        // Con la marca registrada la migración no vuelve a correr
+        template.remove(new Query(), "person_enrollments").block();
+        initializer(template).initialize().block();
+        assertEquals(0L, template.count(new Query(), "person_enrollments").block());
+    }
+
+    @Test
+    void backfillFechaFin_ShouldDefaultUnparseableDurationsAndRepairSummaries() {
+        ReactiveMongoTemplate template = freshDatabase("on_class_reactivo_fecha_fin_test");
+        ObjectId b1 = new ObjectId();
+        Date lanzamiento = new Date();
+        template.insert(bootcamp(b1, "Java").append("fechaLanzamiento", lanzamiento).append("duracion", "diez semanas"),
+                "bootcamps").block();
+        template.insert(new Document("_id", "p1").append("version", 1L).append("bootcamps", List.of(
+                new Document("bootcampId", b1.toHexString()).append("fechaInicio", lanzamiento))),
+                "person_enrollments").block();
+
+        initializer(template).initialize().block();
+
+        Document bootcamp = template.findById(b1, Document.class, "bootcamps").block();
+        assertEquals(lanzamiento, bootcamp.getDate("fechaFin"));
+        Document entry = template.findById("p1", Document.class, "person_enrollments").block()
+                .getList("bootcamps", Document.class).get(0);
+        assertEquals(lanzamiento, entry.getDate("fechaFin"));
+    }
+
+    private static Document bootcamp(ObjectId id, String nombre) {
+        return new Document("_id", id)
+                .append("nombre", nombre)
+                .append("fechaLanzamiento", new Date())
+                .append("duracion", "4 semanas");
+    }
+
+    private static MongoIndexInitializer initializer(ReactiveMongoTemplate template) {
+        return new MongoIndexInitializer(template, false, Duration.ofMinutes(1), false);
+    }
+
+    private static ReactiveMongoTemplate freshDatabase(String database) {
+        ReactiveMongoTemplate template = new ReactiveMongoTemplate(client, database);
+        template.getMongoDatabase().flatMap(db -> Mono.from(db.drop())).block();
+        return template;
+    }
+
+    private static Document find(String collection, Document filter) {
+        return new Document("find", collection).append("filter", filter);
+    }
+
+    private static Document count(String collection, Document query) {
+        return new Document("count", collection).append("query", query);
+    }
+
+    private static void assertUsesIndex(Document command) {
+        String winningPlan = winningPlan(command);
+        assertFalse(winningPlan.contains("COLLSCAN"), () -> "Consulta sin índice: " + command.toJson());
+    }
+
+    private static void assertSortedByIndex(Document command) {
+        String winningPlan = winningPlan(command);
+        assertFalse(winningPlan.contains("COLLSCAN"), () -> "Consulta sin índice: " + command.toJson());
+        assertFalse(winningPlan.contains("\"SORT\""), () -> "Orden en memoria: " + command.toJson());
+    }
+
+    private static String winningPlan(Document command) {
+        Document explain = mongoTemplate.executeCommand(new Document("explain", command)
+                .append("verbosity", "queryPlanner"))
+                .block();
+
+        return explain.get("queryPlanner", Document.class).get("winningPlan", Document.class).toJson();
+    }
+}
@@ -0,0 +1,97 @@
+package com.reactivo.onclass.app.on_class_reactivo.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+
+import com.mongodb.MongoException;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class MongoTransactionRunnerTest {
+
+    private final MongoTransactionRunner runner = new MongoTransactionRunner(new NoOpTransactionManager());
+
+    @Test
+    void inTransaction_ShouldRepeatUnit_WhenErrorIsTransient() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> operation = Mono.defer(() -> attempts.incrementAndGet() < 3
+                ? Mono.error(writeConflict())
+                : Mono.just("ok"));
+
+        StepVerifier.create(runner.inTransaction(operation)).expectNext("ok").verifyComplete();
+
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void inTransaction_ShouldGiveUpAfterBoundedRetries() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> operation = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(writeConflict());
+        });
+
+        StepVerifier.create(runner.inTransaction(operation))
+                .expectError(UncategorizedMongoDbException.class)
+                .verify();
+
+        assertEquals(4, attempts.get());
+    }
+
+    @Test
+    void inTransaction_ShouldNotRetryOtherErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> operation = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new IllegalArgumentException("regla"));
+        });
+
+        StepVerifier.create(runner.inTransaction(operation))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        assertEquals(1, attempts.get());
+    }
+
+    // Así llega un WriteConflict tras la traducción de excepciones de Spring
+    private static UncategorizedMongoDbException writeConflict() {
+        MongoException cause = new MongoException(112, "WriteConflict");
+        cause.addLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL);
+        return new UncategorizedMongoDbException("WriteConflict", cause);
+    }
+
+    private static final class NoOpTransactionManager extends AbstractReactiveTransactionManager {
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                TransactionDefinition definition) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.reactivo.onclass.app.on_class_reactivo.support;
+
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+// mongod real para las pruebas de adaptadores: replica set de un nodo (transacciones,
+// change streams y lecturas snapshot). Se arranca en el primer uso y lo comparten
+// todas las clases; las que lo usan se marcan @Testcontainers(disabledWithoutDocker = true).
+public final class MongoContainer {
+
+    private static final MongoDBContainer MONGO = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+
+    private MongoContainer() {
+    }
+
+    public static synchronized MongoClient client() {
+        if (!MONGO.isRunning()) {
+            MONGO.start();
+        }
+        return MongoClients.create(MONGO.getReplicaSetUrl());
+    }
+}
@@ -0,0 +1,34 @@
+package com.reactivo.onclass.app.on_class_reactivo.support;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.mockito.Mockito;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.reactivo.onclass.app.on_class_reactivo.application.filter.DbRoundTripsWebFilter;
+
+// Presupuesto de idas y vueltas a Mongo por operación: falla si un cambio vuelve
+// a introducir consultas por elemento (N+1).
+public final class RoundTripBudget {
+
+    private RoundTripBudget() {
+    }
+
+    // Pruebas HTTP: usa la cabecera X-Db-Roundtrips de la respuesta
+    public static void assertWithin(WebTestClient.ResponseSpec response, int max) {
+        response.expectHeader().value(DbRoundTripsWebFilter.HEADER, value -> {
+            int used = Integer.parseInt(value);
+            assertTrue(used <= max, () -> "Presupuesto de " + max + " idas a Mongo superado: " + used);
+        });
+    }
+
+    // Pruebas de casos de uso: cada llamada a un puerto simulado cuenta como una ida a Mongo
+    public static void assertPortCallsWithin(int max, Object... ports) {
+        int used = Arrays.stream(ports)
+                .mapToInt(port -> Mockito.mockingDetails(port).getInvocations().size())
+                .sum();
+        assertTrue(used <= max, () -> "Presupuesto de " + max + " llamadas a repositorios superado: " + used);
+    }
+}